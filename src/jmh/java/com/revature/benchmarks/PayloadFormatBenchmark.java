@@ -0,0 +1,195 @@
+package com.revature.benchmarks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.revature.config.JacksonConfig;
+import com.revature.models.Business;
+import com.revature.models.Hours;
+import com.revature.models.Post;
+import com.revature.models.Review;
+import com.revature.models.Role;
+import com.revature.models.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares JSON with the Smile and CBOR responses on payloads shaped like GET /businesses and
+ * GET /businesses/id/{id}/posts: encode time, decode time, and the size of each payload, which
+ * is printed once per fork.
+ *
+ * Run with: mvn -Pbenchmarks test-compile exec:exec -Dbenchmark=PayloadFormatBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayloadFormatBenchmark {
+
+    /**
+     * A full page of GET /businesses
+     */
+    private static final int BUSINESS_COUNT = 50;
+
+    private static final int POST_COUNT = 200;
+
+    private static final TypeReference<List<Business>> BUSINESSES = new TypeReference<List<Business>>() {};
+    private static final TypeReference<List<Post>> POSTS = new TypeReference<List<Post>>() {};
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    private ObjectMapper mapper;
+    private List<Business> businesses;
+    private List<Post> posts;
+    private byte[] encodedBusinesses;
+    private byte[] encodedPosts;
+
+    @Setup
+    public void setup() throws IOException {
+        mapper = mapper(format);
+        businesses = businesses();
+        posts = posts(POST_COUNT, businesses.get(0));
+        encodedBusinesses = mapper.writeValueAsBytes(businesses);
+        encodedPosts = mapper.writeValueAsBytes(posts);
+
+        System.out.printf("%n%s: %d businesses in %d bytes, %d posts in %d bytes%n", format,
+                BUSINESS_COUNT, encodedBusinesses.length, POST_COUNT, encodedPosts.length);
+    }
+
+    @Benchmark
+    public byte[] encodeBusinesses() throws IOException {
+        return mapper.writeValueAsBytes(businesses);
+    }
+
+    @Benchmark
+    public List<Business> decodeBusinesses() throws IOException {
+        return mapper.readValue(encodedBusinesses, BUSINESSES);
+    }
+
+    @Benchmark
+    public byte[] encodePosts() throws IOException {
+        return mapper.writeValueAsBytes(posts);
+    }
+
+    @Benchmark
+    public List<Post> decodePosts() throws IOException {
+        return mapper.readValue(encodedPosts, POSTS);
+    }
+
+    /**
+     * Builds an ObjectMapper configured the way the response converters are
+     */
+    private static ObjectMapper mapper(String format) {
+        JsonFactory factory;
+        switch (format) {
+            case "smile": factory = new SmileFactory(); break;
+            case "cbor": factory = new CBORFactory(); break;
+            default: factory = new JsonFactory();
+        }
+
+        JacksonConfig config = new JacksonConfig();
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder().modules(config.sparseFieldsModule());
+        config.sparseFieldsCustomizer().customize(builder);
+        return builder.factory(factory).build();
+    }
+
+    private static List<Business> businesses() {
+        User owner = new User();
+        owner.setUserId(1);
+        owner.setUsername("owner");
+        owner.setEmail("owner@email.com");
+        owner.setFirstName("Pat");
+        owner.setLastName("Owner");
+        owner.setRole(Role.OWNER);
+        owner.setActive(true);
+        owner.setRegisterDatetime(new Timestamp(1_600_000_000_000L));
+
+        List<Business> businesses = new ArrayList<>();
+        for (int i = 1; i <= BUSINESS_COUNT; i++) {
+            Business business = new Business();
+            business.setId(i);
+            business.setOwner(owner);
+            business.setEmail("business" + i + "@email.com");
+            business.setBusinessName("Business number " + i);
+            business.setLocation(i + " Market Street, St. Louis, MO");
+            business.setLatitude(38.6 + i * 0.001);
+            business.setLongitude(-90.2 - i * 0.001);
+            business.setBusinessType(i % 2 == 0 ? "bakery" : "restaurant");
+            business.setRegisterDatetime(new Timestamp(1_600_000_000_000L + i));
+            business.setActive(true);
+            business.setVersion((long) i);
+            business.setReviews(reviews(5, business));
+            business.setHours(hours(business));
+            business.setPosts(posts(3, business));
+            businesses.add(business);
+        }
+        return businesses;
+    }
+
+    private static List<Review> reviews(int count, Business business) {
+        List<Review> reviews = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            Review review = new Review();
+            review.setId(business.getId() * 100 + i);
+            review.setBusiness(business);
+            review.setRating(1.0 + i % 5);
+            review.setReview("Review " + i + " of " + business.getBusinessName() + ", friendly staff and fair prices");
+            review.setVersion(0L);
+            reviews.add(review);
+        }
+        return reviews;
+    }
+
+    private static List<Hours> hours(Business business) {
+        List<Hours> hours = new ArrayList<>();
+        for (int day = 0; day < 7; day++) {
+            Hours open = new Hours();
+            open.setHoursId(business.getId() * 10 + day);
+            open.setBusiness(business);
+            open.setDay(day);
+            open.setOpen(Timestamp.valueOf("2020-03-14 08:00:00"));
+            open.setClosed(Timestamp.valueOf("2020-03-14 21:00:00"));
+            open.setVersion(0L);
+            hours.add(open);
+        }
+        return hours;
+    }
+
+    private static List<Post> posts(int count, Business business) {
+        List<Post> posts = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            Post post = new Post();
+            post.setPostId(business.getId() * 1000 + i);
+            post.setBusiness(business);
+            post.setPostType(i % 3 == 0 ? "Event" : "Sale");
+            post.setBody("Post " + i + ": " + String.join(" ", Collections.nCopies(8, "half off all pastries")));
+            post.setCreatedTime(new Timestamp(1_600_000_000_000L + i * 60_000L));
+            post.setVersion(0L);
+            posts.add(post);
+        }
+        return posts;
+    }
+
+}
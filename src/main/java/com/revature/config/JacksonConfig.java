@@ -0,0 +1,58 @@
+package com.revature.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.revature.util.SparseFieldsFilter;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Configures the ObjectMapper used for responses so the fields of a response can be picked
+ * with the fields parameter. See {@link com.revature.util.aspects.SparseFieldsAdvice}.
+ *
+ * Responses can also be written as Smile or CBOR, for clients that send
+ * application/x-jackson-smile or application/cbor in their Accept header. JSON stays the default.
+ */
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Routes every class through the sparse fields filter; registered by Spring Boot
+     */
+    @Bean
+    public Module sparseFieldsModule() {
+        return new SparseFieldsFilter.SparseFieldsModule();
+    }
+
+    /**
+     * Writes every field when no fields were requested
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer sparseFieldsCustomizer() {
+        return builder -> builder.filters(SparseFieldsFilter.serializeAllProvider());
+    }
+
+    /**
+     * Writes and reads Smile; takes the place of the default Smile converter, after JSON
+     * @param builder the ObjectMapper builder configured by Spring Boot
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    /**
+     * Writes and reads CBOR; takes the place of the default CBOR converter, after JSON
+     * @param builder the ObjectMapper builder configured by Spring Boot
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+}
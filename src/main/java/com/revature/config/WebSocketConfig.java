@@ -0,0 +1,48 @@
+package com.revature.config;
+
+import com.revature.web.sockets.BusinessChangeSocketHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.TaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+/**
+ * Registers the WebSocket endpoints, accepting the same origin as the CorsFilter
+ */
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final BusinessChangeSocketHandler businessChanges;
+    private final String[] allowedOrigins;
+
+    @Autowired
+    public WebSocketConfig(BusinessChangeSocketHandler businessChanges,
+                           @Value("${websocket.allowed-origins:https://business-book-website.s3.amazonaws.com}")
+                                   String[] allowedOrigins) {
+        this.businessChanges = businessChanges;
+        this.allowedOrigins = allowedOrigins;
+    }
+
+    /**
+     * The scheduler for @Scheduled methods. Spring Boot stops providing one once
+     * {@link EnableWebSocket} registers its own placeholder TaskScheduler, so it is built here,
+     * with the pool size of spring.task.scheduling.pool.size.
+     * @param builder the TaskSchedulerBuilder configured by Spring Boot
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(TaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(businessChanges, "/ws/businesses").setAllowedOrigins(allowedOrigins);
+    }
+
+}
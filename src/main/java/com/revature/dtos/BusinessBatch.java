@@ -0,0 +1,54 @@
+package com.revature.dtos;
+
+import com.revature.models.Business;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The Businesses found for a list of ids, in the order of the ids, along with the ids that
+ * didn't match a Business
+ */
+public class BusinessBatch {
+
+    private final List<Business> businesses;
+    private final List<Integer> missingIds;
+
+    public BusinessBatch(List<Business> businesses, List<Integer> missingIds) {
+        this.businesses = businesses;
+        this.missingIds = missingIds;
+    }
+
+    public List<Business> getBusinesses() {
+        return businesses;
+    }
+
+    /**
+     * Gets the requested ids that didn't match a Business, in the order they were requested
+     */
+    public List<Integer> getMissingIds() {
+        return missingIds;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BusinessBatch that = (BusinessBatch) o;
+        return Objects.equals(businesses, that.businesses) &&
+                Objects.equals(missingIds, that.missingIds);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(businesses, missingIds);
+    }
+
+    @Override
+    public String toString() {
+        return "BusinessBatch{" +
+                "businesses=" + businesses +
+                ", missingIds=" + missingIds +
+                '}';
+    }
+}
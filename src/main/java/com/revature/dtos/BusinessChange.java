@@ -0,0 +1,71 @@
+package com.revature.dtos;
+
+import java.util.Objects;
+
+/**
+ * A write to the Posts, Reviews or Hours of a Business, as pushed over the Business change socket
+ */
+public class BusinessChange {
+
+    private final String kind;
+    private final String type;
+    private final int businessId;
+    private final Object data;
+
+    public BusinessChange(String kind, String type, int businessId, Object data) {
+        this.kind = kind;
+        this.type = type;
+        this.businessId = businessId;
+        this.data = data;
+    }
+
+    /**
+     * Gets what was written: post, review or hours
+     */
+    public String getKind() {
+        return kind;
+    }
+
+    /**
+     * Gets the kind of write: created, updated or deleted
+     */
+    public String getType() {
+        return type;
+    }
+
+    public int getBusinessId() {
+        return businessId;
+    }
+
+    /**
+     * Gets the Post, Review or Hours as written, or as it was before it was deleted
+     */
+    public Object getData() {
+        return data;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BusinessChange that = (BusinessChange) o;
+        return businessId == that.businessId &&
+                Objects.equals(kind, that.kind) &&
+                Objects.equals(type, that.type) &&
+                Objects.equals(data, that.data);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(kind, type, businessId, data);
+    }
+
+    @Override
+    public String toString() {
+        return "BusinessChange{" +
+                "kind='" + kind + '\'' +
+                ", type='" + type + '\'' +
+                ", businessId=" + businessId +
+                '}';
+    }
+}
@@ -0,0 +1,76 @@
+package com.revature.dtos;
+
+import java.util.Objects;
+
+/**
+ * A group of nearby Businesses drawn as a single marker on a zoomed out map
+ */
+public class BusinessCluster {
+
+    private final double latitude;
+    private final double longitude;
+    private final int count;
+    private final Integer businessId;
+
+    public BusinessCluster(double latitude, double longitude, int count, Integer businessId) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.count = count;
+        this.businessId = businessId;
+    }
+
+    /**
+     * Gets the latitude of the centroid of the cluster
+     */
+    public double getLatitude() {
+        return latitude;
+    }
+
+    /**
+     * Gets the longitude of the centroid of the cluster
+     */
+    public double getLongitude() {
+        return longitude;
+    }
+
+    /**
+     * Gets the number of Businesses in the cluster
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the id of the Business when the cluster only contains one
+     * @return the Business id, or null if the cluster contains more than one Business
+     */
+    public Integer getBusinessId() {
+        return businessId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BusinessCluster that = (BusinessCluster) o;
+        return Double.compare(that.latitude, latitude) == 0 &&
+                Double.compare(that.longitude, longitude) == 0 &&
+                count == that.count &&
+                Objects.equals(businessId, that.businessId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(latitude, longitude, count, businessId);
+    }
+
+    @Override
+    public String toString() {
+        return "BusinessCluster{" +
+                "latitude=" + latitude +
+                ", longitude=" + longitude +
+                ", count=" + count +
+                ", businessId=" + businessId +
+                '}';
+    }
+}
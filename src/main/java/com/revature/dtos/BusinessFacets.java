@@ -0,0 +1,77 @@
+package com.revature.dtos;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Counts of active Businesses for each filter in the search sidebar
+ */
+public class BusinessFacets {
+
+    private final int total;
+    private final int openNow;
+    private final Map<String, Integer> businessTypes;
+    private final Map<String, Integer> ratings;
+
+    public BusinessFacets(int total, int openNow, Map<String, Integer> businessTypes, Map<String, Integer> ratings) {
+        this.total = total;
+        this.openNow = openNow;
+        this.businessTypes = businessTypes;
+        this.ratings = ratings;
+    }
+
+    /**
+     * Gets the number of active Businesses
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Gets the number of active Businesses whose Hours say they are open right now
+     */
+    public int getOpenNow() {
+        return openNow;
+    }
+
+    /**
+     * Gets the number of active Businesses of each type
+     */
+    public Map<String, Integer> getBusinessTypes() {
+        return businessTypes;
+    }
+
+    /**
+     * Gets the number of active Businesses in each average rating bucket, such as "4-5", plus
+     * "unrated" for Businesses without Reviews
+     */
+    public Map<String, Integer> getRatings() {
+        return ratings;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BusinessFacets that = (BusinessFacets) o;
+        return total == that.total &&
+                openNow == that.openNow &&
+                Objects.equals(businessTypes, that.businessTypes) &&
+                Objects.equals(ratings, that.ratings);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(total, openNow, businessTypes, ratings);
+    }
+
+    @Override
+    public String toString() {
+        return "BusinessFacets{" +
+                "total=" + total +
+                ", openNow=" + openNow +
+                ", businessTypes=" + businessTypes +
+                ", ratings=" + ratings +
+                '}';
+    }
+}
@@ -0,0 +1,115 @@
+package com.revature.dtos;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.revature.models.Business;
+
+import java.util.Objects;
+
+/**
+ * Lightweight, immutable view of a {@link Business} for drawing it as a pin on the map
+ */
+public class BusinessPin {
+
+    private final int id;
+    private final String businessName;
+    private final String businessType;
+    private final Double latitude;
+    private final Double longitude;
+    private final boolean active;
+    private final Double averageRating;
+
+    /**
+     * Constructor used by the BusinessRepository pin query
+     */
+    public BusinessPin(Integer id, String businessName, String businessType, Double latitude, Double longitude,
+                       Boolean active, Double averageRating) {
+        this.id = id;
+        this.businessName = businessName;
+        this.businessType = businessType;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.active = active != null && active;
+        this.averageRating = averageRating;
+    }
+
+    /**
+     * Creates a pin from a Business without loading its Reviews, so the rating is left empty
+     */
+    public BusinessPin(Business business) {
+        this(business.getId(), business.getBusinessName(), business.getBusinessType(),
+                business.getLatitude(), business.getLongitude(), business.isActive(), null);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getBusinessName() {
+        return businessName;
+    }
+
+    public String getBusinessType() {
+        return businessType;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Gets the average rating of the Business
+     * @return the average of its Review ratings, or null if it has none or it was not loaded
+     */
+    public Double getAverageRating() {
+        return averageRating;
+    }
+
+    /**
+     * Checks if the pin has coordinates that can be placed on the map
+     * @return true if both latitude and longitude are set
+     */
+    @JsonIgnore
+    public boolean isMappable() {
+        return latitude != null && longitude != null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BusinessPin that = (BusinessPin) o;
+        return id == that.id &&
+                active == that.active &&
+                Objects.equals(businessName, that.businessName) &&
+                Objects.equals(businessType, that.businessType) &&
+                Objects.equals(latitude, that.latitude) &&
+                Objects.equals(longitude, that.longitude) &&
+                Objects.equals(averageRating, that.averageRating);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, businessName, businessType, latitude, longitude, active, averageRating);
+    }
+
+    @Override
+    public String toString() {
+        return "BusinessPin{" +
+                "id=" + id +
+                ", businessName='" + businessName + '\'' +
+                ", businessType='" + businessType + '\'' +
+                ", latitude=" + latitude +
+                ", longitude=" + longitude +
+                ", active=" + active +
+                ", averageRating=" + averageRating +
+                '}';
+    }
+}
@@ -0,0 +1,55 @@
+package com.revature.dtos;
+
+import java.util.Objects;
+
+/**
+ * A Business name offered by the type-ahead search box
+ */
+public class BusinessSuggestion {
+
+    private final int id;
+    private final String businessName;
+    private final String businessType;
+
+    public BusinessSuggestion(int id, String businessName, String businessType) {
+        this.id = id;
+        this.businessName = businessName;
+        this.businessType = businessType;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getBusinessName() {
+        return businessName;
+    }
+
+    public String getBusinessType() {
+        return businessType;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BusinessSuggestion that = (BusinessSuggestion) o;
+        return id == that.id &&
+                Objects.equals(businessName, that.businessName) &&
+                Objects.equals(businessType, that.businessType);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, businessName, businessType);
+    }
+
+    @Override
+    public String toString() {
+        return "BusinessSuggestion{" +
+                "id=" + id +
+                ", businessName='" + businessName + '\'' +
+                ", businessType='" + businessType + '\'' +
+                '}';
+    }
+}
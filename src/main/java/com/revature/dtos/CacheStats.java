@@ -0,0 +1,86 @@
+package com.revature.dtos;
+
+import java.util.Objects;
+
+/**
+ * Point in time hit and miss counts of one cache
+ */
+public class CacheStats {
+
+    private final String name;
+    private final long size;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+
+    public CacheStats(String name, long size, long hits, long misses, long evictions) {
+        this.name = name;
+        this.size = size;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the number of entries currently in the cache
+     */
+    public long getSize() {
+        return size;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of entries dropped to stay under the size limit
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Gets the share of lookups that were hits
+     * @return a ratio between 0 and 1, or 0 when there were no lookups
+     */
+    public double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CacheStats that = (CacheStats) o;
+        return size == that.size &&
+                hits == that.hits &&
+                misses == that.misses &&
+                evictions == that.evictions &&
+                Objects.equals(name, that.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, size, hits, misses, evictions);
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+                "name='" + name + '\'' +
+                ", size=" + size +
+                ", hits=" + hits +
+                ", misses=" + misses +
+                ", evictions=" + evictions +
+                '}';
+    }
+}
@@ -0,0 +1,86 @@
+package com.revature.dtos;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Summary of the versions of the rows in a collection, which changes whenever a row is added,
+ * updated or removed: adding raises the largest id, since ids are never reused, removing lowers
+ * the count, and updating raises the sum of the versions.
+ */
+public class CollectionVersion {
+
+    private final long count;
+    private final long versionSum;
+    private final long maxId;
+
+    public CollectionVersion(Long count, Long versionSum, Integer maxId) {
+        this.count = count == null ? 0 : count;
+        this.versionSum = versionSum == null ? 0 : versionSum;
+        this.maxId = maxId == null ? 0 : maxId;
+    }
+
+    /**
+     * Summarizes rows that are already loaded
+     * @param rows the rows
+     * @param version gets the version of a row
+     * @param id gets the id of a row
+     * @param <T> the type of the rows
+     * @return the CollectionVersion of the rows
+     */
+    public static <T> CollectionVersion of(Collection<T> rows, Function<T, Long> version, Function<T, Integer> id) {
+        long versionSum = 0;
+        int maxId = 0;
+        for (T row : rows) {
+            Long rowVersion = version.apply(row);
+            Integer rowId = id.apply(row);
+            versionSum += rowVersion == null ? 0 : rowVersion;
+            maxId = Math.max(maxId, rowId == null ? 0 : rowId);
+        }
+        return new CollectionVersion((long) rows.size(), versionSum, maxId);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getVersionSum() {
+        return versionSum;
+    }
+
+    public long getMaxId() {
+        return maxId;
+    }
+
+    /**
+     * Gets the summary as a short token for an ETag
+     */
+    public String toTag() {
+        return count + "." + versionSum + "." + maxId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CollectionVersion that = (CollectionVersion) o;
+        return count == that.count &&
+                versionSum == that.versionSum &&
+                maxId == that.maxId;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(count, versionSum, maxId);
+    }
+
+    @Override
+    public String toString() {
+        return "CollectionVersion{" +
+                "count=" + count +
+                ", versionSum=" + versionSum +
+                ", maxId=" + maxId +
+                '}';
+    }
+}
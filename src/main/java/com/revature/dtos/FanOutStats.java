@@ -0,0 +1,83 @@
+package com.revature.dtos;
+
+import java.util.Objects;
+
+/**
+ * Point in time counters of one push hub
+ */
+public class FanOutStats {
+
+    private final String name;
+    private final long subscribers;
+    private final long published;
+    private final long delivered;
+    private final long dropped;
+
+    public FanOutStats(String name, long subscribers, long published, long delivered, long dropped) {
+        this.name = name;
+        this.subscribers = subscribers;
+        this.published = published;
+        this.delivered = delivered;
+        this.dropped = dropped;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the number of subscribers currently connected
+     */
+    public long getSubscribers() {
+        return subscribers;
+    }
+
+    /**
+     * Gets the number of messages published to the hub
+     */
+    public long getPublished() {
+        return published;
+    }
+
+    /**
+     * Gets the number of messages handed to subscribers
+     */
+    public long getDelivered() {
+        return delivered;
+    }
+
+    /**
+     * Gets the number of messages dropped because a subscriber fell behind
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        FanOutStats that = (FanOutStats) o;
+        return subscribers == that.subscribers &&
+                published == that.published &&
+                delivered == that.delivered &&
+                dropped == that.dropped &&
+                Objects.equals(name, that.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, subscribers, published, delivered, dropped);
+    }
+
+    @Override
+    public String toString() {
+        return "FanOutStats{" +
+                "name='" + name + '\'' +
+                ", subscribers=" + subscribers +
+                ", published=" + published +
+                ", delivered=" + delivered +
+                ", dropped=" + dropped +
+                '}';
+    }
+}
@@ -0,0 +1,63 @@
+package com.revature.dtos;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * One page of a keyset (cursor) paginated result. The next cursor is only set when there are
+ * more results after this page.
+ * @param <T> the type of the items on the page
+ */
+public class KeysetPage<T> {
+
+    /**
+     * Response header that carries the cursor of the next page
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    public KeysetPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Gets the cursor to pass as "after" to get the next page
+     * @return the next cursor, or null if this is the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        KeysetPage<?> that = (KeysetPage<?>) o;
+        return Objects.equals(items, that.items) &&
+                Objects.equals(nextCursor, that.nextCursor);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(items, nextCursor);
+    }
+
+    @Override
+    public String toString() {
+        return "KeysetPage{" +
+                "items=" + items +
+                ", nextCursor='" + nextCursor + '\'' +
+                '}';
+    }
+}
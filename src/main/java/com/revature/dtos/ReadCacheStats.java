@@ -0,0 +1,103 @@
+package com.revature.dtos;
+
+import java.util.Objects;
+
+/**
+ * Point in time counters of one stale-while-revalidate endpoint cache
+ */
+public class ReadCacheStats {
+
+    private final String name;
+    private final long size;
+    private final long hits;
+    private final long misses;
+    private final long staleServes;
+    private final long refreshes;
+    private final long refreshFailures;
+
+    public ReadCacheStats(String name, long size, long hits, long misses, long staleServes, long refreshes,
+                          long refreshFailures) {
+        this.name = name;
+        this.size = size;
+        this.hits = hits;
+        this.misses = misses;
+        this.staleServes = staleServes;
+        this.refreshes = refreshes;
+        this.refreshFailures = refreshFailures;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the number of fresh values served
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of requests that waited for the database
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of values served past their soft time to live
+     */
+    public long getStaleServes() {
+        return staleServes;
+    }
+
+    /**
+     * Gets the number of background refreshes that succeeded
+     */
+    public long getRefreshes() {
+        return refreshes;
+    }
+
+    /**
+     * Gets the number of background refreshes that failed or could not be started
+     */
+    public long getRefreshFailures() {
+        return refreshFailures;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ReadCacheStats that = (ReadCacheStats) o;
+        return size == that.size &&
+                hits == that.hits &&
+                misses == that.misses &&
+                staleServes == that.staleServes &&
+                refreshes == that.refreshes &&
+                refreshFailures == that.refreshFailures &&
+                Objects.equals(name, that.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, size, hits, misses, staleServes, refreshes, refreshFailures);
+    }
+
+    @Override
+    public String toString() {
+        return "ReadCacheStats{" +
+                "name='" + name + '\'' +
+                ", size=" + size +
+                ", hits=" + hits +
+                ", misses=" + misses +
+                ", staleServes=" + staleServes +
+                ", refreshes=" + refreshes +
+                ", refreshFailures=" + refreshFailures +
+                '}';
+    }
+}
@@ -0,0 +1,51 @@
+package com.revature.dtos;
+
+import java.util.Objects;
+
+/**
+ * A response body together with the ETag derived from it, so both are cached and served as one
+ * @param <V> the type of the body
+ */
+public class TaggedValue<V> {
+
+    private final V value;
+    private final String eTag;
+
+    public TaggedValue(V value, String eTag) {
+        this.value = value;
+        this.eTag = eTag;
+    }
+
+    public V getValue() {
+        return value;
+    }
+
+    /**
+     * Gets the quoted ETag of the value
+     */
+    public String getETag() {
+        return eTag;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TaggedValue<?> that = (TaggedValue<?>) o;
+        return Objects.equals(value, that.value) &&
+                Objects.equals(eTag, that.eTag);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(value, eTag);
+    }
+
+    @Override
+    public String toString() {
+        return "TaggedValue{" +
+                "value=" + value +
+                ", eTag='" + eTag + '\'' +
+                '}';
+    }
+}
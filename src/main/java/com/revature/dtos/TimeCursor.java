@@ -0,0 +1,79 @@
+package com.revature.dtos;
+
+import com.revature.exceptions.InvalidRequestException;
+
+import java.sql.Timestamp;
+import java.util.Objects;
+
+/**
+ * Keyset cursor over rows ordered by a timestamp and then by id, for timestamps that several
+ * rows may share. It is passed to clients as "{epoch millis}.{nanos}.{id}", which keeps the full
+ * precision of the timestamp so no row is skipped or repeated between pages.
+ */
+public class TimeCursor {
+
+    private final Timestamp time;
+    private final int id;
+
+    public TimeCursor(Timestamp time, int id) {
+        this.time = time;
+        this.id = id;
+    }
+
+    /**
+     * Parses a cursor sent by a client
+     * @param cursor the cursor
+     * @return the TimeCursor
+     * @throws InvalidRequestException if the cursor is malformed
+     */
+    public static TimeCursor parse(String cursor) {
+        String[] parts = cursor.split("\\.");
+        if (parts.length != 3) {
+            throw new InvalidRequestException("Malformed page cursor.");
+        }
+        try {
+            Timestamp time = new Timestamp(Long.parseLong(parts[0]));
+            time.setNanos(Integer.parseInt(parts[1]));
+            return new TimeCursor(time, Integer.parseInt(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Malformed page cursor.");
+        }
+    }
+
+    public Timestamp getTime() {
+        return time;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Gets the cursor as sent to clients
+     */
+    public String toCursor() {
+        return time.getTime() + "." + time.getNanos() + "." + id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TimeCursor that = (TimeCursor) o;
+        return id == that.id &&
+                Objects.equals(time, that.time);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(time, id);
+    }
+
+    @Override
+    public String toString() {
+        return "TimeCursor{" +
+                "time=" + time +
+                ", id=" + id +
+                '}';
+    }
+}
@@ -0,0 +1,87 @@
+package com.revature.dtos;
+
+import java.util.Objects;
+
+/**
+ * The part of the map a client is looking at, sent over the Business change socket
+ */
+public class Viewport {
+
+    private double minLat;
+    private double minLon;
+    private double maxLat;
+    private double maxLon;
+
+    public Viewport() {
+        super();
+    }
+
+    public Viewport(double minLat, double minLon, double maxLat, double maxLon) {
+        this.minLat = minLat;
+        this.minLon = minLon;
+        this.maxLat = maxLat;
+        this.maxLon = maxLon;
+    }
+
+    public double getMinLat() {
+        return minLat;
+    }
+
+    public Viewport setMinLat(double minLat) {
+        this.minLat = minLat;
+        return this;
+    }
+
+    public double getMinLon() {
+        return minLon;
+    }
+
+    public Viewport setMinLon(double minLon) {
+        this.minLon = minLon;
+        return this;
+    }
+
+    public double getMaxLat() {
+        return maxLat;
+    }
+
+    public Viewport setMaxLat(double maxLat) {
+        this.maxLat = maxLat;
+        return this;
+    }
+
+    public double getMaxLon() {
+        return maxLon;
+    }
+
+    public Viewport setMaxLon(double maxLon) {
+        this.maxLon = maxLon;
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Viewport viewport = (Viewport) o;
+        return Double.compare(viewport.minLat, minLat) == 0 &&
+                Double.compare(viewport.minLon, minLon) == 0 &&
+                Double.compare(viewport.maxLat, maxLat) == 0 &&
+                Double.compare(viewport.maxLon, maxLon) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(minLat, minLon, maxLat, maxLon);
+    }
+
+    @Override
+    public String toString() {
+        return "Viewport{" +
+                "minLat=" + minLat +
+                ", minLon=" + minLon +
+                ", maxLat=" + maxLat +
+                ", maxLon=" + maxLon +
+                '}';
+    }
+}
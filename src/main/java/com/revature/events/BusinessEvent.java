@@ -0,0 +1,50 @@
+package com.revature.events;
+
+import com.revature.models.Business;
+
+/**
+ * Application event published by the BusinessService after a {@link Business} is written,
+ * so in-memory indexes and caches can stay in sync without polling the database
+ */
+public class BusinessEvent {
+
+    private final ChangeType type;
+    private final int businessId;
+    private final Business business;
+
+    public BusinessEvent(ChangeType type, Business business) {
+        this.type = type;
+        this.businessId = business.getId();
+        this.business = business;
+    }
+
+    public BusinessEvent(ChangeType type, int businessId) {
+        this.type = type;
+        this.businessId = businessId;
+        this.business = null;
+    }
+
+    public ChangeType getType() {
+        return type;
+    }
+
+    public int getBusinessId() {
+        return businessId;
+    }
+
+    /**
+     * Gets the Business as it was saved
+     * @return the saved Business, or null for a delete
+     */
+    public Business getBusiness() {
+        return business;
+    }
+
+    @Override
+    public String toString() {
+        return "BusinessEvent{" +
+                "type=" + type +
+                ", businessId=" + businessId +
+                '}';
+    }
+}
@@ -0,0 +1,12 @@
+package com.revature.events;
+
+/**
+ * The kind of write that caused a change event
+ */
+public enum ChangeType {
+
+    CREATED,
+    UPDATED,
+    DELETED
+
+}
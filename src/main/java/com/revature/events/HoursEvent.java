@@ -0,0 +1,41 @@
+package com.revature.events;
+
+import com.revature.models.Hours;
+
+/**
+ * Application event published by the HoursService after an {@link Hours} object is written
+ */
+public class HoursEvent {
+
+    private final ChangeType type;
+    private final Hours hours;
+
+    public HoursEvent(ChangeType type, Hours hours) {
+        this.type = type;
+        this.hours = hours;
+    }
+
+    public ChangeType getType() {
+        return type;
+    }
+
+    /**
+     * Gets the Hours as they were saved, or as they were before they were deleted
+     * @return the Hours
+     */
+    public Hours getHours() {
+        return hours;
+    }
+
+    public int getBusinessId() {
+        return hours.getBusiness().getId();
+    }
+
+    @Override
+    public String toString() {
+        return "HoursEvent{" +
+                "type=" + type +
+                ", hoursId=" + hours.getHoursId() +
+                '}';
+    }
+}
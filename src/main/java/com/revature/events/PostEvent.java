@@ -0,0 +1,45 @@
+package com.revature.events;
+
+import com.revature.models.Post;
+
+/**
+ * Application event published by the PostService after a {@link Post} is written
+ */
+public class PostEvent {
+
+    private final ChangeType type;
+    private final Post post;
+
+    public PostEvent(ChangeType type, Post post) {
+        this.type = type;
+        this.post = post;
+    }
+
+    public ChangeType getType() {
+        return type;
+    }
+
+    /**
+     * Gets the Post as it was saved, or as it was before it was deleted
+     * @return the Post
+     */
+    public Post getPost() {
+        return post;
+    }
+
+    public int getPostId() {
+        return post.getPostId();
+    }
+
+    public int getBusinessId() {
+        return post.getBusiness().getId();
+    }
+
+    @Override
+    public String toString() {
+        return "PostEvent{" +
+                "type=" + type +
+                ", postId=" + post.getPostId() +
+                '}';
+    }
+}
@@ -0,0 +1,41 @@
+package com.revature.events;
+
+import com.revature.models.Review;
+
+/**
+ * Application event published by the ReviewsService after a {@link Review} is written
+ */
+public class ReviewEvent {
+
+    private final ChangeType type;
+    private final Review review;
+
+    public ReviewEvent(ChangeType type, Review review) {
+        this.type = type;
+        this.review = review;
+    }
+
+    public ChangeType getType() {
+        return type;
+    }
+
+    /**
+     * Gets the Review as it was saved, or as it was before it was deleted
+     * @return the Review
+     */
+    public Review getReview() {
+        return review;
+    }
+
+    public int getBusinessId() {
+        return review.getBusiness().getId();
+    }
+
+    @Override
+    public String toString() {
+        return "ReviewEvent{" +
+                "type=" + type +
+                ", reviewId=" + review.getId() +
+                '}';
+    }
+}
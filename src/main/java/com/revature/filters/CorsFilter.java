@@ -1,6 +1,8 @@
 package com.revature.filters;
 
 
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -12,6 +14,7 @@ import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 
 @Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
 @WebFilter("/*")
 public class CorsFilter extends OncePerRequestFilter {
 
@@ -21,6 +24,7 @@ public class CorsFilter extends OncePerRequestFilter {
         httpServletResponse.setHeader("Access-Control-Allow-Credentials","true");
         httpServletResponse.setHeader("Access-Control-Allow-Headers","Content-Type");
         httpServletResponse.setHeader("Access-Control-Allow-Methods", "GET, POST, PUT, PATCH, DELETE");
+        httpServletResponse.setHeader("Access-Control-Expose-Headers", "X-Next-Cursor");
         filterChain.doFilter(httpServletRequest, httpServletResponse);
     }
 }
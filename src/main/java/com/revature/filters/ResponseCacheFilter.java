@@ -0,0 +1,193 @@
+package com.revature.filters;
+
+import com.revature.services.ResponseCacheService;
+import com.revature.util.ResponseBytesCache.Body;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Answers GETs of a Business and of its Posts, Reviews and Hours from the
+ * {@link ResponseCacheService}, writing the stored JSON straight to the response. A miss runs
+ * the request as usual and stores the body it produced.
+ *
+ * Only requests without query parameters that rank JSON above every other type they accept
+ * are cached; anything else is passed through untouched, so the controller negotiates it. The
+ * ETag the controller sent is stored with the body, so a hit whose If-None-Match holds it is
+ * answered with a 304. The ETag is weak, since it is shared by the plain and gzipped bodies, and
+ * the {@link VaryFilter} marks the response as varying by Accept and Accept-Encoding.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    /**
+     * Header telling whether the body came from the cache
+     */
+    public static final String CACHE_HEADER = "X-Response-Cache";
+
+    private static final Pattern RESOURCE = Pattern.compile("/businesses/id/(\\d{1,9})(/posts|/reviews|/hours)?");
+
+    private final ResponseCacheService responseCache;
+
+    @Autowired
+    public ResponseCacheFilter(ResponseCacheService responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) || request.getQueryString() != null || !acceptsJson(request)
+                || !RESOURCE.matcher(resourcePath(request)).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String resource = resourcePath(request);
+        Matcher matcher = RESOURCE.matcher(resource);
+        if (!matcher.matches()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        int businessId = Integer.parseInt(matcher.group(1));
+
+        Body cached = responseCache.get(resource, businessId);
+        if (cached != null) {
+            write(request, response, cached);
+            return;
+        }
+
+        long version = responseCache.getVersion(businessId);
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        wrapper.setHeader(CACHE_HEADER, "MISS");
+        filterChain.doFilter(request, wrapper);
+
+        String contentType = wrapper.getContentType();
+        if (wrapper.getStatus() == HttpServletResponse.SC_OK && contentType != null
+                && MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(contentType))) {
+            responseCache.put(resource, businessId, version, contentType, wrapper.getHeader(HttpHeaders.ETAG),
+                    wrapper.getContentAsByteArray());
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    /**
+     * Writes a cached body, gzipped when the client accepts it, or a 304 when the client already
+     * holds it
+     */
+    private void write(HttpServletRequest request, HttpServletResponse response, Body body) throws IOException {
+        response.setHeader(CACHE_HEADER, "HIT");
+        if (body.getETag() != null) {
+            response.setHeader(HttpHeaders.ETAG, body.getETag());
+            if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), body.getETag())) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+        }
+
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        byte[] bytes = gzip ? body.getGzipped() : body.getPlain();
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(body.getContentType());
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(bytes.length);
+        response.getOutputStream().write(bytes);
+    }
+
+    /**
+     * Checks an If-None-Match header against an ETag, comparing weakly as GETs allow
+     */
+    private static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) return false;
+        String opaque = stripWeak(eTag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*") || stripWeak(candidate).equals(opaque)) return true;
+        }
+        return false;
+    }
+
+    private static String stripWeak(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
+
+    private static String resourcePath(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    /**
+     * Checks that JSON is the type the client ranks highest, ignoring the types it refuses with
+     * q=0, so a client preferring another type that merely accepts JSON isn't sent the cached JSON
+     */
+    private static boolean acceptsJson(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) return true;
+        try {
+            List<MediaType> types = MediaType.parseMediaTypes(accept);
+
+            // JSON gets the quality of the most specific range that covers it
+            MediaType.sortBySpecificityAndQuality(types);
+            MediaType json = types.stream().filter(type -> type.includes(MediaType.APPLICATION_JSON)).findFirst().orElse(null);
+            if (json == null || json.getQualityValue() == 0) return false;
+
+            MediaType.sortByQualityValue(types);
+            return MediaType.APPLICATION_JSON.isCompatibleWith(types.get(0));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Checks an Accept-Encoding header for gzip with a q-value above 0, given by name or by "*"
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+
+        Double gzip = null;
+        Double any = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzip = quality;
+            } else if (name.equals("*")) {
+                any = quality;
+            }
+        }
+
+        double quality = gzip != null ? gzip : any != null ? any : 0;
+        return quality > 0;
+    }
+
+}
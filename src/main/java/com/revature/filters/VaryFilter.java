@@ -0,0 +1,41 @@
+package com.revature.filters;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Marks every response to a GET as varying by Accept and Accept-Encoding. The body may be JSON,
+ * Smile or CBOR, and gzipped or not, so a shared cache must not hand one client's
+ * representation to another.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class VaryFilter extends OncePerRequestFilter {
+
+    /**
+     * The value of the Vary header
+     */
+    public static final String VARY = HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        response.setHeader(HttpHeaders.VARY, VARY);
+        filterChain.doFilter(request, response);
+    }
+
+}
@@ -1,8 +1,13 @@
 package com.revature.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.revature.util.GeoHash;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.sql.Timestamp;
@@ -12,12 +17,19 @@ import java.util.List;
  * Java POJO representation of a Business in the Database
  */
 @Entity
-@Table(name ="business")
+@Table(name ="business", indexes = @Index(name = "business_geohash_idx", columnList = "geohash"))
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "business")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Business {
 
+    /**
+     * Number of Businesses whose Reviews, Hours or Posts are loaded together when a list of
+     * Businesses is serialized, instead of one query per Business
+     */
+    public static final int LIST_BATCH_SIZE = 100;
+
     /**
      * Integer Id value of the Business
      */
@@ -52,6 +64,25 @@ public class Business {
     @Column(nullable=false)
     private String location;
 
+    /**
+     * Latitude of the Business in decimal degrees
+     */
+    @Column(name="latitude")
+    private Double latitude;
+
+    /**
+     * Longitude of the Business in decimal degrees
+     */
+    @Column(name="longitude")
+    private Double longitude;
+
+    /**
+     * Geohash of the latitude and longitude, used for "near me" prefix lookups
+     */
+    @Column(name="geohash", length=GeoHash.MAX_PRECISION)
+    @JsonIgnore
+    private String geohash;
+
     /**
      * String for the Business type
      */
@@ -70,24 +101,48 @@ public class Business {
     @Column(name="is_active")
     private boolean isActive;
 
+    /**
+     * Long version of the Business, for optimistic locking
+     */
+    @Version
+    @Column(name="version", columnDefinition="bigint default 0 not null")
+    private Long version;
+
     /**
      * List of Reviews for the Business
      */
     @OneToMany(mappedBy = "business")
+    @BatchSize(size = LIST_BATCH_SIZE)
     List<Review> reviews;
 
     /**
      * List of Hours for the Business
      */
     @OneToMany(mappedBy = "business")
+    @BatchSize(size = LIST_BATCH_SIZE)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "business.hours")
     List<Hours> hours;
 
     /**
      * List of Posts for the Business
      */
     @OneToMany(mappedBy = "business")
+    @BatchSize(size = LIST_BATCH_SIZE)
     List<Post> posts;
 
+    /**
+     * Keeps the geohash in sync with the coordinates whenever the Business is saved
+     */
+    @PrePersist
+    @PreUpdate
+    void updateGeohash() {
+        if (latitude == null || longitude == null) {
+            geohash = null;
+        } else {
+            geohash = GeoHash.encode(latitude, longitude, GeoHash.MAX_PRECISION);
+        }
+    }
+
     @Override
     public String toString() {
         return "Business{" +
@@ -96,6 +151,8 @@ public class Business {
                 ", email='" + email + '\'' +
                 ", businessName='" + businessName + '\'' +
                 ", location='" + location + '\'' +
+                ", latitude=" + latitude +
+                ", longitude=" + longitude +
                 ", businessType='" + businessType + '\'' +
                 ", registerDatetime=" + registerDatetime +
                 '}';
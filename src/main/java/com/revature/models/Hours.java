@@ -3,6 +3,8 @@ package com.revature.models;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 
@@ -14,7 +16,8 @@ import java.sql.Timestamp;
  * Java POJO class for Business Hours
  */
 @Entity
-@Table(name ="business_hours")
+@Table(name ="business_hours", indexes = @Index(name = "business_hours_business_idx", columnList = "business_id"))
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "hours")
 @Data
 @AllArgsConstructor @NoArgsConstructor
 public class Hours {
@@ -53,4 +56,11 @@ public class Hours {
     @Column(nullable = false)
     private Timestamp closed;
 
+    /**
+     * Long version of the Hours, for optimistic locking
+     */
+    @Version
+    @Column(name="version", columnDefinition="bigint default 0 not null")
+    private Long version;
+
 }
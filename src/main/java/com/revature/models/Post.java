@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 import javax.persistence.*;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.sql.Timestamp;
 
@@ -14,7 +15,10 @@ import java.sql.Timestamp;
  * Java POJO for a Post on a Business
  */
 @Entity
-@Table(name ="posts")
+@Table(name ="posts", indexes = {
+        @Index(name = "posts_business_created_idx", columnList = "business_id, created_time, post_id"),
+        @Index(name = "posts_modified_idx", columnList = "modified_time, post_id")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -54,4 +58,18 @@ public class Post {
     @Column(name="created_time", updatable=false, columnDefinition="timestamp default CURRENT_TIMESTAMP")
     private Timestamp createdTime;
 
+    /**
+     * Timestamp for when the Post was created or last updated; set by Hibernate on every write
+     */
+    @UpdateTimestamp
+    @Column(name="modified_time", columnDefinition="timestamp default CURRENT_TIMESTAMP")
+    private Timestamp modifiedTime;
+
+    /**
+     * Long version of the Post, for optimistic locking
+     */
+    @Version
+    @Column(name="version", columnDefinition="bigint default 0 not null")
+    private Long version;
+
 }
@@ -5,9 +5,11 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
+import javax.persistence.Version;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
@@ -18,7 +20,7 @@ import lombok.NoArgsConstructor;
 /**
  * Java POJO for a Review of a Business
  */
-@Entity @Table(name = "business_reviews")
+@Entity @Table(name = "business_reviews", indexes = @Index(name = "business_reviews_business_idx", columnList = "business_id"))
 @Data @AllArgsConstructor @NoArgsConstructor
 public class Review {
 
@@ -56,5 +58,12 @@ public class Review {
      */
     @Column(name = "review")
     private String review;
+
+    /**
+     * Long version of the Review, for optimistic locking
+     */
+    @Version
+    @Column(name = "version", columnDefinition = "bigint default 0 not null")
+    private Long version;
     
 }
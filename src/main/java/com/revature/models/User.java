@@ -6,6 +6,9 @@ import com.revature.util.UserRoleConverter;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 
@@ -17,6 +20,7 @@ import java.util.List;
  * Java POJO for a User of the application
  */
 @Entity @Table(name ="app_users")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @Data @NoArgsConstructor @AllArgsConstructor
 public class User {
 
@@ -87,6 +91,8 @@ public class User {
      * List of Businesses that the User has favorited
      */
     @ManyToMany
+    @BatchSize(size = Business.LIST_BATCH_SIZE)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users.favorites")
     @JoinTable(
         name = "user_favorites",
         joinColumns = @JoinColumn(name = "user_id"),
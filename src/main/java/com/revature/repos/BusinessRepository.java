@@ -1,20 +1,64 @@
 package com.revature.repos;
 
+import com.revature.dtos.BusinessPin;
 import com.revature.models.*;
 
-import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.sql.Timestamp;
+import java.util.Collection;
+import javax.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BusinessRepository extends CrudRepository<Business, Integer> {
+public interface BusinessRepository extends PagingAndSortingRepository<Business, Integer> {
+
+    // Listing queries join the owner; the Reviews, Hours and Posts are batch fetched
+    // (see Business.LIST_BATCH_SIZE) since more than one bag can't be joined at once.
+    @EntityGraph(attributePaths = "owner")
     List<Business> findBusinessesByOwner(User owner);
+    @EntityGraph(attributePaths = "owner")
     List<Business> findBusinessesByBusinessType(String type);
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Optional<Business> findBusinessByEmail(String email);
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Optional<Business> findBusinessByBusinessName(String businessName);
     Optional<Business> findBusinessByLocation(String location);
     Optional<Business> findBusinessByRegisterDatetime(Timestamp registerDatetime);
+    @EntityGraph(attributePaths = "owner")
+    List<Business> findBusinessesByIdGreaterThanOrderByIdAsc(Integer after, Pageable pageable);
+    @EntityGraph(attributePaths = "owner")
+    List<Business> findBusinessesByIdIn(Collection<Integer> ids);
+
+    @Query("select new com.revature.dtos.BusinessPin(b.id, b.businessName, b.businessType, b.latitude, b.longitude, b.isActive, avg(r.rating)) " +
+           "from Business b left join b.reviews r " +
+           "where b.id > :after " +
+           "group by b.id, b.businessName, b.businessType, b.latitude, b.longitude, b.isActive " +
+           "order by b.id")
+    List<BusinessPin> findBusinessPins(@Param("after") Integer after, Pageable pageable);
+
+    @Query("select b.id, count(u) from User u join u.favorites b group by b.id")
+    List<Object[]> countFavoritesByBusiness();
+
+    @Query("select count(u) from User u join u.favorites b where b.id = :businessId")
+    long countFavoritesForBusiness(@Param("businessId") Integer businessId);
+
+    @Query("select b.id, avg(r.rating) from Business b join b.reviews r group by b.id")
+    List<Object[]> averageRatingByBusiness();
+
+    @Query("select b.id, b.businessType, b.isActive from Business b")
+    List<Object[]> findBusinessFacetFields();
+
+    @Query("select b.id, b.latitude, b.longitude from Business b where b.geohash like concat(:prefix, '%')")
+    List<Object[]> findCoordinatesByGeohashStartingWith(@Param("prefix") String geohashPrefix);
+
+    @Query("select b.version from Business b where b.id = :id")
+    Optional<Long> findVersionById(@Param("id") Integer id);
 }
\ No newline at end of file
@@ -2,11 +2,26 @@ package com.revature.repos;
 
 import com.revature.models.Business;
 import com.revature.models.Hours;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
 import java.util.List;
+import java.util.Optional;
 
 public interface HoursRepository extends CrudRepository<Hours, Integer> {
 
+        @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
         List<Hours> findHoursByBusiness (Business bus);
+        @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+        List<Hours> findHoursByBusinessId (Integer businessId);
+
+        @Query("select h.hoursId, h.business.id, h.day, h.open, h.closed from Hours h where h.hoursId > :after order by h.hoursId")
+        List<Object[]> findHoursAfter (@Param("after") Integer after, Pageable pageable);
+
+        @Query("select h.version from Hours h where h.hoursId = :id")
+        Optional<Long> findVersionById (@Param("id") Integer id);
 }
@@ -2,14 +2,99 @@ package com.revature.repos;
 
 import com.revature.models.Business;
 import com.revature.models.Post;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PostRepository extends CrudRepository<Post, Integer> {
     
     List<Post> findPostsByBusiness(Business bus);
 
+    /**
+     * Gets the newest Posts of a Business, newest first
+     */
+    @Query("select p from Post p where p.business.id = :businessId " +
+           "order by p.createdTime desc, p.postId desc")
+    List<Post> findLatestPostsByBusinessId(@Param("businessId") Integer businessId, Pageable pageable);
+
+    /**
+     * Gets the Posts of a Business created before a Post, newest first
+     */
+    @Query("select p from Post p where p.business.id = :businessId " +
+           "and (p.createdTime < :time or (p.createdTime = :time and p.postId < :postId)) " +
+           "order by p.createdTime desc, p.postId desc")
+    List<Post> findPostsByBusinessIdBefore(@Param("businessId") Integer businessId, @Param("time") Timestamp time,
+                                           @Param("postId") Integer postId, Pageable pageable);
+
+    /**
+     * Gets the business id, post id and body of the Posts after a post id, without loading
+     * the Post or Business entities
+     */
+    @Query("select p.business.id, p.postId, p.body from Post p where p.postId > :after order by p.postId")
+    List<Object[]> findPostTextAfter(@Param("after") Integer after, Pageable pageable);
+
+    /**
+     * Gets the Posts modified first and before a time, oldest first
+     */
+    @Query("select p from Post p where p.modifiedTime < :until order by p.modifiedTime, p.postId")
+    List<Post> findFirstModifiedPosts(@Param("until") Timestamp until, Pageable pageable);
+
+    /**
+     * Gets the Posts modified after a Post and before a time, oldest first
+     */
+    @Query("select p from Post p where (p.modifiedTime > :time or (p.modifiedTime = :time and p.postId > :postId)) " +
+           "and p.modifiedTime < :until order by p.modifiedTime, p.postId")
+    List<Post> findPostsModifiedAfter(@Param("time") Timestamp time, @Param("postId") Integer postId,
+                                      @Param("until") Timestamp until, Pageable pageable);
+
+    /**
+     * Gets the creation times and ids of the newest Posts of the Businesses a User has favorited,
+     * newest first
+     */
+    @Query("select p.createdTime, p.postId from Post p where p.business.id in " +
+           "(select b.id from User u join u.favorites b where u.userId = :userId) " +
+           "order by p.createdTime desc, p.postId desc")
+    List<Object[]> findFeedPostKeys(@Param("userId") Integer userId, Pageable pageable);
+
+    /**
+     * Gets the creation times and ids of the Posts of the Businesses a User has favorited, older
+     * than a Post, newest first
+     */
+    @Query("select p.createdTime, p.postId from Post p where p.business.id in " +
+           "(select b.id from User u join u.favorites b where u.userId = :userId) " +
+           "and (p.createdTime < :time or (p.createdTime = :time and p.postId < :postId)) " +
+           "order by p.createdTime desc, p.postId desc")
+    List<Object[]> findFeedPostKeysBefore(@Param("userId") Integer userId, @Param("time") Timestamp time,
+                                          @Param("postId") Integer postId, Pageable pageable);
+
+    /**
+     * Gets the creation times and ids of the newest Posts of some Businesses, newest first
+     */
+    @Query("select p.createdTime, p.postId from Post p " +
+           "where p.business.id in :businessIds order by p.createdTime desc, p.postId desc")
+    List<Object[]> findPostKeysByBusinessIds(@Param("businessIds") Collection<Integer> businessIds,
+                                             Pageable pageable);
+
+    /**
+     * Gets the creation times and ids of the Posts of some Businesses, older than a Post, newest first
+     */
+    @Query("select p.createdTime, p.postId from Post p " +
+           "where p.business.id in :businessIds " +
+           "and (p.createdTime < :time or (p.createdTime = :time and p.postId < :postId)) " +
+           "order by p.createdTime desc, p.postId desc")
+    List<Object[]> findPostKeysByBusinessIdsBefore(@Param("businessIds") Collection<Integer> businessIds,
+                                                   @Param("time") Timestamp time, @Param("postId") Integer postId,
+                                                   Pageable pageable);
+
+    @Query("select p.version from Post p where p.postId = :id")
+    Optional<Long> findVersionById(@Param("id") Integer id);
+
 }
\ No newline at end of file
@@ -4,10 +4,13 @@ import com.revature.models.Business;
 import com.revature.models.Review;
 import com.revature.models.User;
 
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ReviewsRepository extends CrudRepository<Review, Integer> {
@@ -15,4 +18,10 @@ public interface ReviewsRepository extends CrudRepository<Review, Integer> {
     List<Review> findReviewsByBusiness(Business bus);
     List<Review> findReviewsByUser(User u);
 
+    @Query("select avg(r.rating) from Review r where r.business.id = :businessId")
+    Double averageRatingForBusiness(@Param("businessId") Integer businessId);
+
+    @Query("select r.version from Review r where r.id = :id")
+    Optional<Long> findVersionById(@Param("id") Integer id);
+
 }
\ No newline at end of file
@@ -2,17 +2,39 @@ package com.revature.repos;
 
 import com.revature.models.Business;
 import com.revature.models.User;
-import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends CrudRepository<User, Integer> {
+public interface UserRepository extends PagingAndSortingRepository<User, Integer> {
 
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Optional<User> findUserByUsername(String username);
     List<User> findUsersByRole(String role);
     Optional<User> findUserByUsernameAndPassword(String username, String password);
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Optional<User> findUserByEmail(String email);
+    List<User> findUsersByUserIdGreaterThanOrderByUserIdAsc(Integer after, Pageable pageable);
+
+    /**
+     * Gets the ids of the Users that have favorited a Business
+     */
+    @Query("select u.userId from User u join u.favorites b where b.id = :businessId")
+    List<Integer> findUserIdsByFavorite(@Param("businessId") Integer businessId, Pageable pageable);
+
+    /**
+     * Gets which of some Businesses a User has favorited
+     */
+    @Query("select b.id from User u join u.favorites b where u.userId = :userId and b.id in :businessIds")
+    List<Integer> findFavoriteIdsIn(@Param("userId") Integer userId,
+                                    @Param("businessIds") Collection<Integer> businessIds);
 }
\ No newline at end of file
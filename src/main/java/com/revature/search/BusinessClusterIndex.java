@@ -0,0 +1,224 @@
+package com.revature.search;
+
+import com.revature.dtos.BusinessCluster;
+import com.revature.exceptions.InvalidRequestException;
+import com.revature.models.Business;
+import com.revature.util.GeoHash;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hierarchical grid of precomputed {@link BusinessCluster} markers, one grid per map zoom level.
+ *
+ * Each zoom level splits every web mercator map tile into a 4 x 4 grid of cells, and every
+ * cell keeps the number of Businesses inside of it and the sum of their coordinates. A write
+ * only touches the one cell per zoom level that contains the Business, and a query only reads
+ * the cells inside the viewport.
+ */
+@Component
+public class BusinessClusterIndex implements BusinessIndex {
+
+    /**
+     * Deepest zoom level that is clustered
+     */
+    public static final int MAX_ZOOM = 20;
+
+    /**
+     * Largest number of clusters a single query may return
+     */
+    public static final int MAX_RESULTS = 5000;
+
+    /**
+     * Number of bits each map tile is split by along each axis (4 x 4 cells per tile)
+     */
+    private static final int CELL_BITS_PER_TILE = 2;
+
+    /**
+     * Latitude limit of the web mercator projection
+     */
+    private static final double MAX_MERCATOR_LAT = 85.05112878;
+
+    /**
+     * Cells of each zoom level, keyed by their packed x and y position
+     */
+    private final List<Map<Long, Cell>> levels = new ArrayList<>(MAX_ZOOM + 1);
+
+    /**
+     * The coordinates each Business was clustered at, so it can be subtracted again
+     */
+    private final Map<Integer, double[]> positions = new HashMap<>();
+
+    public BusinessClusterIndex() {
+        for (int zoom = 0; zoom <= MAX_ZOOM; zoom++) {
+            levels.add(new ConcurrentHashMap<>());
+        }
+    }
+
+    @Override
+    public synchronized void rebuild(Collection<Business> businesses) {
+        for (Map<Long, Cell> level : levels) {
+            level.clear();
+        }
+        positions.clear();
+
+        for (Business business : businesses) {
+            put(business);
+        }
+    }
+
+    @Override
+    public synchronized void put(Business business) {
+        remove(business.getId());
+
+        if (business.getLatitude() == null || business.getLongitude() == null) return;
+
+        double[] position = { business.getLatitude(), business.getLongitude() };
+        positions.put(business.getId(), position);
+        apply(business.getId(), position, 1);
+    }
+
+    @Override
+    public synchronized void remove(int businessId) {
+        double[] position = positions.remove(businessId);
+        if (position != null) {
+            apply(businessId, position, -1);
+        }
+    }
+
+    /**
+     * Adds or subtracts one Business from its cell on every zoom level
+     */
+    private void apply(int businessId, double[] position, int delta) {
+        for (int zoom = 0; zoom <= MAX_ZOOM; zoom++) {
+            int cellsPerAxis = cellsPerAxis(zoom);
+            long key = key(cellX(position[1], cellsPerAxis), cellY(position[0], cellsPerAxis));
+
+            // cells are replaced rather than mutated so readers never see a half-applied write
+            levels.get(zoom).compute(key, (k, cell) -> {
+                Cell updated = (cell == null ? Cell.EMPTY : cell).plus(businessId, position, delta);
+                return updated.count == 0 ? null : updated;
+            });
+        }
+    }
+
+    /**
+     * Gets the clusters inside of a viewport at a zoom level. A box whose minLon is greater
+     * than its maxLon is treated as crossing the antimeridian.
+     * @param minLat the southern edge of the viewport
+     * @param minLon the western edge of the viewport
+     * @param maxLat the northern edge of the viewport
+     * @param maxLon the eastern edge of the viewport
+     * @param zoom the map zoom level, where 0 shows the whole world in one tile
+     * @return a List of BusinessCluster objects inside the viewport
+     */
+    public List<BusinessCluster> findClusters(double minLat, double minLon, double maxLat, double maxLon, int zoom) {
+        if (!GeoHash.isValid(minLat, minLon) || !GeoHash.isValid(maxLat, maxLon) || minLat > maxLat) {
+            throw new InvalidRequestException("Bounding box is invalid.");
+        }
+        if (zoom < 0) {
+            throw new InvalidRequestException("Zoom must not be negative.");
+        }
+
+        int level = Math.min(zoom, MAX_ZOOM);
+        List<BusinessCluster> clusters = new ArrayList<>();
+        if (minLon <= maxLon) {
+            collect(level, minLat, minLon, maxLat, maxLon, clusters);
+        } else {
+            collect(level, minLat, minLon, maxLat, 180, clusters);
+            collect(level, minLat, -180, maxLat, maxLon, clusters);
+        }
+
+        return clusters;
+    }
+
+    private void collect(int zoom, double minLat, double minLon, double maxLat, double maxLon,
+                         List<BusinessCluster> clusters) {
+        Map<Long, Cell> cells = levels.get(zoom);
+        int cellsPerAxis = cellsPerAxis(zoom);
+        int minX = cellX(minLon, cellsPerAxis), maxX = cellX(maxLon, cellsPerAxis);
+        // mercator y grows southward
+        int minY = cellY(maxLat, cellsPerAxis), maxY = cellY(minLat, cellsPerAxis);
+
+        long viewportCells = (long) (maxX - minX + 1) * (maxY - minY + 1);
+        if (viewportCells <= cells.size()) {
+            for (int x = minX; x <= maxX; x++) {
+                for (int y = minY; y <= maxY; y++) {
+                    if (clusters.size() >= MAX_RESULTS) return;
+                    addCluster(cells.get(key(x, y)), clusters);
+                }
+            }
+        } else {
+            // the viewport is bigger than the number of non-empty cells, so scan those instead
+            for (Map.Entry<Long, Cell> entry : cells.entrySet()) {
+                if (clusters.size() >= MAX_RESULTS) return;
+                int x = (int) (entry.getKey() >>> 32);
+                int y = (int) (long) entry.getKey();
+                if (x >= minX && x <= maxX && y >= minY && y <= maxY) {
+                    addCluster(entry.getValue(), clusters);
+                }
+            }
+        }
+    }
+
+    private static void addCluster(Cell cell, List<BusinessCluster> clusters) {
+        if (cell == null) return;
+
+        clusters.add(new BusinessCluster(cell.sumLat / cell.count, cell.sumLon / cell.count, cell.count,
+                cell.count == 1 ? (int) cell.sumIds : null));
+    }
+
+    private static int cellsPerAxis(int zoom) {
+        return 1 << (zoom + CELL_BITS_PER_TILE);
+    }
+
+    private static int cellX(double lon, int cellsPerAxis) {
+        int x = (int) Math.floor((lon + 180) / 360 * cellsPerAxis);
+        return Math.max(0, Math.min(cellsPerAxis - 1, x));
+    }
+
+    private static int cellY(double lat, int cellsPerAxis) {
+        double latRad = Math.toRadians(Math.max(-MAX_MERCATOR_LAT, Math.min(MAX_MERCATOR_LAT, lat)));
+        double mercator = Math.log(Math.tan(latRad) + 1 / Math.cos(latRad));
+        int y = (int) Math.floor((1 - mercator / Math.PI) / 2 * cellsPerAxis);
+        return Math.max(0, Math.min(cellsPerAxis - 1, y));
+    }
+
+    private static long key(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Immutable running totals for one grid cell
+     */
+    private static final class Cell {
+
+        static final Cell EMPTY = new Cell(0, 0, 0, 0);
+
+        final int count;
+        final double sumLat;
+        final double sumLon;
+        /**
+         * Sum of the member ids, which is the id of the only member when count is 1
+         */
+        final long sumIds;
+
+        Cell(int count, double sumLat, double sumLon, long sumIds) {
+            this.count = count;
+            this.sumLat = sumLat;
+            this.sumLon = sumLon;
+            this.sumIds = sumIds;
+        }
+
+        Cell plus(int businessId, double[] position, int delta) {
+            return new Cell(count + delta, sumLat + delta * position[0], sumLon + delta * position[1],
+                    sumIds + (long) delta * businessId);
+        }
+    }
+
+}
@@ -0,0 +1,487 @@
+package com.revature.search;
+
+import com.revature.dtos.BusinessFacets;
+import com.revature.events.HoursEvent;
+import com.revature.events.ReviewEvent;
+import com.revature.models.Business;
+import com.revature.models.Hours;
+import com.revature.repos.BusinessRepository;
+import com.revature.repos.HoursRepository;
+import com.revature.repos.ReviewsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Supplier;
+
+/**
+ * Running counts of active {@link Business}es by type, average rating and open hours, so the
+ * search sidebar can show its facet counts without counting rows.
+ *
+ * The week is split into 15 minute slots and every slot keeps the number of Businesses open
+ * during it, so "open now" is a single array read. Counters are adjusted on every Business,
+ * Review and Hours write and are periodically rebuilt from the database in case a write was
+ * missed; writes that arrive while a rebuild is reading are replayed onto the rebuilt counters
+ * once they are swapped in. The ids in each type and rating bucket are kept as well, so the
+ * {@link BusinessQueryPlanner} can use them as candidate sets.
+ */
+@Component
+public class BusinessFacetIndex implements BusinessIndex {
+
+    /**
+     * Length of an opening hours slot in minutes
+     */
+    public static final int SLOT_MINUTES = 15;
+
+    /**
+     * Number of slots in a week
+     */
+    public static final int SLOTS_PER_WEEK = 7 * 24 * 60 / SLOT_MINUTES;
+
+    private static final int SLOTS_PER_DAY = SLOTS_PER_WEEK / 7;
+
+    /**
+     * Labels of the rating buckets; the last one is for Businesses without Reviews
+     */
+    private static final String[] RATING_BUCKETS = { "0-1", "1-2", "2-3", "3-4", "4-5", "unrated" };
+
+    private static final int UNRATED = RATING_BUCKETS.length - 1;
+
+    /**
+     * Number of Hours read from the database at a time while loading
+     */
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    private final BusinessRepository businessRepo;
+    private final ReviewsRepository reviewsRepo;
+    private final HoursRepository hoursRepo;
+
+    /**
+     * What every Business was counted as, so it can be subtracted again
+     */
+    private volatile Map<Integer, Facets> facets = new ConcurrentHashMap<>();
+
+    /**
+     * The counters read by {@link #getFacets(LocalDateTime)}
+     */
+    private volatile Counters counters = new Counters();
+
+    /**
+     * Writes applied since the running rebuild started reading, to replay once it swaps in its
+     * counters; null when no rebuild is running. Guarded by this.
+     */
+    private List<Runnable> pendingReplay;
+
+    /**
+     * Held for the whole of a rebuild, so only one runs at a time
+     */
+    private final Object rebuildLock = new Object();
+
+    /**
+     * Constructor for BusinessFacetIndex
+     * @param businessRepo the BusinessRepository
+     * @param reviewsRepo the ReviewsRepository
+     * @param hoursRepo the HoursRepository
+     */
+    @Autowired
+    public BusinessFacetIndex(BusinessRepository businessRepo, ReviewsRepository reviewsRepo, HoursRepository hoursRepo) {
+        this.businessRepo = businessRepo;
+        this.reviewsRepo = reviewsRepo;
+        this.hoursRepo = hoursRepo;
+    }
+
+    @Override
+    public void rebuild(Collection<Business> businesses) {
+        List<Object[]> rows = new ArrayList<>(businesses.size());
+        for (Business business : businesses) {
+            rows.add(new Object[] { business.getId(), business.getBusinessType(), business.isActive() });
+        }
+        replaceAll(() -> rows);
+    }
+
+    /**
+     * Recounts every facet from the database, correcting any drift in the counters
+     */
+    @Scheduled(initialDelayString = "${business.facets.reconcile-interval-ms:600000}",
+               fixedDelayString = "${business.facets.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        replaceAll(businessRepo::findBusinessFacetFields);
+    }
+
+    /**
+     * Builds new counters from (id, type, active) rows plus the ratings and Hours in the
+     * database, then swaps them in and replays the writes applied while they were read
+     */
+    private void replaceAll(Supplier<List<Object[]>> businessRows) {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                pendingReplay = new ArrayList<>();
+            }
+            try {
+                Map<Integer, Facets> rebuilt = new ConcurrentHashMap<>();
+                Counters recounted = new Counters();
+                Map<Integer, Double> ratings = readRatings();
+                Map<Integer, BitSet> openSlots = readOpenSlots();
+                for (Object[] row : businessRows.get()) {
+                    Integer id = (Integer) row[0];
+                    Facets business = new Facets((String) row[1], Boolean.TRUE.equals(row[2]),
+                            ratings.get(id), openSlots.getOrDefault(id, new BitSet(0)));
+                    rebuilt.put(id, business);
+                    recounted.apply(id, business, 1);
+                }
+
+                synchronized (this) {
+                    facets = rebuilt;
+                    counters = recounted;
+
+                    // the rows may have been read before these writes, so apply them again on top
+                    List<Runnable> replay = pendingReplay;
+                    pendingReplay = null;
+                    replay.forEach(Runnable::run);
+                }
+            } finally {
+                synchronized (this) {
+                    pendingReplay = null;
+                }
+            }
+        }
+    }
+
+    private Map<Integer, Double> readRatings() {
+        Map<Integer, Double> ratings = new HashMap<>();
+        for (Object[] row : businessRepo.averageRatingByBusiness()) {
+            if (row[1] != null) {
+                ratings.put((Integer) row[0], ((Number) row[1]).doubleValue());
+            }
+        }
+        return ratings;
+    }
+
+    private Map<Integer, BitSet> readOpenSlots() {
+        Map<Integer, BitSet> openSlots = new HashMap<>();
+        List<Object[]> hours = hoursRepo.findHoursAfter(0, PageRequest.of(0, LOAD_PAGE_SIZE));
+        while (hours != null && !hours.isEmpty()) {
+            for (Object[] row : hours) {
+                addOpenSlots(openSlots.computeIfAbsent((Integer) row[1], id -> new BitSet(SLOTS_PER_WEEK)),
+                        (Integer) row[2], (Timestamp) row[3], (Timestamp) row[4]);
+            }
+            Integer last = (Integer) hours.get(hours.size() - 1)[0];
+            hours = hoursRepo.findHoursAfter(last, PageRequest.of(0, LOAD_PAGE_SIZE));
+        }
+        return openSlots;
+    }
+
+    @Override
+    public synchronized void put(Business business) {
+        record(() -> put(business));
+        Facets previous = facets.get(business.getId());
+        Facets updated = previous == null
+                ? new Facets(business.getBusinessType(), business.isActive(), null, new BitSet(0))
+                : new Facets(business.getBusinessType(), business.isActive(), previous.averageRating, previous.openSlots);
+        replace(business.getId(), previous, updated);
+    }
+
+    @Override
+    public synchronized void remove(int businessId) {
+        record(() -> remove(businessId));
+        replace(businessId, facets.get(businessId), null);
+    }
+
+    /**
+     * Moves a Business to the bucket of its new average rating
+     * @param event the event published by the ReviewsService
+     */
+    @EventListener
+    public synchronized void onReviewEvent(ReviewEvent event) {
+        record(() -> onReviewEvent(event));
+        Facets previous = facets.get(event.getBusinessId());
+        if (previous == null) return;
+
+        Double averageRating = reviewsRepo.averageRatingForBusiness(event.getBusinessId());
+        replace(event.getBusinessId(), previous,
+                new Facets(previous.businessType, previous.active, averageRating, previous.openSlots));
+    }
+
+    /**
+     * Recounts the open slots of a Business whose Hours changed
+     * @param event the event published by the HoursService
+     */
+    @EventListener
+    public synchronized void onHoursEvent(HoursEvent event) {
+        record(() -> onHoursEvent(event));
+        Facets previous = facets.get(event.getBusinessId());
+        if (previous == null) return;
+
+        BitSet slots = new BitSet(SLOTS_PER_WEEK);
+        for (Hours hours : hoursRepo.findHoursByBusinessId(event.getBusinessId())) {
+            addOpenSlots(slots, hours.getDay(), hours.getOpen(), hours.getClosed());
+        }
+        replace(event.getBusinessId(), previous,
+                new Facets(previous.businessType, previous.active, previous.averageRating, slots));
+    }
+
+    /**
+     * Keeps a write to replay after the running rebuild, if there is one
+     */
+    private void record(Runnable write) {
+        if (pendingReplay != null) {
+            pendingReplay.add(write);
+        }
+    }
+
+    private void replace(int businessId, Facets previous, Facets updated) {
+        Counters current = counters;
+        if (previous != null) {
+            current.apply(businessId, previous, -1);
+            facets.remove(businessId);
+        }
+        if (updated != null) {
+            current.apply(businessId, updated, 1);
+            facets.put(businessId, updated);
+        }
+    }
+
+    /**
+     * Gets the facet counts of all active Businesses
+     * @param now the local time used for the "open now" count
+     * @return the BusinessFacets
+     */
+    public BusinessFacets getFacets(LocalDateTime now) {
+        Counters current = counters;
+
+        Map<String, Integer> types = new TreeMap<>();
+        current.businessTypes.forEach((type, count) -> {
+            if (count.get() > 0) {
+                types.put(type, count.get());
+            }
+        });
+
+        Map<String, Integer> ratings = new LinkedHashMap<>();
+        for (int bucket = 0; bucket < RATING_BUCKETS.length; bucket++) {
+            ratings.put(RATING_BUCKETS[bucket], current.ratings.get(bucket));
+        }
+
+        return new BusinessFacets(current.active.get(), current.openSlots.get(slot(now)), types, ratings);
+    }
+
+    /**
+     * Gets the number of active Businesses of a type
+     */
+    public int countByType(String businessType) {
+        AtomicInteger count = counters.businessTypes.get(businessType);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * Gets the ids of the active Businesses of a type
+     */
+    public Set<Integer> idsByType(String businessType) {
+        return counters.typeMembers.getOrDefault(businessType, Collections.emptySet());
+    }
+
+    /**
+     * Gets an upper bound on the number of active Businesses with at least an average rating,
+     * from the counts of the rating buckets that may contain them
+     */
+    public int countRatedAtLeast(double minRating) {
+        Counters current = counters;
+        int count = 0;
+        for (int bucket = ratingBucket(minRating); bucket < UNRATED; bucket++) {
+            count += current.ratings.get(bucket);
+        }
+        return count;
+    }
+
+    /**
+     * Gets the ids of the active Businesses with at least an average rating
+     */
+    public List<Integer> idsRatedAtLeast(double minRating) {
+        Counters current = counters;
+        List<Integer> ids = new ArrayList<>();
+        for (int bucket = ratingBucket(minRating); bucket < UNRATED; bucket++) {
+            for (Integer id : current.ratingMembers.get(bucket)) {
+                if (isRatedAtLeast(id, minRating)) {
+                    ids.add(id);
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Gets the number of active Businesses open at a time
+     */
+    public int countOpenAt(LocalDateTime time) {
+        return counters.openSlots.get(slot(time));
+    }
+
+    /**
+     * Gets the ids of the active Businesses open at a time. There is no list per slot, so
+     * this reads every Business and should only be used when few other filters apply.
+     */
+    public List<Integer> idsOpenAt(LocalDateTime time) {
+        int slot = slot(time);
+        List<Integer> ids = new ArrayList<>();
+        facets.forEach((id, business) -> {
+            if (business.active && business.openSlots.get(slot)) {
+                ids.add(id);
+            }
+        });
+        return ids;
+    }
+
+    /**
+     * Checks if a Business is indexed and active
+     */
+    public boolean isActive(int businessId) {
+        Facets business = facets.get(businessId);
+        return business != null && business.active;
+    }
+
+    /**
+     * Checks if a Business is of a type
+     */
+    public boolean hasType(int businessId, String businessType) {
+        Facets business = facets.get(businessId);
+        return business != null && businessType.equals(business.businessType);
+    }
+
+    /**
+     * Checks if the average rating of a Business is at least minRating
+     */
+    public boolean isRatedAtLeast(int businessId, double minRating) {
+        Double rating = getAverageRating(businessId);
+        return rating != null && rating >= minRating;
+    }
+
+    /**
+     * Checks if the Hours of a Business say it is open at a time
+     */
+    public boolean isOpenAt(int businessId, LocalDateTime time) {
+        Facets business = facets.get(businessId);
+        return business != null && business.openSlots.get(slot(time));
+    }
+
+    /**
+     * Gets the average Review rating of a Business
+     * @return the rating, or null if the Business has no Reviews or is not indexed
+     */
+    public Double getAverageRating(int businessId) {
+        Facets business = facets.get(businessId);
+        return business == null ? null : business.averageRating;
+    }
+
+    private static int slot(LocalDateTime time) {
+        int day = time.getDayOfWeek().getValue() % 7;
+        return day * SLOTS_PER_DAY + time.toLocalTime().toSecondOfDay() / 60 / SLOT_MINUTES;
+    }
+
+    private static int ratingBucket(Double averageRating) {
+        if (averageRating == null) return UNRATED;
+        return Math.max(0, Math.min(UNRATED - 1, (int) Math.floor(averageRating)));
+    }
+
+    /**
+     * Marks the slots between the open and close time of a day, running into the next day when
+     * a Business closes after midnight
+     * @param day the day of the week, where 0 or 7 is Sunday
+     */
+    private static void addOpenSlots(BitSet slots, int day, Timestamp open, Timestamp closed) {
+        if (open == null || closed == null) return;
+
+        LocalTime openTime = open.toLocalDateTime().toLocalTime();
+        LocalTime closeTime = closed.toLocalDateTime().toLocalTime();
+        int first = (day % 7) * SLOTS_PER_DAY + openTime.toSecondOfDay() / 60 / SLOT_MINUTES;
+        int length = (closeTime.toSecondOfDay() - openTime.toSecondOfDay()) / 60 / SLOT_MINUTES;
+        if (length <= 0) {
+            length += SLOTS_PER_DAY;
+        }
+
+        for (int i = 0; i < length; i++) {
+            slots.set((first + i) % SLOTS_PER_WEEK);
+        }
+    }
+
+    /**
+     * The facets one Business is counted in
+     */
+    private static final class Facets {
+
+        final String businessType;
+        final boolean active;
+        final Double averageRating;
+        final int ratingBucket;
+        final BitSet openSlots;
+
+        Facets(String businessType, boolean active, Double averageRating, BitSet openSlots) {
+            this.businessType = businessType;
+            this.active = active;
+            this.averageRating = averageRating;
+            this.ratingBucket = ratingBucket(averageRating);
+            this.openSlots = openSlots;
+        }
+    }
+
+    /**
+     * Counts and ids of active Businesses. Each counter and set is updated atomically so readers
+     * never lock.
+     */
+    private static final class Counters {
+
+        final Map<String, AtomicInteger> businessTypes = new ConcurrentHashMap<>();
+        final AtomicIntegerArray ratings = new AtomicIntegerArray(RATING_BUCKETS.length);
+        final AtomicIntegerArray openSlots = new AtomicIntegerArray(SLOTS_PER_WEEK);
+        final AtomicInteger active = new AtomicInteger();
+        final Map<String, Set<Integer>> typeMembers = new ConcurrentHashMap<>();
+        final List<Set<Integer>> ratingMembers = new ArrayList<>(RATING_BUCKETS.length);
+
+        Counters() {
+            for (int bucket = 0; bucket < RATING_BUCKETS.length; bucket++) {
+                ratingMembers.add(ConcurrentHashMap.newKeySet());
+            }
+        }
+
+        void apply(int businessId, Facets business, int delta) {
+            if (!business.active) return;
+
+            if (business.businessType != null) {
+                businessTypes.computeIfAbsent(business.businessType, type -> new AtomicInteger()).addAndGet(delta);
+                Set<Integer> members = typeMembers.computeIfAbsent(business.businessType, type -> ConcurrentHashMap.newKeySet());
+                if (delta > 0) {
+                    members.add(businessId);
+                } else {
+                    members.remove(businessId);
+                }
+            }
+            ratings.addAndGet(business.ratingBucket, delta);
+            if (delta > 0) {
+                ratingMembers.get(business.ratingBucket).add(businessId);
+            } else {
+                ratingMembers.get(business.ratingBucket).remove(businessId);
+            }
+            for (int slot = business.openSlots.nextSetBit(0); slot >= 0; slot = business.openSlots.nextSetBit(slot + 1)) {
+                openSlots.addAndGet(slot, delta);
+            }
+            active.addAndGet(delta);
+        }
+    }
+
+}
@@ -0,0 +1,225 @@
+package com.revature.search;
+
+import com.revature.exceptions.InvalidRequestException;
+import com.revature.models.Business;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Character trigram index of {@link Business} names for typo tolerant search.
+ *
+ * A misspelled name still shares most of its three letter sequences with the real one, so the
+ * trigrams of the query find the candidates and an edit distance check confirms them. The
+ * rarest trigrams are read first and the number of postings read and candidates checked are
+ * both capped, so the cost of a query does not grow with the catalogue.
+ */
+@Component
+public class BusinessFuzzyIndex implements BusinessIndex {
+
+    /**
+     * Largest number of results a single search may return
+     */
+    public static final int MAX_RESULTS = 100;
+
+    /**
+     * Longest query that is searched; anything after it is ignored
+     */
+    public static final int MAX_QUERY_LENGTH = 64;
+
+    /**
+     * Most postings read from the trigram lists for a single query
+     */
+    private static final int MAX_POSTINGS_SCANNED = 20_000;
+
+    /**
+     * Most candidates whose edit distance is computed for a single query
+     */
+    private static final int MAX_CANDIDATES_VERIFIED = 500;
+
+    /**
+     * Trigram -> ids of the Businesses whose name contains it
+     */
+    private final Map<String, Set<Integer>> postings = new ConcurrentHashMap<>();
+
+    /**
+     * Normalized name of every indexed Business, by id
+     */
+    private final Map<Integer, String> names = new ConcurrentHashMap<>();
+
+    @Override
+    public synchronized void rebuild(Collection<Business> businesses) {
+        postings.clear();
+        names.clear();
+
+        for (Business business : businesses) {
+            put(business);
+        }
+    }
+
+    @Override
+    public synchronized void put(Business business) {
+        remove(business.getId());
+
+        String name = String.join(" ", TextAnalyzer.tokenize(business.getBusinessName()));
+        if (name.isEmpty()) return;
+
+        for (String trigram : trigrams(name)) {
+            postings.computeIfAbsent(trigram, t -> ConcurrentHashMap.newKeySet()).add(business.getId());
+        }
+        names.put(business.getId(), name);
+    }
+
+    @Override
+    public synchronized void remove(int businessId) {
+        String name = names.remove(businessId);
+        if (name == null) return;
+
+        for (String trigram : trigrams(name)) {
+            Set<Integer> ids = postings.get(trigram);
+            if (ids == null) continue;
+
+            ids.remove(businessId);
+            if (ids.isEmpty()) {
+                postings.remove(trigram);
+            }
+        }
+    }
+
+    /**
+     * Searches Business names allowing for typos. A name matches if it, or a run of its words
+     * as long as the query, is within a few edits of the query; longer queries allow more edits.
+     * @param query the possibly misspelled name
+     * @param limit the maximum number of results
+     * @return the ids of the matching Businesses, fewest edits first
+     */
+    public List<Integer> search(String query, int limit) {
+        if (query == null || query.trim().isEmpty()) {
+            throw new InvalidRequestException("Search query must not be empty.");
+        }
+        if (limit < 1 || limit > MAX_RESULTS) {
+            throw new InvalidRequestException("Limit must be between 1 and " + MAX_RESULTS + ".");
+        }
+
+        String joined = String.join(" ", TextAnalyzer.tokenize(query));
+        String normalized = joined.length() > MAX_QUERY_LENGTH ? joined.substring(0, MAX_QUERY_LENGTH).trim() : joined;
+        if (normalized.isEmpty()) return Collections.emptyList();
+
+        Map<Integer, Integer> shared = countSharedTrigrams(normalized);
+        int maxEdits = maxEdits(normalized);
+        int words = normalized.split(" ").length;
+
+        List<Match> matches = new ArrayList<>();
+        shared.entrySet().stream()
+              .sorted(Map.Entry.<Integer, Integer>comparingByValue().reversed())
+              .limit(MAX_CANDIDATES_VERIFIED)
+              .forEach(candidate -> {
+                  String name = names.get(candidate.getKey());
+                  if (name == null) return;
+
+                  int edits = closestEdits(normalized, words, name, maxEdits);
+                  if (edits <= maxEdits) {
+                      matches.add(new Match(candidate.getKey(), edits, candidate.getValue()));
+                  }
+              });
+
+        return matches.stream()
+                      .sorted(Match.BEST_FIRST)
+                      .limit(limit)
+                      .map(match -> match.businessId)
+                      .collect(Collectors.toList());
+    }
+
+    /**
+     * Counts how many of the query's trigrams every candidate shares, reading the rarest
+     * trigrams first until the scan budget runs out
+     */
+    private Map<Integer, Integer> countSharedTrigrams(String normalized) {
+        List<Set<Integer>> lists = new ArrayList<>();
+        for (String trigram : trigrams(normalized)) {
+            Set<Integer> ids = postings.get(trigram);
+            if (ids != null) {
+                lists.add(ids);
+            }
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        Map<Integer, Integer> shared = new HashMap<>();
+        int scanned = 0;
+        for (Set<Integer> ids : lists) {
+            if (scanned >= MAX_POSTINGS_SCANNED) break;
+            for (Integer id : ids) {
+                if (++scanned > MAX_POSTINGS_SCANNED) break;
+                shared.merge(id, 1, Integer::sum);
+            }
+        }
+
+        return shared;
+    }
+
+    /**
+     * Gets the fewest edits between the query and either the whole name or any run of the
+     * name's words with as many words as the query
+     */
+    private static int closestEdits(String query, int queryWords, String name, int maxEdits) {
+        int best = TextAnalyzer.editDistance(query, name, maxEdits);
+
+        String[] nameWords = name.split(" ");
+        for (int start = 0; start + queryWords <= nameWords.length && best > 0; start++) {
+            if (queryWords == nameWords.length) break;
+
+            String window = String.join(" ", Arrays.copyOfRange(nameWords, start, start + queryWords));
+            best = Math.min(best, TextAnalyzer.editDistance(query, window, maxEdits));
+        }
+
+        return best;
+    }
+
+    private static int maxEdits(String normalized) {
+        if (normalized.length() <= 4) return 1;
+        if (normalized.length() <= 8) return 2;
+        return 3;
+    }
+
+    /**
+     * Gets the trigrams of a normalized name, padded so the first and last letters count as much
+     * as the middle ones
+     */
+    private static Set<String> trigrams(String normalized) {
+        String padded = "  " + normalized + " ";
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    private static final class Match {
+
+        static final Comparator<Match> BEST_FIRST = Comparator.comparingInt((Match match) -> match.edits)
+                .thenComparing(Comparator.comparingInt((Match match) -> match.sharedTrigrams).reversed())
+                .thenComparingInt(match -> match.businessId);
+
+        final int businessId;
+        final int edits;
+        final int sharedTrigrams;
+
+        Match(int businessId, int edits, int sharedTrigrams) {
+            this.businessId = businessId;
+            this.edits = edits;
+            this.sharedTrigrams = sharedTrigrams;
+        }
+    }
+
+}
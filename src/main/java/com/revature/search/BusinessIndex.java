@@ -0,0 +1,32 @@
+package com.revature.search;
+
+import com.revature.models.Business;
+
+import java.util.Collection;
+
+/**
+ * An in-memory index over {@link Business} data. Implementations are registered with the
+ * {@link BusinessIndexer}, which loads them at startup and keeps them in sync with every
+ * Business write.
+ */
+public interface BusinessIndex {
+
+    /**
+     * Replaces the entire contents of the index
+     * @param businesses every Business in the database
+     */
+    void rebuild(Collection<Business> businesses);
+
+    /**
+     * Adds a Business to the index, or replaces it if it is already indexed
+     * @param business the Business that was saved
+     */
+    void put(Business business);
+
+    /**
+     * Removes a Business from the index
+     * @param businessId the id of the Business that was deleted
+     */
+    void remove(int businessId);
+
+}
@@ -0,0 +1,83 @@
+package com.revature.search;
+
+import com.revature.events.BusinessEvent;
+import com.revature.events.ChangeType;
+import com.revature.models.Business;
+import com.revature.repos.BusinessRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads every {@link BusinessIndex} from the database once the application starts and then
+ * applies each {@link BusinessEvent} to them, so the indexes never need to query the database
+ * to answer a request
+ */
+@Component
+public class BusinessIndexer {
+
+    /**
+     * Number of Businesses read from the database at a time while loading
+     */
+    private static final int LOAD_PAGE_SIZE = 500;
+
+    /**
+     * BusinessRepository managed by Spring
+     */
+    private final BusinessRepository businessRepo;
+
+    /**
+     * Every BusinessIndex bean in the application
+     */
+    private final List<BusinessIndex> indexes;
+
+    /**
+     * Constructor for BusinessIndexer
+     * @param businessRepo the BusinessRepository
+     * @param indexes the indexes to keep in sync
+     */
+    @Autowired
+    public BusinessIndexer(BusinessRepository businessRepo, List<BusinessIndex> indexes) {
+        this.businessRepo = businessRepo;
+        this.indexes = indexes;
+    }
+
+    /**
+     * Builds all of the indexes from the database, reading the Businesses in keyset pages
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAll() {
+        List<Business> businesses = new ArrayList<>();
+        List<Business> page = businessRepo.findBusinessesByIdGreaterThanOrderByIdAsc(0, PageRequest.of(0, LOAD_PAGE_SIZE));
+        while (page != null && !page.isEmpty()) {
+            businesses.addAll(page);
+            int last = page.get(page.size() - 1).getId();
+            page = businessRepo.findBusinessesByIdGreaterThanOrderByIdAsc(last, PageRequest.of(0, LOAD_PAGE_SIZE));
+        }
+
+        for (BusinessIndex index : indexes) {
+            index.rebuild(businesses);
+        }
+    }
+
+    /**
+     * Applies a single Business write to all of the indexes
+     * @param event the event published by the BusinessService
+     */
+    @EventListener
+    public void onBusinessEvent(BusinessEvent event) {
+        for (BusinessIndex index : indexes) {
+            if (event.getType() == ChangeType.DELETED) {
+                index.remove(event.getBusinessId());
+            } else {
+                index.put(event.getBusiness());
+            }
+        }
+    }
+
+}
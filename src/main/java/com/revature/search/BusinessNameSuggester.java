@@ -0,0 +1,348 @@
+package com.revature.search;
+
+import com.revature.dtos.BusinessSuggestion;
+import com.revature.events.ReviewEvent;
+import com.revature.exceptions.InvalidRequestException;
+import com.revature.models.Business;
+import com.revature.repos.BusinessRepository;
+import com.revature.repos.ReviewsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trie of active {@link Business} names used for type-ahead suggestions.
+ *
+ * Every node keeps the most popular Businesses below it, so a lookup only walks down the
+ * characters of the prefix and copies one small array. A name is also reachable from the start
+ * of each of its words, so "pizza" suggests "Tony's Pizza". Popularity is the number of Users
+ * who favorited the Business, with the average Review rating breaking ties; it is read when the
+ * index is loaded and read again for a Business when it is reviewed or (un)favorited.
+ */
+@Component
+public class BusinessNameSuggester implements BusinessIndex {
+
+    /**
+     * Largest number of suggestions a single lookup may return
+     */
+    public static final int MAX_SUGGESTIONS = 10;
+
+    /**
+     * Room left under each favorite for the average rating, which is at most 5.00
+     */
+    private static final long FAVORITE_WEIGHT = 1000;
+
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    /**
+     * BusinessRepository managed by Spring
+     */
+    private final BusinessRepository businessRepo;
+
+    /**
+     * ReviewsRepository managed by Spring
+     */
+    private final ReviewsRepository reviewsRepo;
+
+    private final Node root = new Node();
+
+    /**
+     * Popularity of every Business with favorites or Reviews, by id
+     */
+    private final Map<Integer, Long> weights = new HashMap<>();
+
+    /**
+     * The entry of every indexed Business, so it can be removed or reweighted again
+     */
+    private final Map<Integer, Entry> indexed = new HashMap<>();
+
+    /**
+     * Constructor for BusinessNameSuggester
+     * @param businessRepo the BusinessRepository used to read favorite counts
+     * @param reviewsRepo the ReviewsRepository used to read average ratings
+     */
+    @Autowired
+    public BusinessNameSuggester(BusinessRepository businessRepo, ReviewsRepository reviewsRepo) {
+        this.businessRepo = businessRepo;
+        this.reviewsRepo = reviewsRepo;
+    }
+
+    @Override
+    public synchronized void rebuild(Collection<Business> businesses) {
+        for (Integer id : new ArrayList<>(indexed.keySet())) {
+            remove(id);
+        }
+
+        weights.clear();
+        for (Object[] row : businessRepo.countFavoritesByBusiness()) {
+            weights.merge((Integer) row[0], ((Number) row[1]).longValue() * FAVORITE_WEIGHT, Long::sum);
+        }
+        for (Object[] row : businessRepo.averageRatingByBusiness()) {
+            if (row[1] != null) {
+                weights.merge((Integer) row[0], Math.round(((Number) row[1]).doubleValue() * 100), Long::sum);
+            }
+        }
+
+        for (Business business : businesses) {
+            put(business);
+        }
+    }
+
+    @Override
+    public synchronized void put(Business business) {
+        remove(business.getId());
+        if (!business.isActive()) return;
+
+        index(new Entry(business.getId(), business.getBusinessName(), business.getBusinessType(),
+                weights.getOrDefault(business.getId(), 0L)));
+    }
+
+    @Override
+    public synchronized void remove(int businessId) {
+        Entry entry = indexed.remove(businessId);
+        if (entry == null) return;
+
+        for (String key : keys(entry.businessName)) {
+            delete(key, businessId);
+        }
+    }
+
+    /**
+     * Reads the popularity of a Business again after a User favorited or unfavorited it
+     * @param businessId the id of the Business
+     */
+    public void onFavoritesChanged(int businessId) {
+        reweigh(businessId);
+    }
+
+    /**
+     * Reads the popularity of a Business again after one of its Reviews was written
+     * @param event the event published by the ReviewsService
+     */
+    @EventListener
+    public void onReviewEvent(ReviewEvent event) {
+        reweigh(event.getBusinessId());
+    }
+
+    private synchronized void reweigh(int businessId) {
+        Double rating = reviewsRepo.averageRatingForBusiness(businessId);
+        long weight = businessRepo.countFavoritesForBusiness(businessId) * FAVORITE_WEIGHT
+                + (rating == null ? 0 : Math.round(rating * 100));
+        if (weight == 0) {
+            weights.remove(businessId);
+        } else {
+            weights.put(businessId, weight);
+        }
+
+        Entry entry = indexed.get(businessId);
+        if (entry == null || entry.weight == weight) return;
+
+        remove(businessId);
+        index(new Entry(businessId, entry.businessName, entry.businessType, weight));
+    }
+
+    /**
+     * Gets the most popular active Businesses whose name, or any word of it onwards, starts with
+     * the prefix. Case, accents and punctuation are ignored.
+     * @param prefix what the user has typed so far
+     * @param limit the maximum number of suggestions
+     * @return a List of BusinessSuggestion objects, most popular first
+     */
+    public List<BusinessSuggestion> suggest(String prefix, int limit) {
+        if (prefix == null) {
+            throw new InvalidRequestException("Prefix must not be null.");
+        }
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new InvalidRequestException("Limit must be between 1 and " + MAX_SUGGESTIONS + ".");
+        }
+
+        // normalize the same way the names were, keeping a trailing separator as a space
+        String key = String.join(" ", TextAnalyzer.tokenize(prefix));
+        if (!key.isEmpty() && !Character.isLetterOrDigit(prefix.charAt(prefix.length() - 1))) {
+            key += " ";
+        }
+
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+        }
+        if (node == null) return new ArrayList<>();
+
+        Entry[] top = node.top;
+        List<BusinessSuggestion> suggestions = new ArrayList<>(Math.min(limit, top.length));
+        for (int i = 0; i < top.length && i < limit; i++) {
+            suggestions.add(new BusinessSuggestion(top[i].businessId, top[i].businessName, top[i].businessType));
+        }
+
+        return suggestions;
+    }
+
+    private void index(Entry entry) {
+        List<String> keys = keys(entry.businessName);
+        if (keys.isEmpty()) return;
+
+        for (String key : keys) {
+            insert(key, entry);
+        }
+        indexed.put(entry.businessId, entry);
+    }
+
+    /**
+     * Gets the trie keys of a name: its normalized words from each word onwards
+     */
+    private static List<String> keys(String businessName) {
+        List<String> words = TextAnalyzer.tokenize(businessName);
+        List<String> keys = new ArrayList<>(words.size());
+        for (int i = 0; i < words.size(); i++) {
+            String key = String.join(" ", words.subList(i, words.size()));
+            if (!keys.contains(key)) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    private void insert(String key, Entry entry) {
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            Node child = path[i].children.get(key.charAt(i));
+            if (child == null) {
+                child = new Node();
+                path[i].children = path[i].children.with(key.charAt(i), child);
+            }
+            path[i + 1] = child;
+        }
+
+        path[key.length()].terminal.add(entry);
+        for (int i = key.length(); i >= 0; i--) {
+            path[i].updateTop();
+        }
+    }
+
+    private void delete(String key, int businessId) {
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = path[i].children.get(key.charAt(i));
+            if (path[i + 1] == null) return;
+        }
+
+        path[key.length()].terminal.removeIf(entry -> entry.businessId == businessId);
+        for (int i = key.length(); i >= 0; i--) {
+            path[i].updateTop();
+            if (i > 0 && path[i].top.length == 0) {
+                // nothing is left below this node, so drop it
+                path[i - 1].children = path[i - 1].children.without(key.charAt(i - 1));
+            }
+        }
+    }
+
+    /**
+     * A trie node. Children and the top entries are replaced rather than mutated, so lookups
+     * never lock; everything else is only touched by writers.
+     */
+    private static final class Node {
+
+        volatile Children children = Children.EMPTY;
+        volatile Entry[] top = NO_ENTRIES;
+        final List<Entry> terminal = new ArrayList<>(1);
+
+        /**
+         * Recomputes the most popular entries from this node's own names and its children's top
+         * entries, which are already up to date
+         */
+        void updateTop() {
+            Map<Integer, Entry> candidates = new LinkedHashMap<>();
+            for (Entry entry : terminal) {
+                candidates.putIfAbsent(entry.businessId, entry);
+            }
+            for (Node child : children.nodes) {
+                for (Entry entry : child.top) {
+                    candidates.putIfAbsent(entry.businessId, entry);
+                }
+            }
+
+            top = candidates.values().stream()
+                            .sorted(Entry.BY_POPULARITY)
+                            .limit(MAX_SUGGESTIONS)
+                            .toArray(Entry[]::new);
+        }
+    }
+
+    /**
+     * Immutable sorted array of the children of a node
+     */
+    private static final class Children {
+
+        static final Children EMPTY = new Children(new char[0], new Node[0]);
+
+        final char[] keys;
+        final Node[] nodes;
+
+        Children(char[] keys, Node[] nodes) {
+            this.keys = keys;
+            this.nodes = nodes;
+        }
+
+        Node get(char key) {
+            int i = Arrays.binarySearch(keys, key);
+            return i < 0 ? null : nodes[i];
+        }
+
+        Children with(char key, Node node) {
+            int i = -Arrays.binarySearch(keys, key) - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newNodes = new Node[nodes.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, i);
+            System.arraycopy(nodes, 0, newNodes, 0, i);
+            newKeys[i] = key;
+            newNodes[i] = node;
+            System.arraycopy(keys, i, newKeys, i + 1, keys.length - i);
+            System.arraycopy(nodes, i, newNodes, i + 1, nodes.length - i);
+            return new Children(newKeys, newNodes);
+        }
+
+        Children without(char key) {
+            int i = Arrays.binarySearch(keys, key);
+            if (i < 0) return this;
+
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newNodes = new Node[nodes.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, i);
+            System.arraycopy(nodes, 0, newNodes, 0, i);
+            System.arraycopy(keys, i + 1, newKeys, i, keys.length - i - 1);
+            System.arraycopy(nodes, i + 1, newNodes, i, nodes.length - i - 1);
+            return new Children(newKeys, newNodes);
+        }
+    }
+
+    private static final class Entry {
+
+        static final Comparator<Entry> BY_POPULARITY = Comparator.comparingLong((Entry entry) -> entry.weight).reversed()
+                .thenComparing(entry -> entry.businessName)
+                .thenComparingInt(entry -> entry.businessId);
+
+        final int businessId;
+        final String businessName;
+        final String businessType;
+        final long weight;
+
+        Entry(int businessId, String businessName, String businessType, long weight) {
+            this.businessId = businessId;
+            this.businessName = businessName;
+            this.businessType = businessType;
+            this.weight = weight;
+        }
+    }
+
+}
@@ -0,0 +1,278 @@
+package com.revature.search;
+
+import com.revature.dtos.BusinessPin;
+import com.revature.exceptions.InvalidRequestException;
+import com.revature.util.GeoHash;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Answers searches that combine a Business type, a distance, a minimum rating and "open now"
+ * from the in-memory indexes.
+ *
+ * Every filter can estimate how many Businesses it matches, list them, and check a single
+ * Business. The planner lists the candidates of the filter with the smallest estimate and checks
+ * them against the other filters, most selective first, so the work is proportional to the
+ * smallest filter rather than to the catalogue.
+ */
+@Component
+public class BusinessQueryPlanner {
+
+    /**
+     * Largest number of results a single search may return
+     */
+    public static final int MAX_RESULTS = 200;
+
+    /**
+     * Largest radius, in meters, that a search may cover
+     */
+    public static final double MAX_RADIUS_METERS = 50_000;
+
+    private static final double METERS_PER_DEGREE = Math.PI * GeoHash.EARTH_RADIUS_METERS / 180;
+
+    private final BusinessSpatialIndex spatialIndex;
+    private final BusinessFacetIndex facetIndex;
+
+    /**
+     * Constructor for BusinessQueryPlanner
+     * @param spatialIndex the index used for distance filters
+     * @param facetIndex the index used for type, rating and open hours filters
+     */
+    @Autowired
+    public BusinessQueryPlanner(BusinessSpatialIndex spatialIndex, BusinessFacetIndex facetIndex) {
+        this.spatialIndex = spatialIndex;
+        this.facetIndex = facetIndex;
+    }
+
+    /**
+     * Finds the active Businesses that match every given filter. Results are sorted by distance
+     * when a location is given, and by rating otherwise.
+     * @param type the Business type, or null
+     * @param lat the latitude to search around, or null
+     * @param lon the longitude to search around, or null
+     * @param radiusMeters the distance from lat and lon to search within
+     * @param minRating the lowest average rating, or null
+     * @param openAt the local time the Businesses must be open at, or null
+     * @param limit the maximum number of results
+     * @return the ids of the matching Businesses
+     */
+    public List<Integer> find(String type, Double lat, Double lon, double radiusMeters, Double minRating,
+                              LocalDateTime openAt, int limit) {
+        if (limit < 1 || limit > MAX_RESULTS) {
+            throw new InvalidRequestException("Limit must be between 1 and " + MAX_RESULTS + ".");
+        }
+
+        List<Filter> filters = new ArrayList<>();
+        Map<Integer, Double> distances = null;
+
+        if (lat != null || lon != null) {
+            if (lat == null || lon == null || !GeoHash.isValid(lat, lon)) {
+                throw new InvalidRequestException("Both lat and lon must be given and in range.");
+            }
+            if (radiusMeters <= 0 || radiusMeters > MAX_RADIUS_METERS) {
+                throw new InvalidRequestException("Radius must be between 0 and " + MAX_RADIUS_METERS + " meters.");
+            }
+            distances = new HashMap<>();
+            filters.add(new DistanceFilter(lat, lon, radiusMeters, distances));
+        }
+        if (type != null) {
+            if (type.trim().isEmpty()) {
+                throw new InvalidRequestException("Type must not be empty.");
+            }
+            filters.add(new TypeFilter(type));
+        }
+        if (minRating != null) {
+            filters.add(new RatingFilter(minRating));
+        }
+        if (openAt != null) {
+            filters.add(new OpenFilter(openAt));
+        }
+        if (filters.isEmpty()) {
+            throw new InvalidRequestException("At least one filter must be given.");
+        }
+
+        // most selective first: the first filter produces the candidates, the rest check them
+        filters.sort(Comparator.comparingInt(Filter::estimate));
+        List<Filter> checks = filters.subList(1, filters.size());
+
+        List<Integer> matches = new ArrayList<>();
+        for (Integer id : filters.get(0).candidates()) {
+            if (facetIndex.isActive(id) && checks.stream().allMatch(filter -> filter.test(id))) {
+                matches.add(id);
+            }
+        }
+
+        Comparator<Integer> order;
+        if (distances != null) {
+            Map<Integer, Double> byDistance = distances;
+            order = Comparator.comparingDouble(byDistance::get);
+        } else {
+            order = Comparator.comparing((Integer id) -> facetIndex.getAverageRating(id),
+                    Comparator.nullsLast(Comparator.reverseOrder()));
+        }
+
+        return matches.stream()
+                      .sorted(order.thenComparing(Comparator.naturalOrder()))
+                      .limit(limit)
+                      .collect(Collectors.toList());
+    }
+
+    /**
+     * One condition of a search
+     */
+    private interface Filter {
+
+        /**
+         * Gets roughly how many Businesses match, without listing them
+         */
+        int estimate();
+
+        /**
+         * Lists every Business that may match
+         */
+        Collection<Integer> candidates();
+
+        /**
+         * Checks a single Business
+         */
+        boolean test(int businessId);
+    }
+
+    private final class DistanceFilter implements Filter {
+
+        final double lat, lon, radiusMeters;
+        final double minLat, minLon, maxLat, maxLon;
+        final Map<Integer, Double> distances;
+
+        DistanceFilter(double lat, double lon, double radiusMeters, Map<Integer, Double> distances) {
+            this.lat = lat;
+            this.lon = lon;
+            this.radiusMeters = radiusMeters;
+            this.distances = distances;
+
+            double dLat = radiusMeters / METERS_PER_DEGREE;
+            double dLon = dLat / Math.max(0.01, Math.cos(Math.toRadians(lat)));
+            this.minLat = Math.max(-90, lat - dLat);
+            this.maxLat = Math.min(90, lat + dLat);
+            if (dLon >= 180) {
+                this.minLon = -180;
+                this.maxLon = 180;
+            } else {
+                // a box that wraps has minLon > maxLon, which the spatial index understands
+                this.minLon = lon - dLon < -180 ? lon - dLon + 360 : lon - dLon;
+                this.maxLon = lon + dLon > 180 ? lon + dLon - 360 : lon + dLon;
+            }
+        }
+
+        @Override
+        public int estimate() {
+            return spatialIndex.estimateInBox(minLat, minLon, maxLat, maxLon);
+        }
+
+        @Override
+        public Collection<Integer> candidates() {
+            // the box is not walked nearest first, so a capped listing could drop the nearest
+            List<Integer> ids = new ArrayList<>();
+            for (BusinessPin pin : spatialIndex.findAllInBox(minLat, minLon, maxLat, maxLon)) {
+                if (test(pin.getId())) {
+                    ids.add(pin.getId());
+                }
+            }
+            return ids;
+        }
+
+        @Override
+        public boolean test(int businessId) {
+            BusinessPin pin = spatialIndex.getPin(businessId);
+            if (pin == null) return false;
+
+            double distance = GeoHash.distanceMeters(lat, lon, pin.getLatitude(), pin.getLongitude());
+            if (distance > radiusMeters) return false;
+
+            distances.put(businessId, distance);
+            return true;
+        }
+    }
+
+    private final class TypeFilter implements Filter {
+
+        final String type;
+
+        TypeFilter(String type) {
+            this.type = type;
+        }
+
+        @Override
+        public int estimate() {
+            return facetIndex.countByType(type);
+        }
+
+        @Override
+        public Collection<Integer> candidates() {
+            return new ArrayList<>(facetIndex.idsByType(type));
+        }
+
+        @Override
+        public boolean test(int businessId) {
+            return facetIndex.hasType(businessId, type);
+        }
+    }
+
+    private final class RatingFilter implements Filter {
+
+        final double minRating;
+
+        RatingFilter(double minRating) {
+            this.minRating = minRating;
+        }
+
+        @Override
+        public int estimate() {
+            return facetIndex.countRatedAtLeast(minRating);
+        }
+
+        @Override
+        public Collection<Integer> candidates() {
+            return facetIndex.idsRatedAtLeast(minRating);
+        }
+
+        @Override
+        public boolean test(int businessId) {
+            return facetIndex.isRatedAtLeast(businessId, minRating);
+        }
+    }
+
+    private final class OpenFilter implements Filter {
+
+        final LocalDateTime time;
+
+        OpenFilter(LocalDateTime time) {
+            this.time = time;
+        }
+
+        @Override
+        public int estimate() {
+            return facetIndex.countOpenAt(time);
+        }
+
+        @Override
+        public Collection<Integer> candidates() {
+            return facetIndex.idsOpenAt(time);
+        }
+
+        @Override
+        public boolean test(int businessId) {
+            return facetIndex.isOpenAt(businessId, time);
+        }
+    }
+
+}
@@ -0,0 +1,314 @@
+package com.revature.search;
+
+import com.revature.events.ChangeType;
+import com.revature.events.PostEvent;
+import com.revature.exceptions.InvalidRequestException;
+import com.revature.models.Business;
+import com.revature.repos.PostRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inverted index for full-text {@link Business} search, ranked with BM25.
+ *
+ * Every Business is one document made of its name, type, location and the bodies of its most
+ * recent Posts. Name and type terms count more than the rest. The last word of a query is also
+ * matched as a prefix so results show up while the user is still typing. The index is updated
+ * from Business writes through the {@link BusinessIndexer} and from Post writes through
+ * {@link PostEvent}s.
+ */
+@Component
+public class BusinessSearchIndex implements BusinessIndex {
+
+    /**
+     * Largest number of results a single search may return
+     */
+    public static final int MAX_RESULTS = 100;
+
+    /**
+     * Number of Posts per Business whose text is searchable
+     */
+    public static final int RECENT_POSTS = 10;
+
+    /**
+     * Most terms a prefix is expanded to
+     */
+    private static final int MAX_PREFIX_EXPANSIONS = 50;
+
+    /**
+     * Number of Posts read from the database at a time while loading
+     */
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int TYPE_WEIGHT = 2;
+    private static final double PREFIX_MATCH_PENALTY = 0.8;
+
+    // standard BM25 tuning
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    /**
+     * PostRepository managed by Spring
+     */
+    private final PostRepository postRepo;
+
+    /**
+     * Term -> (Business id -> weighted term frequency)
+     */
+    private final Map<String, Map<Integer, Integer>> postings = new ConcurrentHashMap<>();
+
+    /**
+     * Every indexed term in sorted order, for prefix expansion
+     */
+    private final NavigableSet<String> terms = new ConcurrentSkipListSet<>();
+
+    /**
+     * Indexed documents by Business id
+     */
+    private final Map<Integer, Document> documents = new ConcurrentHashMap<>();
+
+    /**
+     * Sum of the lengths of every document
+     */
+    private volatile long totalLength;
+
+    /**
+     * Constructor for BusinessSearchIndex
+     * @param postRepo the PostRepository used to load Post text at startup
+     */
+    @Autowired
+    public BusinessSearchIndex(PostRepository postRepo) {
+        this.postRepo = postRepo;
+    }
+
+    @Override
+    public synchronized void rebuild(Collection<Business> businesses) {
+        postings.clear();
+        terms.clear();
+        documents.clear();
+        totalLength = 0;
+
+        Map<Integer, TreeMap<Integer, String>> posts = new HashMap<>();
+        for (Business business : businesses) {
+            posts.put(business.getId(), new TreeMap<>());
+        }
+
+        // posts come back in id order, so only the newest ones are left for each Business
+        List<Object[]> rows = postRepo.findPostTextAfter(0, PageRequest.of(0, LOAD_PAGE_SIZE));
+        while (rows != null && !rows.isEmpty()) {
+            for (Object[] row : rows) {
+                TreeMap<Integer, String> recent = posts.get((Integer) row[0]);
+                if (recent != null) {
+                    recent.put((Integer) row[1], (String) row[2]);
+                    if (recent.size() > RECENT_POSTS) {
+                        recent.pollFirstEntry();
+                    }
+                }
+            }
+            Integer last = (Integer) rows.get(rows.size() - 1)[1];
+            rows = postRepo.findPostTextAfter(last, PageRequest.of(0, LOAD_PAGE_SIZE));
+        }
+
+        for (Business business : businesses) {
+            index(business.getId(), new Document(business, posts.get(business.getId())));
+        }
+    }
+
+    @Override
+    public synchronized void put(Business business) {
+        Document previous = documents.get(business.getId());
+        TreeMap<Integer, String> posts = previous == null ? new TreeMap<>() : previous.recentPosts;
+
+        remove(business.getId());
+        index(business.getId(), new Document(business, posts));
+    }
+
+    @Override
+    public synchronized void remove(int businessId) {
+        Document document = documents.remove(businessId);
+        if (document == null) return;
+
+        for (String term : document.termFrequencies.keySet()) {
+            Map<Integer, Integer> docs = postings.get(term);
+            if (docs == null) continue;
+
+            docs.remove(businessId);
+            if (docs.isEmpty()) {
+                postings.remove(term);
+                terms.remove(term);
+            }
+        }
+        totalLength -= document.length;
+    }
+
+    /**
+     * Keeps the Post text of a document in sync with Post writes
+     * @param event the event published by the PostService
+     */
+    @EventListener
+    public synchronized void onPostEvent(PostEvent event) {
+        Document document = documents.get(event.getBusinessId());
+        if (document == null) return;
+
+        TreeMap<Integer, String> posts = new TreeMap<>(document.recentPosts);
+        if (event.getType() == ChangeType.DELETED) {
+            posts.remove(event.getPostId());
+        } else {
+            posts.put(event.getPostId(), event.getPost().getBody());
+        }
+
+        Document updated = new Document(document, posts);
+        remove(event.getBusinessId());
+        index(event.getBusinessId(), updated);
+    }
+
+    private void index(int businessId, Document document) {
+        for (Map.Entry<String, Integer> entry : document.termFrequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), term -> new ConcurrentHashMap<>())
+                    .put(businessId, entry.getValue());
+            terms.add(entry.getKey());
+        }
+        documents.put(businessId, document);
+        totalLength += document.length;
+    }
+
+    /**
+     * Searches the index and ranks the matching Businesses with BM25. Every query word must
+     * appear in a Business for it to score on that word, and the last word also matches any
+     * term it is a prefix of unless the query ends with a space.
+     * @param query the words to search for
+     * @param limit the maximum number of results
+     * @return the ids of the best matching Businesses, best first
+     */
+    public List<Integer> search(String query, int limit) {
+        if (query == null || query.trim().isEmpty()) {
+            throw new InvalidRequestException("Search query must not be empty.");
+        }
+        if (limit < 1 || limit > MAX_RESULTS) {
+            throw new InvalidRequestException("Limit must be between 1 and " + MAX_RESULTS + ".");
+        }
+
+        List<String> words = TextAnalyzer.tokenize(query);
+        int documentCount = documents.size();
+        if (words.isEmpty() || documentCount == 0) return Collections.emptyList();
+
+        boolean prefixLast = !Character.isWhitespace(query.charAt(query.length() - 1));
+        double averageLength = Math.max(1, (double) totalLength / documentCount);
+        Map<Integer, Double> scores = new HashMap<>();
+
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+            List<String> matches = (i == words.size() - 1 && prefixLast) ? expand(word) : Collections.singletonList(word);
+
+            // a word only counts once per document, by its best matching term
+            Map<Integer, Double> wordScores = new HashMap<>();
+            for (String term : matches) {
+                Map<Integer, Integer> docs = postings.get(term);
+                if (docs == null) continue;
+
+                double idf = Math.log(1 + (documentCount - docs.size() + 0.5) / (docs.size() + 0.5));
+                double weight = term.equals(word) ? 1 : PREFIX_MATCH_PENALTY;
+
+                for (Map.Entry<Integer, Integer> posting : docs.entrySet()) {
+                    Document document = documents.get(posting.getKey());
+                    if (document == null) continue;
+
+                    double tf = posting.getValue();
+                    double norm = K1 * (1 - B + B * document.length / averageLength);
+                    wordScores.merge(posting.getKey(), weight * idf * tf * (K1 + 1) / (tf + norm), Math::max);
+                }
+            }
+
+            wordScores.forEach((id, score) -> scores.merge(id, score, Double::sum));
+        }
+
+        return scores.entrySet().stream()
+                     .sorted(Map.Entry.<Integer, Double>comparingByValue().reversed()
+                             .thenComparing(Map.Entry.comparingByKey()))
+                     .limit(limit)
+                     .map(Map.Entry::getKey)
+                     .collect(Collectors.toList());
+    }
+
+    private List<String> expand(String prefix) {
+        List<String> expanded = new ArrayList<>();
+        if (postings.containsKey(prefix)) {
+            expanded.add(prefix);
+        }
+
+        for (String term : terms.tailSet(prefix, false)) {
+            if (!term.startsWith(prefix) || expanded.size() >= MAX_PREFIX_EXPANSIONS) break;
+            expanded.add(term);
+        }
+
+        return expanded;
+    }
+
+    /**
+     * The searchable text of one Business and its weighted term frequencies
+     */
+    private static final class Document {
+
+        final String businessName;
+        final String businessType;
+        final String location;
+        final TreeMap<Integer, String> recentPosts;
+        final Map<String, Integer> termFrequencies = new HashMap<>();
+        int length;
+
+        Document(Business business, TreeMap<Integer, String> recentPosts) {
+            this(business.getBusinessName(), business.getBusinessType(), business.getLocation(), recentPosts);
+        }
+
+        Document(Document fields, TreeMap<Integer, String> recentPosts) {
+            this(fields.businessName, fields.businessType, fields.location, recentPosts);
+        }
+
+        private Document(String businessName, String businessType, String location, TreeMap<Integer, String> recentPosts) {
+            this.businessName = businessName;
+            this.businessType = businessType;
+            this.location = location;
+            this.recentPosts = recentPosts;
+            trimPosts();
+            analyze();
+        }
+
+        private void trimPosts() {
+            while (recentPosts.size() > RECENT_POSTS) {
+                recentPosts.pollFirstEntry();
+            }
+        }
+
+        private void analyze() {
+            addTerms(businessName, NAME_WEIGHT);
+            addTerms(businessType, TYPE_WEIGHT);
+            addTerms(location, 1);
+            for (String body : recentPosts.values()) {
+                addTerms(body, 1);
+            }
+        }
+
+        private void addTerms(String text, int weight) {
+            for (String term : TextAnalyzer.tokenize(text)) {
+                termFrequencies.merge(term, weight, Integer::sum);
+                length += weight;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,331 @@
+package com.revature.search;
+
+import com.revature.dtos.BusinessPin;
+import com.revature.exceptions.InvalidRequestException;
+import com.revature.models.Business;
+import com.revature.util.GeoHash;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory R-tree of {@link Business} locations used to answer map viewport (bounding box)
+ * queries without touching the database.
+ *
+ * The tree is bulk loaded with Sort-Tile-Recursive packing and is immutable once built, so
+ * readers never lock. Writes go to a small overlay of changed ids that every query also
+ * checks; once the overlay grows past a fraction of the catalogue the tree is repacked.
+ */
+@Component
+public class BusinessSpatialIndex implements BusinessIndex {
+
+    /**
+     * Largest number of pins a single viewport query may return
+     */
+    public static final int MAX_RESULTS = 5000;
+
+    /**
+     * Maximum number of children of a tree node
+     */
+    private static final int NODE_CAPACITY = 16;
+
+    /**
+     * Smallest overlay that will trigger a repack of the tree
+     */
+    private static final int MIN_REPACK_THRESHOLD = 64;
+
+    /**
+     * The latest pin for every indexed Business, by id
+     */
+    private final Map<Integer, BusinessPin> pins = new ConcurrentHashMap<>();
+
+    /**
+     * Ids of the Businesses that were written since the tree was last packed
+     */
+    private final Set<Integer> changed = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Root of the packed tree, or null if the tree is empty
+     */
+    private volatile Node root;
+
+    @Override
+    public synchronized void rebuild(Collection<Business> businesses) {
+        pins.clear();
+        for (Business business : businesses) {
+            BusinessPin pin = new BusinessPin(business);
+            if (pin.isMappable()) {
+                pins.put(pin.getId(), pin);
+            }
+        }
+        repack();
+    }
+
+    @Override
+    public synchronized void put(Business business) {
+        BusinessPin pin = new BusinessPin(business);
+        changed.add(pin.getId());
+        if (pin.isMappable()) {
+            pins.put(pin.getId(), pin);
+        } else {
+            pins.remove(pin.getId());
+        }
+        repackIfNeeded();
+    }
+
+    @Override
+    public synchronized void remove(int businessId) {
+        changed.add(businessId);
+        pins.remove(businessId);
+        repackIfNeeded();
+    }
+
+    /**
+     * Gets the pin for a single Business
+     * @param businessId the id of the Business
+     * @return the pin, or null if the Business is not indexed or has no coordinates
+     */
+    public BusinessPin getPin(int businessId) {
+        return pins.get(businessId);
+    }
+
+    /**
+     * Gets the number of Businesses with coordinates in the index
+     * @return the number of pins
+     */
+    public int size() {
+        return pins.size();
+    }
+
+    /**
+     * Gets every pin inside of a bounding box. A box whose minLon is greater than its maxLon
+     * is treated as crossing the antimeridian.
+     * @param minLat the southern edge of the box
+     * @param minLon the western edge of the box
+     * @param maxLat the northern edge of the box
+     * @param maxLon the eastern edge of the box
+     * @param limit the maximum number of pins to return
+     * @return a List of BusinessPin objects inside the box
+     */
+    public List<BusinessPin> findInBox(double minLat, double minLon, double maxLat, double maxLon, int limit) {
+        if (!GeoHash.isValid(minLat, minLon) || !GeoHash.isValid(maxLat, maxLon) || minLat > maxLat) {
+            throw new InvalidRequestException("Bounding box is invalid.");
+        }
+        if (limit < 1 || limit > MAX_RESULTS) {
+            throw new InvalidRequestException("Limit must be between 1 and " + MAX_RESULTS + ".");
+        }
+
+        return collect(minLat, minLon, maxLat, maxLon, limit);
+    }
+
+    /**
+     * Gets every pin inside of a bounding box, however many there are. This is for callers that
+     * filter the pins further, such as the {@link BusinessQueryPlanner}, and must not be used to
+     * answer a viewport directly.
+     * @param minLat the southern edge of the box
+     * @param minLon the western edge of the box
+     * @param maxLat the northern edge of the box
+     * @param maxLon the eastern edge of the box
+     * @return a List of BusinessPin objects inside the box
+     */
+    public List<BusinessPin> findAllInBox(double minLat, double minLon, double maxLat, double maxLon) {
+        if (!GeoHash.isValid(minLat, minLon) || !GeoHash.isValid(maxLat, maxLon) || minLat > maxLat) {
+            throw new InvalidRequestException("Bounding box is invalid.");
+        }
+
+        return collect(minLat, minLon, maxLat, maxLon, Integer.MAX_VALUE);
+    }
+
+    private List<BusinessPin> collect(double minLat, double minLon, double maxLat, double maxLon, int limit) {
+        Map<Integer, BusinessPin> found = new LinkedHashMap<>();
+        if (minLon <= maxLon) {
+            collect(minLat, minLon, maxLat, maxLon, limit, found);
+        } else {
+            collect(minLat, minLon, maxLat, 180, limit, found);
+            collect(minLat, -180, maxLat, maxLon, limit, found);
+        }
+
+        return new ArrayList<>(found.values());
+    }
+
+    /**
+     * Estimates the number of pins inside of a bounding box without visiting them. Subtrees that
+     * are entirely inside the box are counted from their sizes, and pins written since the tree
+     * was last packed are all counted, so the result may be slightly high.
+     * @param minLat the southern edge of the box
+     * @param minLon the western edge of the box
+     * @param maxLat the northern edge of the box
+     * @param maxLon the eastern edge of the box
+     * @return the estimated number of pins inside the box
+     */
+    public int estimateInBox(double minLat, double minLon, double maxLat, double maxLon) {
+        Node snapshot = root;
+        int estimate = changed.size();
+        if (snapshot == null) return estimate;
+
+        if (minLon <= maxLon) {
+            return estimate + count(snapshot, minLat, minLon, maxLat, maxLon);
+        }
+        return estimate + count(snapshot, minLat, minLon, maxLat, 180) + count(snapshot, minLat, -180, maxLat, maxLon);
+    }
+
+    private static int count(Node node, double minLat, double minLon, double maxLat, double maxLon) {
+        if (!node.intersects(minLat, minLon, maxLat, maxLon)) return 0;
+        if (node.within(minLat, minLon, maxLat, maxLon)) return node.size;
+
+        int count = 0;
+        for (Node child : node.children) {
+            count += count(child, minLat, minLon, maxLat, maxLon);
+        }
+        return count;
+    }
+
+    private void collect(double minLat, double minLon, double maxLat, double maxLon, int limit,
+                         Map<Integer, BusinessPin> found) {
+        Node snapshot = root;
+        if (snapshot != null) {
+            search(snapshot, minLat, minLon, maxLat, maxLon, limit, found);
+        }
+
+        // ids written since the last repack may be missing from the tree or in the wrong place
+        for (Integer id : changed) {
+            if (found.size() >= limit) return;
+            addIfInside(pins.get(id), minLat, minLon, maxLat, maxLon, found);
+        }
+    }
+
+    private void search(Node node, double minLat, double minLon, double maxLat, double maxLon, int limit,
+                        Map<Integer, BusinessPin> found) {
+        if (found.size() >= limit || !node.intersects(minLat, minLon, maxLat, maxLon)) return;
+
+        if (node.children == null) {
+            // the tree may be older than the pin, so always check the latest coordinates
+            addIfInside(pins.get(node.businessId), minLat, minLon, maxLat, maxLon, found);
+            return;
+        }
+
+        for (Node child : node.children) {
+            search(child, minLat, minLon, maxLat, maxLon, limit, found);
+        }
+    }
+
+    private void addIfInside(BusinessPin pin, double minLat, double minLon, double maxLat, double maxLon,
+                             Map<Integer, BusinessPin> found) {
+        if (pin == null) return;
+
+        if (pin.getLatitude() >= minLat && pin.getLatitude() <= maxLat
+                && pin.getLongitude() >= minLon && pin.getLongitude() <= maxLon) {
+            found.putIfAbsent(pin.getId(), pin);
+        }
+    }
+
+    private void repackIfNeeded() {
+        if (changed.size() > Math.max(MIN_REPACK_THRESHOLD, pins.size() / 8)) {
+            repack();
+        }
+    }
+
+    /**
+     * Builds a new tree from the current pins with Sort-Tile-Recursive packing
+     */
+    private void repack() {
+        List<Node> level = new ArrayList<>(pins.size());
+        for (BusinessPin pin : pins.values()) {
+            level.add(new Node(pin));
+        }
+
+        while (level.size() > 1) {
+            level = packLevel(level);
+        }
+
+        root = level.isEmpty() ? null : level.get(0);
+        changed.clear();
+    }
+
+    private static List<Node> packLevel(List<Node> nodes) {
+        int parentCount = (nodes.size() + NODE_CAPACITY - 1) / NODE_CAPACITY;
+        int sliceCount = (int) Math.ceil(Math.sqrt(parentCount));
+        int sliceSize = sliceCount * NODE_CAPACITY;
+
+        nodes.sort(Comparator.comparingDouble(Node::centerLon));
+        List<Node> parents = new ArrayList<>(parentCount);
+
+        for (int sliceStart = 0; sliceStart < nodes.size(); sliceStart += sliceSize) {
+            List<Node> slice = new ArrayList<>(nodes.subList(sliceStart, Math.min(sliceStart + sliceSize, nodes.size())));
+            slice.sort(Comparator.comparingDouble(Node::centerLat));
+
+            for (int start = 0; start < slice.size(); start += NODE_CAPACITY) {
+                List<Node> children = slice.subList(start, Math.min(start + NODE_CAPACITY, slice.size()));
+                parents.add(new Node(children.toArray(new Node[0])));
+            }
+        }
+
+        return parents;
+    }
+
+    /**
+     * A node of the packed tree. Leaves hold a single Business id.
+     */
+    private static final class Node {
+
+        final double minLat, minLon, maxLat, maxLon;
+        final Node[] children;
+        final int businessId;
+        /**
+         * Number of leaves under the node
+         */
+        final int size;
+
+        Node(BusinessPin pin) {
+            this.minLat = this.maxLat = pin.getLatitude();
+            this.minLon = this.maxLon = pin.getLongitude();
+            this.children = null;
+            this.businessId = pin.getId();
+            this.size = 1;
+        }
+
+        Node(Node[] children) {
+            double south = Double.MAX_VALUE, west = Double.MAX_VALUE;
+            double north = -Double.MAX_VALUE, east = -Double.MAX_VALUE;
+            int leaves = 0;
+            for (Node child : children) {
+                leaves += child.size;
+                south = Math.min(south, child.minLat);
+                west = Math.min(west, child.minLon);
+                north = Math.max(north, child.maxLat);
+                east = Math.max(east, child.maxLon);
+            }
+            this.minLat = south;
+            this.minLon = west;
+            this.maxLat = north;
+            this.maxLon = east;
+            this.children = children;
+            this.businessId = 0;
+            this.size = leaves;
+        }
+
+        double centerLat() {
+            return (minLat + maxLat) / 2;
+        }
+
+        double centerLon() {
+            return (minLon + maxLon) / 2;
+        }
+
+        boolean intersects(double south, double west, double north, double east) {
+            return minLat <= north && maxLat >= south && minLon <= east && maxLon >= west;
+        }
+
+        boolean within(double south, double west, double north, double east) {
+            return minLat >= south && maxLat <= north && minLon >= west && maxLon <= east;
+        }
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.revature.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Turns free text into the normalized terms stored by the in-memory search indexes
+ */
+public class TextAnalyzer {
+
+    /**
+     * Longest term that is indexed; anything longer is almost certainly not a word
+     */
+    public static final int MAX_TERM_LENGTH = 40;
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+
+    private TextAnalyzer() {
+        super();
+    }
+
+    /**
+     * Lower cases text and strips accents so "Café" and "cafe" are the same term
+     * @param text the text to normalize
+     * @return the normalized text, or an empty String for null
+     */
+    public static String normalize(String text) {
+        if (text == null) return "";
+
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return ACCENTS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Splits text into normalized terms on anything that is not a letter or a digit
+     * @param text the text to split
+     * @return a List of terms in the order they appear
+     */
+    public static List<String> tokenize(String text) {
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) return Collections.emptyList();
+
+        List<String> terms = new ArrayList<>();
+        for (String term : SEPARATORS.split(normalized)) {
+            if (!term.isEmpty() && term.length() <= MAX_TERM_LENGTH) {
+                terms.add(term);
+            }
+        }
+
+        return terms;
+    }
+
+    /**
+     * Gets the Levenshtein distance between two Strings, giving up once it is over a bound.
+     * Only the diagonal band of width 2 * maxDistance + 1 is computed.
+     * @param a the first String
+     * @param b the second String
+     * @param maxDistance the largest distance of interest
+     * @return the distance, or maxDistance + 1 if it is larger than maxDistance
+     */
+    public static int editDistance(String a, String b, int maxDistance) {
+        if (Math.abs(a.length() - b.length()) > maxDistance) return maxDistance + 1;
+
+        int over = maxDistance + 1;
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j <= maxDistance ? j : over;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            int from = Math.max(1, i - maxDistance);
+            int to = Math.min(b.length(), i + maxDistance);
+            current[0] = i <= maxDistance ? i : over;
+            if (from > 1) current[from - 1] = over;
+
+            int rowMin = current[0];
+            for (int j = from; j <= to; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(previous[j - 1] + cost, Math.min(previous[j], current[j - 1]) + 1);
+                current[j] = Math.min(value, over);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (to < b.length()) current[to + 1] = over;
+            if (rowMin > maxDistance) return over;
+
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+
+        return previous[b.length()];
+    }
+
+}
@@ -0,0 +1,184 @@
+package com.revature.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revature.dtos.BusinessChange;
+import com.revature.dtos.BusinessPin;
+import com.revature.dtos.FanOutStats;
+import com.revature.dtos.Viewport;
+import com.revature.events.ChangeType;
+import com.revature.events.HoursEvent;
+import com.revature.events.PostEvent;
+import com.revature.events.ReviewEvent;
+import com.revature.search.BusinessSpatialIndex;
+import com.revature.util.FanOutHub;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.TextMessage;
+
+import javax.annotation.PreDestroy;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service class that pushes writes to the Posts, Reviews and Hours of the Businesses in a
+ * client's map viewport over a WebSocket. See {@link com.revature.web.sockets.BusinessChangeSocketHandler}.
+ *
+ * Each change is serialized once, on the writing thread, and only if someone is watching its
+ * Business; delivery to the clients happens on the sender threads, through a {@link FanOutHub}
+ * that drops the oldest changes of a client that falls behind and disconnects a client whose
+ * send stalls past the send timeout.
+ */
+@Service
+public class BusinessChangeService {
+
+    /**
+     * Most Businesses followed for one viewport; a larger viewport follows the first ones found
+     */
+    public static final int MAX_BUSINESSES = 1000;
+
+    private final BusinessSpatialIndex spatialIndex;
+    private final ObjectMapper mapper;
+    private final FanOutHub<Integer, TextMessage> hub;
+
+    /**
+     * Sends the changes to the clients
+     */
+    private final ThreadPoolExecutor senders;
+
+    /**
+     * Drops the connections of the clients whose sends stall
+     */
+    private final ExecutorService aborts;
+
+    /**
+     * Constructor for BusinessChangeService
+     * @param spatialIndex the in-memory index of Business locations
+     * @param mapper the ObjectMapper used for responses
+     * @param queueSize the most changes waiting for each client before the oldest are dropped
+     * @param senderThreads the number of threads sending changes
+     * @param sendTimeoutMs the longest time in milliseconds a send to a client may hold a sender thread
+     */
+    @Autowired
+    public BusinessChangeService(BusinessSpatialIndex spatialIndex, ObjectMapper mapper,
+                                 @Value("${businesses.socket.queue-size:256}") int queueSize,
+                                 @Value("${businesses.socket.sender-threads:2}") int senderThreads,
+                                 @Value("${businesses.socket.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.spatialIndex = spatialIndex;
+        this.mapper = mapper;
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "business-socket-sender");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.senders.allowCoreThreadTimeOut(true);
+        this.aborts = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "business-socket-abort");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.hub = new FanOutHub<>("businesses.socket", queueSize, sendTimeoutMs, senders, aborts);
+    }
+
+    /**
+     * Opens a subscription that follows no Business until a viewport is set
+     * @param sink sends the changes to the client
+     * @param disconnect drops the client when a send to it stalls
+     * @return the Subscription, to be closed when the client disconnects
+     */
+    public FanOutHub<Integer, TextMessage>.Subscription subscribe(FanOutHub.Sink<TextMessage> sink, Runnable disconnect) {
+        return hub.subscribe(new LinkedHashSet<>(), sink, disconnect);
+    }
+
+    /**
+     * Follows the Businesses inside of a viewport instead of the ones followed before
+     * @param subscription the Subscription of the client
+     * @param viewport the viewport of the client
+     * @return the number of Businesses followed
+     */
+    public int setViewport(FanOutHub<Integer, TextMessage>.Subscription subscription, Viewport viewport) {
+        Set<Integer> ids = new LinkedHashSet<>();
+        for (BusinessPin pin : spatialIndex.findInBox(viewport.getMinLat(), viewport.getMinLon(),
+                viewport.getMaxLat(), viewport.getMaxLon(), MAX_BUSINESSES)) {
+            ids.add(pin.getId());
+        }
+        subscription.setKeys(ids);
+        return ids.size();
+    }
+
+    /**
+     * Gets the counters of the sockets
+     * @return the FanOutStats
+     */
+    public FanOutStats getStats() {
+        return hub.getStats();
+    }
+
+    /**
+     * Pushes a written Post to the clients watching its Business
+     * @param event the event published by the PostService
+     */
+    @EventListener
+    public void onPostEvent(PostEvent event) {
+        publish("post", event.getType(), event.getBusinessId(), event.getPost());
+    }
+
+    /**
+     * Pushes a written Review to the clients watching its Business
+     * @param event the event published by the ReviewsService
+     */
+    @EventListener
+    public void onReviewEvent(ReviewEvent event) {
+        publish("review", event.getType(), event.getBusinessId(), event.getReview());
+    }
+
+    /**
+     * Pushes written Hours to the clients watching their Business
+     * @param event the event published by the HoursService
+     */
+    @EventListener
+    public void onHoursEvent(HoursEvent event) {
+        publish("hours", event.getType(), event.getBusinessId(), event.getHours());
+    }
+
+    /**
+     * Disconnects the clients whose current send has run past the send timeout
+     */
+    @Scheduled(fixedDelayString = "${businesses.socket.stall-check-ms:1000}")
+    public void closeStalled() {
+        hub.closeStalled();
+    }
+
+    /**
+     * Closes every subscription and stops the sender threads
+     */
+    @PreDestroy
+    public void shutdown() {
+        hub.closeAll();
+        senders.shutdownNow();
+        aborts.shutdownNow();
+    }
+
+    private void publish(String kind, ChangeType type, int businessId, Object data) {
+        if (!hub.hasSubscribers(businessId)) return;
+
+        String json;
+        try {
+            json = mapper.writeValueAsString(new BusinessChange(kind, type.name().toLowerCase(), businessId, data));
+        } catch (JsonProcessingException e) {
+            // the write itself succeeded; a change that can't be rendered is not pushed
+            return;
+        }
+        hub.publish(businessId, new TextMessage(json));
+    }
+
+}
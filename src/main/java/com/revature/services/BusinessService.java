@@ -1,15 +1,41 @@
 package com.revature.services;
 
+import com.revature.dtos.BusinessBatch;
+import com.revature.dtos.BusinessPin;
+import com.revature.dtos.CacheStats;
+import com.revature.dtos.KeysetPage;
+import com.revature.events.BusinessEvent;
+import com.revature.events.ChangeType;
 import com.revature.exceptions.InvalidRequestException;
 import com.revature.exceptions.ResourceNotFoundException;
 import com.revature.exceptions.ResourcePersistenceException;
 import com.revature.models.*;
 import com.revature.repos.BusinessRepository;
+import com.revature.util.GeoHash;
+import com.revature.util.LookupCache;
+import com.revature.util.SingleFlight;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.revature.util.VersionUtil.fillVersion;
 
 /**
  * Service class that handles data validation for Businesses and uses a BusinessRepository
@@ -18,23 +44,90 @@ import java.util.List;
 @Service
 public class BusinessService {
 
+    /**
+     * Largest radius, in meters, that a "near me" search may cover
+     */
+    public static final double MAX_NEAR_RADIUS_METERS = 50_000;
+
+    /**
+     * Largest number of Businesses that a "near me" search may return
+     */
+    public static final int MAX_NEAR_RESULTS = 200;
+
+    /**
+     * Largest page of Businesses that may be requested at once
+     */
+    public static final int MAX_PAGE_SIZE = 200;
+
+    /**
+     * Largest page of map pins that may be requested at once
+     */
+    public static final int MAX_PIN_PAGE_SIZE = 5000;
+
+    /**
+     * Largest number of Businesses kept in each lookup cache
+     */
+    public static final int CACHE_SIZE = 1000;
+
+    /**
+     * How long a cached Business is served before it is read again
+     */
+    public static final long CACHE_TTL_SECONDS = 60;
+
+    /**
+     * How long a lookup that found no Business is remembered
+     */
+    public static final long NEGATIVE_CACHE_TTL_SECONDS = 5;
+
     /**
      * BusinessRepository managed by Spring
      */
     private BusinessRepository businessRepo;
 
+    /**
+     * Detached copies of Businesses by id, without their Reviews, Hours and Posts
+     */
+    private final LookupCache<Integer, Business> businessesById = new LookupCache<>("business.byId",
+            CACHE_SIZE, CACHE_TTL_SECONDS, NEGATIVE_CACHE_TTL_SECONDS, TimeUnit.SECONDS);
+
+    /**
+     * Shares one database read between concurrent cache misses for the same id
+     */
+    private final SingleFlight<Integer, Optional<Business>> businessLoads =
+            new SingleFlight<>(SingleFlight.DEFAULT_MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+
+    /**
+     * Business ids by email; the Business itself comes from businessesById
+     */
+    private final LookupCache<String, Integer> idsByEmail = new LookupCache<>("business.idByEmail",
+            CACHE_SIZE, CACHE_TTL_SECONDS, NEGATIVE_CACHE_TTL_SECONDS, TimeUnit.SECONDS);
+
+    /**
+     * Business ids by name; the Business itself comes from businessesById
+     */
+    private final LookupCache<String, Integer> idsByName = new LookupCache<>("business.idByName",
+            CACHE_SIZE, CACHE_TTL_SECONDS, NEGATIVE_CACHE_TTL_SECONDS, TimeUnit.SECONDS);
+
+    /**
+     * Publishes a {@link BusinessEvent} after every write
+     */
+    private ApplicationEventPublisher publisher;
+
     /**
      * Constructor for the BusinessService class
      * @param repo the BusinessRepository
+     * @param publisher the ApplicationEventPublisher
      */
     @Autowired
-    public BusinessService(BusinessRepository repo) {
+    public BusinessService(BusinessRepository repo, ApplicationEventPublisher publisher) {
         super();
         this.businessRepo = repo;
+        this.publisher = publisher;
     }
 
     /**
-     * Gets a singular Business by the id
+     * Gets a singular Business by the id. The Business is a cached copy without its Reviews,
+     * Hours or Posts, which are read through their own endpoints.
      * @param id the id of the Business to find
      * @return the Business object with the given id
      */
@@ -43,7 +136,35 @@ public class BusinessService {
             throw new InvalidRequestException();
         }
 
-        return businessRepo.findById(id).orElseThrow(ResourceNotFoundException::new);
+        return businessesById.get(id, this::loadBusiness).orElseThrow(ResourceNotFoundException::new);
+    }
+
+    /**
+     * Checks if a Business exists, without loading it
+     * @param id the id of the Business
+     * @return true if there is a Business with the given id
+     */
+    public boolean existsById(int id) {
+        return id > 0 && businessRepo.existsById(id);
+    }
+
+    /**
+     * Reads a Business with its Reviews, Hours and Posts, for the responses that embed them. The
+     * read is not cached here; the callers cache the responses built from it.
+     * @param id the id of the Business to find
+     * @return a copy of the Business with its collections loaded
+     */
+    public Business getBusinessWithCollections(int id) {
+        if (id < 1) {
+            throw new InvalidRequestException();
+        }
+
+        Business business = businessRepo.findById(id).orElseThrow(ResourceNotFoundException::new);
+        Business copy = snapshot(business);
+        copy.setReviews(new ArrayList<>(business.getReviews()));
+        copy.setHours(new ArrayList<>(business.getHours()));
+        copy.setPosts(new ArrayList<>(business.getPosts()));
+        return copy;
     }
 
     /**
@@ -56,7 +177,7 @@ public class BusinessService {
             throw new InvalidRequestException();
         }
 
-        return businessRepo.findBusinessByEmail(email).orElseThrow(ResourceNotFoundException::new);
+        return getCachedBusiness(idsByEmail, email, businessRepo::findBusinessByEmail, Business::getEmail);
     }
 
     /**
@@ -69,7 +190,83 @@ public class BusinessService {
             throw new InvalidRequestException();
         }
 
-        return businessRepo.findBusinessByBusinessName(businessName).orElseThrow(ResourceNotFoundException::new);
+        return getCachedBusiness(idsByName, businessName, businessRepo::findBusinessByBusinessName, Business::getBusinessName);
+    }
+
+    /**
+     * Looks a Business up through a cache of ids by a unique field
+     * @param ids the cache of ids by the field
+     * @param key the value of the field
+     * @param finder finds a Business by the field in the database
+     * @param field gets the field from a Business
+     * @return the Business with the given field
+     */
+    private Business getCachedBusiness(LookupCache<String, Integer> ids, String key,
+                                       Function<String, Optional<Business>> finder, Function<Business, String> field) {
+        Business[] loaded = new Business[1];
+        Optional<Integer> id = ids.get(key, k -> finder.apply(k).map(business -> {
+            loaded[0] = business;
+            return business.getId();
+        }));
+
+        if (loaded[0] != null) return snapshot(loaded[0]);
+        if (!id.isPresent()) throw new ResourceNotFoundException();
+
+        Optional<Business> business = businessesById.get(id.get(), this::loadBusiness);
+        if (business.isPresent() && key.equals(field.apply(business.get()))) {
+            return business.get();
+        }
+
+        // the Business was renamed or deleted since the id was cached
+        ids.invalidate(key);
+        return finder.apply(key).map(BusinessService::snapshot).orElseThrow(ResourceNotFoundException::new);
+    }
+
+    /**
+     * Reads a Business for the cache. Concurrent reads of the same id share one query.
+     */
+    private Optional<Business> loadBusiness(Integer id) {
+        return businessLoads.run(id, () -> businessRepo.findById(id).map(BusinessService::snapshot));
+    }
+
+    /**
+     * Copies the columns of a Business and its owner, leaving out the Reviews, Hours and Posts,
+     * so the copy can be cached and shared between threads without touching the session that
+     * read it
+     */
+    private static Business snapshot(Business business) {
+        Business copy = new Business();
+        BeanUtils.copyProperties(business, copy, "owner", "reviews", "hours", "posts");
+        if (business.getOwner() != null) {
+            User owner = new User();
+            BeanUtils.copyProperties(business.getOwner(), owner, "favorites");
+            copy.setOwner(owner);
+        }
+        return copy;
+    }
+
+    /**
+     * Removes a Business from the lookup caches
+     * @param business the Business that was written
+     */
+    private void evict(Business business) {
+        if (business.getId() != null) {
+            businessesById.invalidate(business.getId());
+        }
+        if (business.getEmail() != null) {
+            idsByEmail.invalidate(business.getEmail());
+        }
+        if (business.getBusinessName() != null) {
+            idsByName.invalidate(business.getBusinessName());
+        }
+    }
+
+    /**
+     * Gets the hit and miss counts of the Business lookup caches
+     * @return a List of CacheStats
+     */
+    public List<CacheStats> getCacheStats() {
+        return Arrays.asList(businessesById.getStats(), idsByEmail.getStats(), idsByName.getStats());
     }
 
     /**
@@ -112,20 +309,149 @@ public class BusinessService {
     }
 
     /**
-     * Gets all Businesses
-     * @return a List of Business objects
+     * Gets the Businesses within a radius of a point, closest first. Only the geohash cells
+     * covering the circle are read from the database.
+     * @param lat the latitude of the center of the search
+     * @param lon the longitude of the center of the search
+     * @param radiusMeters the radius of the search in meters
+     * @param limit the maximum number of Businesses to return
+     * @return a List of Business objects sorted by distance from the point
      */
-    public List<Business> getAllBusinesses() {
+    public List<Business> getBusinessesNear(double lat, double lon, double radiusMeters, int limit) {
+        if (!GeoHash.isValid(lat, lon)) {
+            throw new InvalidRequestException("Coordinates are out of range.");
+        }
+        if (radiusMeters <= 0 || radiusMeters > MAX_NEAR_RADIUS_METERS) {
+            throw new InvalidRequestException("Radius must be between 0 and " + MAX_NEAR_RADIUS_METERS + " meters.");
+        }
+        if (limit < 1 || limit > MAX_NEAR_RESULTS) {
+            throw new InvalidRequestException("Limit must be between 1 and " + MAX_NEAR_RESULTS + ".");
+        }
 
-        List<Business> businesses;
+        // only the ids and coordinates are read per cell; the Businesses themselves are loaded
+        // in one query once the closest ones are known
+        Map<Integer, Double> distances = new HashMap<>();
+        for (String cell : GeoHash.coveringCells(lat, lon, radiusMeters)) {
+            for (Object[] row : businessRepo.findCoordinatesByGeohashStartingWith(cell)) {
+                if (row[1] == null || row[2] == null) continue;
+
+                double distance = GeoHash.distanceMeters(lat, lon, (Double) row[1], (Double) row[2]);
+                if (distance <= radiusMeters) {
+                    distances.put((Integer) row[0], distance);
+                }
+            }
+        }
 
-        businesses = (List<Business>) businessRepo.findAll();
+        List<Integer> closest = distances.entrySet().stream()
+                                         .sorted(Map.Entry.comparingByValue())
+                                         .limit(limit)
+                                         .map(Map.Entry::getKey)
+                                         .collect(Collectors.toList());
+        return getBusinessesByIds(closest);
+    }
 
-        if (businesses.isEmpty()) {
-            throw new ResourceNotFoundException();
+    /**
+     * Gets the Businesses with the given ids in a single query, in the same order as the ids.
+     * Ids that don't match a Business are skipped.
+     * @param ids the ids of the Businesses to find
+     * @return a List of Business objects in the order of the ids
+     */
+    public List<Business> getBusinessesByIds(List<Integer> ids) {
+        if (ids == null) {
+            throw new InvalidRequestException();
+        }
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
         }
 
-        return businesses;
+        Map<Integer, Business> found = findBusinessesByIds(ids);
+        return ids.stream()
+                  .map(found::get)
+                  .filter(Objects::nonNull)
+                  .collect(Collectors.toList());
+    }
+
+    /**
+     * Gets the Businesses with the given ids in a single query, in the same order as the ids,
+     * and reports the ids that don't match a Business instead of failing. Repeated ids are only
+     * returned once.
+     * @param ids the ids of the Businesses to find
+     * @return a BusinessBatch of the Businesses found and the ids that were missing
+     */
+    public BusinessBatch getBusinessBatch(List<Integer> ids) {
+        if (ids == null || ids.contains(null)) {
+            throw new InvalidRequestException();
+        }
+        Set<Integer> distinct = new LinkedHashSet<>(ids);
+        if (distinct.size() > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("At most " + MAX_PAGE_SIZE + " Businesses may be requested at once.");
+        }
+
+        Map<Integer, Business> found = distinct.isEmpty() ? new HashMap<>() : findBusinessesByIds(distinct);
+        List<Business> businesses = new ArrayList<>(found.size());
+        List<Integer> missingIds = new ArrayList<>();
+        for (Integer id : distinct) {
+            Business business = found.get(id);
+            if (business != null) {
+                businesses.add(business);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new BusinessBatch(businesses, missingIds);
+    }
+
+    private Map<Integer, Business> findBusinessesByIds(Collection<Integer> ids) {
+        Map<Integer, Business> found = new HashMap<>();
+        for (Business business : businessRepo.findBusinessesByIdIn(ids)) {
+            found.put(business.getId(), business);
+        }
+        return found;
+    }
+
+    /**
+     * Gets one page of all Businesses in id order
+     * @param after the id of the last Business on the previous page, or 0 for the first page
+     * @param limit the maximum number of Businesses on the page
+     * @return a KeysetPage of Business objects with the cursor of the next page, which is empty
+     * without a cursor past the last Business
+     */
+    public KeysetPage<Business> getAllBusinesses(int after, int limit) {
+        if (after < 0 || limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("Page cursor must not be negative and limit must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+
+        // ask for one extra row to find out if there is another page
+        List<Business> businesses = businessRepo.findBusinessesByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, limit + 1));
+
+        if (businesses.size() <= limit) {
+            return new KeysetPage<>(businesses, null);
+        }
+
+        List<Business> page = businesses.subList(0, limit);
+        return new KeysetPage<>(page, String.valueOf(page.get(limit - 1).getId()));
+    }
+
+    /**
+     * Gets one page of map pins for all Businesses in id order. Each page is a single query that
+     * never loads the Business entities or their collections.
+     * @param after the id of the last pin on the previous page, or 0 for the first page
+     * @param limit the maximum number of pins on the page
+     * @return a KeysetPage of BusinessPin objects with the cursor of the next page
+     */
+    public KeysetPage<BusinessPin> getBusinessPins(int after, int limit) {
+        if (after < 0 || limit < 1 || limit > MAX_PIN_PAGE_SIZE) {
+            throw new InvalidRequestException("Page cursor must not be negative and limit must be between 1 and " + MAX_PIN_PAGE_SIZE + ".");
+        }
+
+        List<BusinessPin> pins = businessRepo.findBusinessPins(after, PageRequest.of(0, limit + 1));
+
+        if (pins.size() <= limit) {
+            return new KeysetPage<>(pins, null);
+        }
+
+        List<BusinessPin> page = pins.subList(0, limit);
+        return new KeysetPage<>(page, String.valueOf(page.get(limit - 1).getId()));
     }
 
     /**
@@ -140,7 +466,13 @@ public class BusinessService {
             throw new ResourcePersistenceException("Business is already in use!");
         }
 
-        businessRepo.save(business);
+        // a new Business never keeps an id or version it was sent with, or save would merge it
+        // into an existing row instead of inserting it
+        business.setId(null);
+        business.setVersion(null);
+        Business saved = businessRepo.save(business);
+        evict(saved);
+        publishChange(ChangeType.CREATED, saved);
     }
 
     /**
@@ -173,6 +505,8 @@ public class BusinessService {
         }
 
         businessRepo.deleteById(id);
+        businessesById.invalidate(id);
+        publisher.publishEvent(new BusinessEvent(ChangeType.DELETED, id));
     }
 
     /**
@@ -184,7 +518,21 @@ public class BusinessService {
             throw new InvalidRequestException("Business object is invalid.");
         }
 
+        fillVersion(business.getId(), business.getVersion(), businessRepo::findVersionById, business::setVersion);
         businessRepo.save(business);
+        evict(business);
+        publishChange(ChangeType.UPDATED, business);
+    }
+
+    /**
+     * Publishes a {@link BusinessEvent} for a saved Business
+     * @param type the kind of write
+     * @param business the Business that was saved
+     */
+    private void publishChange(ChangeType type, Business business) {
+        if (business.getId() != null) {
+            publisher.publishEvent(new BusinessEvent(type, business));
+        }
     }
 
     /**
@@ -0,0 +1,83 @@
+package com.revature.services;
+
+import com.revature.dtos.CacheStats;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Service class that gathers the hit and miss counts of the application caches and of the
+ * Hibernate second level cache regions
+ */
+@Service
+public class CacheStatsService {
+
+    /**
+     * Prefix of the names reported for Hibernate cache regions
+     */
+    public static final String HIBERNATE_REGION_PREFIX = "hibernate.";
+
+    /**
+     * The BusinessService that owns the Business lookup caches
+     */
+    private BusinessService bizService;
+
+    /**
+     * The ResponseCacheService that keeps serialized responses
+     */
+    private ResponseCacheService responseCache;
+
+    /**
+     * The Hibernate Statistics of the persistence unit
+     */
+    private Statistics statistics;
+
+    /**
+     * Constructor for CacheStatsService
+     * @param bizService the BusinessService
+     * @param responseCache the ResponseCacheService
+     * @param emf the EntityManagerFactory of the persistence unit
+     */
+    @Autowired
+    public CacheStatsService(BusinessService bizService, ResponseCacheService responseCache,
+                             EntityManagerFactory emf) {
+        this.bizService = bizService;
+        this.responseCache = responseCache;
+        this.statistics = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Gets the hit and miss counts of every cache. Hibernate doesn't count evictions, so they are
+     * reported as 0 for its regions, and the size is -1 when the region can't report it.
+     * @return a List of CacheStats, the application caches first
+     */
+    public List<CacheStats> getCacheStats() {
+        List<CacheStats> stats = new ArrayList<>(bizService.getCacheStats());
+        stats.add(responseCache.getStats());
+
+        // query result regions are not listed with the entity and collection regions
+        Set<String> regions = new TreeSet<>(Arrays.asList(statistics.getSecondLevelCacheRegionNames()));
+        regions.add(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+        for (String region : regions) {
+            CacheRegionStatistics regionStats = statistics.getCacheRegionStatistics(region);
+            if (regionStats == null) continue;
+
+            long size = regionStats.getElementCountInMemory();
+            stats.add(new CacheStats(HIBERNATE_REGION_PREFIX + region, size < 0 ? -1 : size,
+                    regionStats.getHitCount(), regionStats.getMissCount(), 0));
+        }
+
+        return stats;
+    }
+
+}
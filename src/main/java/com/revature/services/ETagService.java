@@ -0,0 +1,99 @@
+package com.revature.services;
+
+import com.revature.dtos.CollectionVersion;
+import com.revature.models.Business;
+import com.revature.models.Hours;
+import com.revature.models.Post;
+import com.revature.models.Review;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Service class that derives ETags for a Business and its Posts, Reviews and Hours from the
+ * version columns of the rows that were loaded for the response, so the ETag always matches the
+ * body it is sent with and costs no query of its own.
+ *
+ * The ETags are weak: the same data is sent as JSON, Smile or CBOR, gzipped or not, and every
+ * one of those bodies carries the same ETag.
+ *
+ * The ETag of a collection combines the version of the Business with a {@link CollectionVersion}
+ * of its rows. The ETag of a Business combines all of them, since its JSON embeds every
+ * collection.
+ */
+@Service
+public class ETagService {
+
+    /**
+     * Gets the ETag of a Business, including its Posts, Reviews and Hours
+     * @param business the Business, with its collections loaded
+     * @return the weak ETag
+     */
+    public String getBusinessETag(Business business) {
+        return weak("business-" + business.getId() + "-" + business.getVersion()
+                + "-" + postsVersion(business.getPosts()).toTag()
+                + "-" + reviewsVersion(business.getReviews()).toTag()
+                + "-" + hoursVersion(business.getHours()).toTag());
+    }
+
+    /**
+     * Gets the ETag of the Posts of a Business
+     * @param business the Business
+     * @param posts the Posts in the response
+     * @return the weak ETag
+     */
+    public String getPostsETag(Business business, List<Post> posts) {
+        return collectionETag("posts", business, postsVersion(posts));
+    }
+
+    /**
+     * Gets the ETag of one page of the Posts of a Business
+     * @param businessId the id of the Business
+     * @param posts the Posts on the page
+     * @return the weak ETag
+     */
+    public String getPostsPageETag(int businessId, List<Post> posts) {
+        return weak("posts-" + businessId + "-page-" + postsVersion(posts).toTag());
+    }
+
+    /**
+     * Gets the ETag of the Reviews of a Business
+     * @param business the Business
+     * @param reviews the Reviews in the response
+     * @return the weak ETag
+     */
+    public String getReviewsETag(Business business, List<Review> reviews) {
+        return collectionETag("reviews", business, reviewsVersion(reviews));
+    }
+
+    /**
+     * Gets the ETag of the Hours of a Business
+     * @param business the Business
+     * @param hours the Hours in the response
+     * @return the weak ETag
+     */
+    public String getHoursETag(Business business, List<Hours> hours) {
+        return collectionETag("hours", business, hoursVersion(hours));
+    }
+
+    private static CollectionVersion postsVersion(List<Post> posts) {
+        return CollectionVersion.of(posts, Post::getVersion, Post::getPostId);
+    }
+
+    private static CollectionVersion reviewsVersion(List<Review> reviews) {
+        return CollectionVersion.of(reviews, Review::getVersion, Review::getId);
+    }
+
+    private static CollectionVersion hoursVersion(List<Hours> hours) {
+        return CollectionVersion.of(hours, Hours::getVersion, Hours::getHoursId);
+    }
+
+    private static String collectionETag(String name, Business business, CollectionVersion rows) {
+        return weak(name + "-" + business.getId() + "-" + business.getVersion() + "-" + rows.toTag());
+    }
+
+    private static String weak(String tag) {
+        return "W/\"" + tag + "\"";
+    }
+
+}
@@ -0,0 +1,253 @@
+package com.revature.services;
+
+import com.revature.dtos.KeysetPage;
+import com.revature.dtos.TimeCursor;
+import com.revature.events.ChangeType;
+import com.revature.events.PostEvent;
+import com.revature.exceptions.InvalidRequestException;
+import com.revature.exceptions.ResourceNotFoundException;
+import com.revature.models.Post;
+import com.revature.repos.PostRepository;
+import com.revature.repos.UserRepository;
+import com.revature.util.TimelineStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service class that builds the feed of a User: the Posts of the Businesses they have favorited,
+ * newest first, ordered by creation time and then by id like the Posts of a Business.
+ *
+ * Each User that has read their feed gets a bounded timeline of the creation times and ids of
+ * Posts, loaded from the database on the first read and appended to on every new Post (fan-out on
+ * write), so reading a page only loads its Posts by id. Businesses with more followers than the fan-out limit are not
+ * fanned out to; their Posts are merged into the feed when it is read instead (fan-out on read).
+ */
+@Service
+public class FeedService {
+
+    /**
+     * Most Posts on one page of a feed
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * Order of the feed, newest first
+     */
+    private static final Comparator<TimeCursor> NEWEST_FIRST =
+            Comparator.comparing(TimeCursor::getTime).thenComparingInt(TimeCursor::getId).reversed();
+
+    private final PostRepository postRepo;
+    private final UserRepository userRepo;
+
+    private final TimelineStore<Integer, TimeCursor> timelines;
+
+    /**
+     * Most Posts kept in each timeline
+     */
+    private final int timelineSize;
+
+    /**
+     * Most followers a new Post is fanned out to
+     */
+    private final int fanOutLimit;
+
+    /**
+     * Ids of the Businesses found to have more followers than the fan-out limit
+     */
+    private final Set<Integer> celebrities = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructor for FeedService
+     * @param postRepo the PostRepository
+     * @param userRepo the UserRepository
+     * @param maxTimelines the most timelines to keep in memory
+     * @param timelineSize the most Posts to keep in each timeline
+     * @param fanOutLimit the most followers a new Post is fanned out to
+     */
+    @Autowired
+    public FeedService(PostRepository postRepo, UserRepository userRepo,
+                       @Value("${feed.max-timelines:10000}") int maxTimelines,
+                       @Value("${feed.timeline-size:200}") int timelineSize,
+                       @Value("${feed.fan-out-limit:5000}") int fanOutLimit) {
+        this.postRepo = postRepo;
+        this.userRepo = userRepo;
+        this.timelines = new TimelineStore<>(maxTimelines, timelineSize, NEWEST_FIRST);
+        this.timelineSize = timelineSize;
+        this.fanOutLimit = fanOutLimit;
+    }
+
+    /**
+     * Gets one page of the feed of a User
+     * @param userId the id of the User
+     * @param cursor the cursor of the last Post on the previous page, or null for the first page
+     * @param limit the maximum number of Posts on the page
+     * @return a KeysetPage of Posts with the cursor of the next page
+     */
+    public KeysetPage<Post> getFeed(int userId, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("Page limit must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        TimeCursor before = cursor == null ? null : TimeCursor.parse(cursor);
+
+        TimelineStore.Timeline<TimeCursor> timeline = timelines.getOrCreate(userId);
+        if (!timeline.isLoaded()) {
+            load(userId, timeline);
+        }
+
+        // ask for one extra Post to find out if there is another page, and read past any Posts
+        // that were deleted so they don't cut the page short
+        List<Post> posts = new ArrayList<>(limit + 1);
+        while (true) {
+            int wanted = limit + 1 - posts.size();
+            List<TimeCursor> keys = findKeys(userId, timeline, before, wanted);
+            posts.addAll(findPostsInOrder(keys, timeline));
+            if (posts.size() > limit || keys.size() < wanted) break;
+
+            before = keys.get(keys.size() - 1);
+        }
+
+        if (posts.size() <= limit) {
+            return new KeysetPage<>(posts, null);
+        }
+
+        List<Post> page = posts.subList(0, limit);
+        Post last = page.get(limit - 1);
+        return new KeysetPage<>(page, new TimeCursor(last.getCreatedTime(), last.getPostId()).toCursor());
+    }
+
+    /**
+     * Drops the timeline of a User, so it is loaded again with their current favorites
+     * @param userId the id of the User
+     */
+    public void onFavoritesChanged(int userId) {
+        timelines.invalidate(userId);
+    }
+
+    /**
+     * Appends a new Post to the timelines of the followers of its Business
+     * @param event the event published by the PostService
+     */
+    @EventListener
+    public void onPostEvent(PostEvent event) {
+        if (event.getType() != ChangeType.CREATED || timelines.size() == 0) return;
+        if (event.getPost().getCreatedTime() == null) return;
+
+        int businessId = event.getBusinessId();
+        if (celebrities.contains(businessId)) return;
+
+        List<Integer> followers = userRepo.findUserIdsByFavorite(businessId, PageRequest.of(0, fanOutLimit + 1));
+        if (followers.size() > fanOutLimit) {
+            celebrities.add(businessId);
+            return;
+        }
+
+        TimeCursor key = new TimeCursor(event.getPost().getCreatedTime(), event.getPostId());
+        for (Integer follower : followers) {
+            timelines.append(follower, key);
+        }
+    }
+
+    /**
+     * Loads the newest Posts of a User into their timeline
+     */
+    private void load(int userId, TimelineStore.Timeline<TimeCursor> timeline) {
+        if (!userRepo.existsById(userId)) {
+            timelines.invalidate(userId);
+            throw new ResourceNotFoundException();
+        }
+
+        List<TimeCursor> newest = toKeys(postRepo.findFeedPostKeys(userId, PageRequest.of(0, timelineSize)));
+        timeline.load(newest, newest.size() < timelineSize);
+    }
+
+    /**
+     * Gets the keys of the Posts of a feed older than a cursor, from the timeline while it has them
+     */
+    private List<TimeCursor> findKeys(int userId, TimelineStore.Timeline<TimeCursor> timeline,
+                                      TimeCursor before, int limit) {
+        List<TimeCursor> keys = timeline.before(before, limit);
+        if (keys.size() < limit && !timeline.isComplete()) {
+            // past the end of the timeline, read the older Posts straight from the database
+            PageRequest pageRequest = PageRequest.of(0, limit);
+            return toKeys(before == null
+                    ? postRepo.findFeedPostKeys(userId, pageRequest)
+                    : postRepo.findFeedPostKeysBefore(userId, before.getTime(), before.getId(), pageRequest));
+        }
+        return celebrities.isEmpty() ? keys : mergeCelebrityPosts(userId, keys, before, limit);
+    }
+
+    /**
+     * Merges the Posts of the followed Businesses that are not fanned out to into a page of keys
+     */
+    private List<TimeCursor> mergeCelebrityPosts(int userId, List<TimeCursor> keys, TimeCursor before, int limit) {
+        List<Integer> followed = userRepo.findFavoriteIdsIn(userId, new ArrayList<>(celebrities));
+        if (followed.isEmpty()) return keys;
+
+        PageRequest pageRequest = PageRequest.of(0, limit);
+        TreeSet<TimeCursor> merged = new TreeSet<>(NEWEST_FIRST);
+        merged.addAll(keys);
+        merged.addAll(toKeys(before == null
+                ? postRepo.findPostKeysByBusinessIds(followed, pageRequest)
+                : postRepo.findPostKeysByBusinessIdsBefore(followed, before.getTime(), before.getId(), pageRequest)));
+
+        List<TimeCursor> page = new ArrayList<>(limit);
+        for (TimeCursor key : merged) {
+            if (page.size() == limit) break;
+            page.add(key);
+        }
+        return page;
+    }
+
+    /**
+     * Turns rows of creation times and post ids into timeline keys
+     */
+    private static List<TimeCursor> toKeys(List<Object[]> rows) {
+        List<TimeCursor> keys = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            keys.add(new TimeCursor((Timestamp) row[0], (Integer) row[1]));
+        }
+        return keys;
+    }
+
+    /**
+     * Loads Posts in one query, in the order of their keys, skipping any that were deleted and
+     * dropping them from the timeline
+     */
+    private List<Post> findPostsInOrder(List<TimeCursor> keys, TimelineStore.Timeline<TimeCursor> timeline) {
+        if (keys.isEmpty()) return new ArrayList<>();
+
+        List<Integer> ids = new ArrayList<>(keys.size());
+        for (TimeCursor key : keys) {
+            ids.add(key.getId());
+        }
+        Map<Integer, Post> byId = new HashMap<>();
+        for (Post post : postRepo.findAllById(ids)) {
+            byId.put(post.getPostId(), post);
+        }
+
+        List<Post> posts = new ArrayList<>(keys.size());
+        for (TimeCursor key : keys) {
+            Post post = byId.get(key.getId());
+            if (post != null) {
+                posts.add(post);
+            } else {
+                timeline.remove(key);
+            }
+        }
+        return posts;
+    }
+
+}
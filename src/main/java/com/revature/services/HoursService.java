@@ -1,15 +1,20 @@
 package com.revature.services;
 
+import com.revature.events.ChangeType;
+import com.revature.events.HoursEvent;
 import com.revature.exceptions.InvalidRequestException;
 import com.revature.exceptions.ResourceNotFoundException;
 import com.revature.models.Business;
 import com.revature.models.Hours;
 import com.revature.repos.HoursRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 
+import static com.revature.util.VersionUtil.fillVersion;
+
 /**
  * Service class that handles data validation for {@link Hours} and uses a {@link HoursRepository}
  * to interact with the database
@@ -22,13 +27,20 @@ public class HoursService {
      */
     private HoursRepository repo;
 
+    /**
+     * Publishes an {@link HoursEvent} after every write
+     */
+    private ApplicationEventPublisher publisher;
+
     /**
      * Constructor for HoursService
      * @param repo the HoursRepository
+     * @param publisher the ApplicationEventPublisher
      */
     @Autowired
-    public HoursService(HoursRepository repo) {
+    public HoursService(HoursRepository repo, ApplicationEventPublisher publisher) {
         this.repo = repo;
+        this.publisher = publisher;
     }
 
     /**
@@ -61,7 +73,11 @@ public class HoursService {
         if (!isHoursValid(hours))
             throw new InvalidRequestException();
 
-        repo.save(hours);
+        // new Hours never keep an id or version they were sent with, or save would merge them
+        // into an existing row instead of inserting them
+        hours.setHoursId(null);
+        hours.setVersion(null);
+        publishChange(ChangeType.CREATED, repo.save(hours));
     }
 
     /**
@@ -72,7 +88,9 @@ public class HoursService {
         if (!isHoursValid(hours))
             throw new InvalidRequestException();
 
+        fillVersion(hours.getHoursId(), hours.getVersion(), repo::findVersionById, hours::setVersion);
         repo.save(hours);
+        publishChange(ChangeType.UPDATED, hours);
     }
 
     /**
@@ -83,7 +101,20 @@ public class HoursService {
         if (!isHoursValid(hours))
             throw new InvalidRequestException();
 
+        fillVersion(hours.getHoursId(), hours.getVersion(), repo::findVersionById, hours::setVersion);
         repo.delete(hours);
+        publishChange(ChangeType.DELETED, hours);
+    }
+
+    /**
+     * Publishes an {@link HoursEvent} for written Hours
+     * @param type the kind of write
+     * @param hours the Hours that were written
+     */
+    private void publishChange(ChangeType type, Hours hours) {
+        if (hours.getHoursId() != null && hours.getBusiness() != null && hours.getBusiness().getId() != null) {
+            publisher.publishEvent(new HoursEvent(type, hours));
+        }
     }
 
     /**
@@ -1,14 +1,28 @@
 package com.revature.services;
 
+import com.revature.dtos.KeysetPage;
+import com.revature.dtos.TimeCursor;
+import com.revature.events.ChangeType;
+import com.revature.events.PostEvent;
 import com.revature.exceptions.InvalidRequestException;
 import com.revature.models.*;
 import com.revature.repos.PostRepository;
+import com.revature.util.SingleFlight;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static com.revature.util.VersionUtil.fillVersion;
 
 /**
  * Service class that handles data validation for {@link Post} and uses a {@link PostRepository}
@@ -17,26 +31,80 @@ import java.util.Optional;
 @Service
 public class PostService {
 
+    /**
+     * Largest number of Posts returned on one page
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
     /**
      * PostRepository that is managed by Spring
      */
     private PostRepository repo;
 
+    /**
+     * Publishes a {@link PostEvent} after every write
+     */
+    private ApplicationEventPublisher publisher;
+
+    /**
+     * How long a write stays hidden from the sync: the modified time of a Post is stamped when it
+     * is flushed, not when it commits, and by the clock of whichever instance wrote it, so a
+     * write may become visible after a later stamped one has already been synced
+     */
+    private final long syncWindowMillis;
+
+    /**
+     * Shares one database read between concurrent requests for the Posts of the same Business
+     */
+    private final SingleFlight<Integer, List<Post>> postLoads =
+            new SingleFlight<>(SingleFlight.DEFAULT_MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+
     /**
      * Constructor for PostService
      * @param repo PostRepository from Spring
+     * @param publisher the ApplicationEventPublisher
+     * @param syncWindowMillis how long a write is held back from the sync
      */
     @Autowired
-    public PostService(PostRepository repo) {
+    public PostService(PostRepository repo, ApplicationEventPublisher publisher,
+                       @Value("${posts.sync-window-ms:5000}") long syncWindowMillis) {
         this.repo = repo;
+        this.publisher = publisher;
+        this.syncWindowMillis = syncWindowMillis;
     }
 
     /**
-     * Gets a List of all of the Posts
-     * @return a List of Post objects
+     * Gets the Posts created or updated after a cursor, in the order they were last written.
+     * Unlike other pages the cursor is set even on the last page, so a client can keep it and
+     * later fetch only what changed since; an empty page means the client is up to date.
+     *
+     * Posts written within the sync window are left out, and so never pass the cursor, so a
+     * write that commits late or on a lagging clock is still found by the next sync as long as
+     * it lands within the window.
+     * @param since the cursor returned by the previous call, or null to start from the oldest Post
+     * @param limit the maximum number of Posts on the page
+     * @return a KeysetPage of Post objects with the cursor to sync from next
      */
-    public List<Post> findAllPosts() {
-        return (List<Post>) repo.findAll();
+    public KeysetPage<Post> getPostsSince(String since, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("Limit must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+
+        Timestamp until = new Timestamp(System.currentTimeMillis() - syncWindowMillis);
+        List<Post> posts;
+        if (since == null) {
+            posts = repo.findFirstModifiedPosts(until, PageRequest.of(0, limit));
+        } else {
+            TimeCursor after = TimeCursor.parse(since);
+            posts = repo.findPostsModifiedAfter(after.getTime(), after.getId(), until, PageRequest.of(0, limit));
+        }
+
+        if (posts.isEmpty()) {
+            return new KeysetPage<>(posts, since);
+        }
+
+        Post last = posts.get(posts.size() - 1);
+        return new KeysetPage<>(posts, new TimeCursor(last.getModifiedTime(), last.getPostId()).toCursor());
     }
 
     /**
@@ -54,7 +122,44 @@ public class PostService {
      * @return a List of Posts from the desired Business
      */
     public List<Post> findPostsByBusiness(Business bus) {
-        return repo.findPostsByBusiness(bus);
+        if (bus.getId() == null) {
+            return repo.findPostsByBusiness(bus);
+        }
+
+        // callers get their own copy of the shared List
+        return new ArrayList<>(postLoads.run(bus.getId(), () -> repo.findPostsByBusiness(bus)));
+    }
+
+    /**
+     * Gets one page of the Posts of a Business, newest first, ordered by creation time and then
+     * by id
+     * @param businessId the id of the Business
+     * @param cursor the cursor of the last Post on the previous page, or null for the first page
+     * @param limit the maximum number of Posts on the page
+     * @return a KeysetPage of Post objects with the cursor of the next page
+     */
+    public KeysetPage<Post> getPostsByBusiness(int businessId, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("Limit must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+
+        // ask for one extra row to find out if there is another page
+        PageRequest pageRequest = PageRequest.of(0, limit + 1);
+        List<Post> posts;
+        if (cursor == null) {
+            posts = repo.findLatestPostsByBusinessId(businessId, pageRequest);
+        } else {
+            TimeCursor after = TimeCursor.parse(cursor);
+            posts = repo.findPostsByBusinessIdBefore(businessId, after.getTime(), after.getId(), pageRequest);
+        }
+
+        if (posts.size() <= limit) {
+            return new KeysetPage<>(posts, null);
+        }
+
+        List<Post> page = posts.subList(0, limit);
+        Post last = page.get(limit - 1);
+        return new KeysetPage<>(page, new TimeCursor(last.getCreatedTime(), last.getPostId()).toCursor());
     }
 
     /**
@@ -64,8 +169,16 @@ public class PostService {
     public void createPost(Post post) {
         if (!isPostValid(post))
             throw new InvalidRequestException();
-        
-        repo.save(post);
+
+        // the Posts of a Business are paged by creation time, so every Post needs one
+        if (post.getCreatedTime() == null) {
+            post.setCreatedTime(Timestamp.valueOf(LocalDateTime.now()));
+        }
+        // a new Post never keeps an id or version it was sent with, or save would merge it
+        // into an existing row instead of inserting it
+        post.setPostId(null);
+        post.setVersion(null);
+        publishChange(ChangeType.CREATED, repo.save(post));
     }
 
     /**
@@ -76,7 +189,9 @@ public class PostService {
         if (!isPostValid(post))
             throw new InvalidRequestException();
         
+        fillVersion(post.getPostId(), post.getVersion(), repo::findVersionById, post::setVersion);
         repo.save(post);
+        publishChange(ChangeType.UPDATED, post);
     }
 
     /**
@@ -87,7 +202,20 @@ public class PostService {
         if (!isPostValid(post))
             throw new InvalidRequestException();
 
+        fillVersion(post.getPostId(), post.getVersion(), repo::findVersionById, post::setVersion);
         repo.delete(post);
+        publishChange(ChangeType.DELETED, post);
+    }
+
+    /**
+     * Publishes a {@link PostEvent} for a written Post
+     * @param type the kind of write
+     * @param post the Post that was written
+     */
+    private void publishChange(ChangeType type, Post post) {
+        if (post.getPostId() != null && post.getBusiness() != null && post.getBusiness().getId() != null) {
+            publisher.publishEvent(new PostEvent(type, post));
+        }
     }
 
     /**
@@ -0,0 +1,147 @@
+package com.revature.services;
+
+import com.revature.dtos.FanOutStats;
+import com.revature.events.PostEvent;
+import com.revature.exceptions.InvalidRequestException;
+import com.revature.util.FanOutHub;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service class that pushes new, updated and deleted Posts to clients over Server-Sent Events.
+ *
+ * A client subscribes to a set of Business ids, such as its favorites, and receives an event for
+ * every write to the Posts of those Businesses. Events are named after the {@link
+ * com.revature.events.ChangeType} in lower case, carry the Post as JSON, and use the Post id as
+ * their id.
+ */
+@Service
+public class PostStreamService {
+
+    /**
+     * Most Businesses a client may subscribe to at once
+     */
+    public static final int MAX_BUSINESSES = 200;
+
+    private final FanOutHub<Integer, PostEvent> hub;
+
+    /**
+     * Sends the events to the clients
+     */
+    private final ThreadPoolExecutor senders;
+
+    /**
+     * Drops the connections of the clients whose sends stall
+     */
+    private final ExecutorService aborts;
+
+    private final long timeoutMs;
+
+    /**
+     * Constructor for PostStreamService
+     * @param timeoutMs the time in milliseconds after which a stream is closed, and the client reconnects
+     * @param queueSize the most events waiting for each client before the oldest are dropped
+     * @param senderThreads the number of threads sending events
+     * @param sendTimeoutMs the longest time in milliseconds a send to a client may hold a sender thread
+     */
+    @Autowired
+    public PostStreamService(@Value("${posts.stream.timeout-ms:1800000}") long timeoutMs,
+                             @Value("${posts.stream.queue-size:64}") int queueSize,
+                             @Value("${posts.stream.sender-threads:2}") int senderThreads,
+                             @Value("${posts.stream.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.timeoutMs = timeoutMs;
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "post-stream-sender");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.senders.allowCoreThreadTimeOut(true);
+        this.aborts = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "post-stream-abort");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.hub = new FanOutHub<>("posts.stream", queueSize, sendTimeoutMs, senders, aborts);
+    }
+
+    /**
+     * Opens a stream of the Post events of some Businesses
+     * @param businessIds the ids of the Businesses
+     * @return the SseEmitter the events are sent through
+     */
+    public SseEmitter subscribe(List<Integer> businessIds) {
+        if (businessIds == null || businessIds.isEmpty() || businessIds.contains(null)) {
+            throw new InvalidRequestException();
+        }
+        Set<Integer> ids = new LinkedHashSet<>(businessIds);
+        if (ids.size() > MAX_BUSINESSES) {
+            throw new InvalidRequestException("At most " + MAX_BUSINESSES + " Businesses may be followed at once.");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        // complete() waits for the emitter's monitor, which a stalled send holds, so the hub runs
+        // it on the abort threads rather than the scheduler
+        FanOutHub<Integer, PostEvent>.Subscription subscription = hub.subscribe(ids, event ->
+                emitter.send(SseEmitter.event()
+                                       .name(event.getType().name().toLowerCase())
+                                       .id(String.valueOf(event.getPostId()))
+                                       .data(event.getPost(), MediaType.APPLICATION_JSON)),
+                emitter::complete);
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+        return emitter;
+    }
+
+    /**
+     * Pushes a written Post to the clients following its Business
+     * @param event the event published by the PostService
+     */
+    @EventListener
+    public void onPostEvent(PostEvent event) {
+        hub.publish(event.getBusinessId(), event);
+    }
+
+    /**
+     * Gets the counters of the Post streams
+     * @return the FanOutStats
+     */
+    public FanOutStats getStats() {
+        return hub.getStats();
+    }
+
+    /**
+     * Ends the streams whose current send has run past the send timeout
+     */
+    @Scheduled(fixedDelayString = "${posts.stream.stall-check-ms:1000}")
+    public void closeStalled() {
+        hub.closeStalled();
+    }
+
+    /**
+     * Closes every stream and stops the sender threads
+     */
+    @PreDestroy
+    public void shutdown() {
+        hub.closeAll();
+        senders.shutdownNow();
+        aborts.shutdownNow();
+    }
+
+}
@@ -0,0 +1,169 @@
+package com.revature.services;
+
+import com.revature.dtos.ReadCacheStats;
+import com.revature.events.BusinessEvent;
+import com.revature.events.HoursEvent;
+import com.revature.events.PostEvent;
+import com.revature.events.ReviewEvent;
+import com.revature.util.StaleWhileRevalidateCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Service class that keeps the responses of the Business read endpoints, so they can be served
+ * stale while the database is slow. See {@link StaleWhileRevalidateCache}.
+ *
+ * Every endpoint is keyed by Business id, and writes to a Business, its Reviews, Hours or Posts
+ * drop the entries of that Business.
+ */
+@Service
+public class ReadCacheService {
+
+    /**
+     * Largest number of responses kept per endpoint
+     */
+    public static final int CACHE_SIZE = 1000;
+
+    /**
+     * Largest number of background refreshes waiting to run
+     */
+    public static final int REFRESH_QUEUE_SIZE = 100;
+
+    /**
+     * The read endpoints that can be served stale
+     */
+    public enum Endpoint {
+        BUSINESS, REVIEWS, HOURS, POSTS
+    }
+
+    private final Map<Endpoint, StaleWhileRevalidateCache<Integer, Object>> caches = new EnumMap<>(Endpoint.class);
+
+    /**
+     * Runs the background refreshes
+     */
+    private final ThreadPoolExecutor refreshExecutor;
+
+    /**
+     * Opens a read only transaction around each load, so lazy collections can be initialized
+     * on the refresh threads too
+     */
+    private final TransactionTemplate readOnly;
+
+    /**
+     * Constructor for ReadCacheService
+     * @param transactionManager the PlatformTransactionManager
+     * @param softTtlMs the age in milliseconds after which a response is refreshed in the background
+     * @param hardTtlMs the age in milliseconds after which a response is no longer served
+     * @param refreshThreads the number of threads refreshing responses
+     */
+    @Autowired
+    public ReadCacheService(PlatformTransactionManager transactionManager,
+                            @Value("${business.read-cache.soft-ttl-ms:5000}") long softTtlMs,
+                            @Value("${business.read-cache.hard-ttl-ms:300000}") long hardTtlMs,
+                            @Value("${business.read-cache.refresh-threads:2}") int refreshThreads) {
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+
+        this.refreshExecutor = new ThreadPoolExecutor(refreshThreads, refreshThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(REFRESH_QUEUE_SIZE), runnable -> {
+                    Thread thread = new Thread(runnable, "read-cache-refresh");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.refreshExecutor.allowCoreThreadTimeOut(true);
+
+        for (Endpoint endpoint : Endpoint.values()) {
+            caches.put(endpoint, new StaleWhileRevalidateCache<>(endpoint.name().toLowerCase(), CACHE_SIZE,
+                    softTtlMs, hardTtlMs, TimeUnit.MILLISECONDS, refreshExecutor));
+        }
+    }
+
+    /**
+     * Gets the response of an endpoint for a Business, serving a stale one while it is refreshed
+     * @param endpoint the endpoint
+     * @param businessId the id of the Business
+     * @param loader reads the response from the database
+     * @param <V> the type of the response
+     * @return the response
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V get(Endpoint endpoint, int businessId, Supplier<V> loader) {
+        return (V) caches.get(endpoint).get(businessId, () -> readOnly.execute(status -> loader.get()));
+    }
+
+    /**
+     * Gets the counters of every endpoint
+     * @return a List of ReadCacheStats
+     */
+    public List<ReadCacheStats> getStats() {
+        List<ReadCacheStats> stats = new ArrayList<>();
+        for (StaleWhileRevalidateCache<Integer, Object> cache : caches.values()) {
+            stats.add(cache.getStats());
+        }
+        return stats;
+    }
+
+    /**
+     * Drops every response of a written Business
+     * @param event the event published by the BusinessService
+     */
+    @EventListener
+    public void onBusinessEvent(BusinessEvent event) {
+        for (StaleWhileRevalidateCache<Integer, Object> cache : caches.values()) {
+            cache.invalidate(event.getBusinessId());
+        }
+    }
+
+    /**
+     * Drops the Posts of a Business, and the Business that embeds them
+     * @param event the event published by the PostService
+     */
+    @EventListener
+    public void onPostEvent(PostEvent event) {
+        caches.get(Endpoint.POSTS).invalidate(event.getBusinessId());
+        caches.get(Endpoint.BUSINESS).invalidate(event.getBusinessId());
+    }
+
+    /**
+     * Drops the Reviews of a Business, and the Business that embeds them
+     * @param event the event published by the ReviewsService
+     */
+    @EventListener
+    public void onReviewEvent(ReviewEvent event) {
+        caches.get(Endpoint.REVIEWS).invalidate(event.getBusinessId());
+        caches.get(Endpoint.BUSINESS).invalidate(event.getBusinessId());
+    }
+
+    /**
+     * Drops the Hours of a Business, and the Business that embeds them
+     * @param event the event published by the HoursService
+     */
+    @EventListener
+    public void onHoursEvent(HoursEvent event) {
+        caches.get(Endpoint.HOURS).invalidate(event.getBusinessId());
+        caches.get(Endpoint.BUSINESS).invalidate(event.getBusinessId());
+    }
+
+    /**
+     * Stops the refresh threads
+     */
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.revature.services;
+
+import com.revature.dtos.CacheStats;
+import com.revature.events.BusinessEvent;
+import com.revature.events.HoursEvent;
+import com.revature.events.PostEvent;
+import com.revature.events.ReviewEvent;
+import com.revature.util.ResponseBytesCache;
+import com.revature.util.ResponseBytesCache.Body;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service class that keeps the serialized JSON of hot Business resources, so repeated GETs are
+ * answered without running the controller or Jackson.
+ *
+ * Every Business has a version that each write to it, its Reviews, Hours or Posts increments.
+ * Bodies are stored with the version they were rendered from, so a write makes every body of
+ * that Business miss.
+ */
+@Service
+public class ResponseCacheService {
+
+    /**
+     * Most bytes of response bodies, plain and gzipped together, to keep
+     */
+    public static final long MAX_BYTES = 32L * 1024 * 1024;
+
+    private final ResponseBytesCache<String> bodies = new ResponseBytesCache<>("response.bytes", MAX_BYTES);
+
+    /**
+     * Current version of each Business that was ever written; absent means 0
+     */
+    private final ConcurrentHashMap<Integer, Long> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the current version of a Business
+     * @param businessId the id of the Business
+     * @return the version
+     */
+    public long getVersion(int businessId) {
+        return versions.getOrDefault(businessId, 0L);
+    }
+
+    /**
+     * Gets the cached body of a resource of a Business
+     * @param resource the path of the resource
+     * @param businessId the id of the Business it was rendered from
+     * @return the Body, or null if there is none for the current version of the Business
+     */
+    public Body get(String resource, int businessId) {
+        return bodies.get(resource, getVersion(businessId));
+    }
+
+    /**
+     * Stores the body of a resource, unless the Business was written while it was rendered
+     * @param resource the path of the resource
+     * @param businessId the id of the Business it was rendered from
+     * @param version the version of the Business before it was rendered
+     * @param contentType the Content-Type of the body
+     * @param eTag the ETag sent with the body, or null if there was none
+     * @param body the serialized body
+     */
+    public void put(String resource, int businessId, long version, String contentType, String eTag, byte[] body) {
+        if (getVersion(businessId) != version) return;
+        bodies.put(resource, version, contentType, eTag, body);
+    }
+
+    /**
+     * Gets the hit and miss counts of the cached bodies
+     * @return the CacheStats
+     */
+    public CacheStats getStats() {
+        return bodies.getStats();
+    }
+
+    /**
+     * Invalidates the bodies of a Business after a write to a Business
+     * @param event the event published by the BusinessService
+     */
+    @EventListener
+    public void onBusinessEvent(BusinessEvent event) {
+        bump(event.getBusinessId());
+    }
+
+    /**
+     * Invalidates the bodies of a Business after a write to the Posts of a Business
+     * @param event the event published by the PostService
+     */
+    @EventListener
+    public void onPostEvent(PostEvent event) {
+        bump(event.getBusinessId());
+    }
+
+    /**
+     * Invalidates the bodies of a Business after a write to the Reviews of a Business
+     * @param event the event published by the ReviewsService
+     */
+    @EventListener
+    public void onReviewEvent(ReviewEvent event) {
+        bump(event.getBusinessId());
+    }
+
+    /**
+     * Invalidates the bodies of a Business after a write to the Hours of a Business
+     * @param event the event published by the HoursService
+     */
+    @EventListener
+    public void onHoursEvent(HoursEvent event) {
+        bump(event.getBusinessId());
+    }
+
+    private void bump(int businessId) {
+        versions.merge(businessId, 1L, Long::sum);
+    }
+
+}
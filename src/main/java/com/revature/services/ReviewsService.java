@@ -1,15 +1,23 @@
 package com.revature.services;
 
+import com.revature.events.ChangeType;
+import com.revature.events.ReviewEvent;
 import com.revature.exceptions.InvalidRequestException;
 import com.revature.exceptions.ResourcePersistenceException;
 import com.revature.models.*;
 import com.revature.repos.ReviewsRepository;
+import com.revature.util.SingleFlight;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static com.revature.util.VersionUtil.fillVersion;
 
 /**
  * Service class that handles {@link Review} and uses a {@link ReviewsRepository}
@@ -23,13 +31,26 @@ public class ReviewsService {
      */
     private ReviewsRepository repo;
 
+    /**
+     * Publishes a {@link ReviewEvent} after every write
+     */
+    private ApplicationEventPublisher publisher;
+
+    /**
+     * Shares one database read between concurrent requests for the Reviews of the same Business
+     */
+    private final SingleFlight<Integer, List<Review>> reviewLoads =
+            new SingleFlight<>(SingleFlight.DEFAULT_MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+
     /**
      * Constructor for ReviewsService
      * @param repo ReviewsRepository from Spring
+     * @param publisher the ApplicationEventPublisher
      */
     @Autowired
-    public ReviewsService(ReviewsRepository repo) {
+    public ReviewsService(ReviewsRepository repo, ApplicationEventPublisher publisher) {
         this.repo = repo;
+        this.publisher = publisher;
     }
 
     /**
@@ -47,7 +68,12 @@ public class ReviewsService {
      * @return a List of Review objects with the desired Business
      */
     public List<Review> findReviewsByBusiness(Business bus) {
-        return repo.findReviewsByBusiness(bus);
+        if (bus.getId() == null) {
+            return repo.findReviewsByBusiness(bus);
+        }
+
+        // callers get their own copy of the shared List
+        return new ArrayList<>(reviewLoads.run(bus.getId(), () -> repo.findReviewsByBusiness(bus)));
     }
 
     /**
@@ -67,7 +93,11 @@ public class ReviewsService {
         if (!isReviewValid(review))
             throw new ResourcePersistenceException();
         
-        repo.save(review);
+        // a new Review never keeps an id or version it was sent with, or save would merge it
+        // into an existing row instead of inserting it
+        review.setId(null);
+        review.setVersion(null);
+        publishChange(ChangeType.CREATED, repo.save(review));
     }
 
     /**
@@ -78,7 +108,9 @@ public class ReviewsService {
         if (!isReviewValid(review))
             throw new ResourcePersistenceException();
         
+        fillVersion(review.getId(), review.getVersion(), repo::findVersionById, review::setVersion);
         repo.save(review);
+        publishChange(ChangeType.UPDATED, review);
     }
 
     /**
@@ -89,10 +121,23 @@ public class ReviewsService {
         if (!isReviewValid(review))
             throw new InvalidRequestException();
 
+        fillVersion(review.getId(), review.getVersion(), repo::findVersionById, review::setVersion);
         repo.delete(review);
+        publishChange(ChangeType.DELETED, review);
     }
 
 
+    /**
+     * Publishes a {@link ReviewEvent} for a written Review
+     * @param type the kind of write
+     * @param review the Review that was written
+     */
+    private void publishChange(ChangeType type, Review review) {
+        if (review.getId() != null && review.getBusiness() != null && review.getBusiness().getId() != null) {
+            publisher.publishEvent(new ReviewEvent(type, review));
+        }
+    }
+
     /**
      * Checks the Review object's field for validity
      * @param review the Review to check
@@ -1,6 +1,7 @@
 package com.revature.services;
 
 import at.favre.lib.crypto.bcrypt.BCrypt;
+import com.revature.dtos.KeysetPage;
 import com.revature.exceptions.InvalidRequestException;
 import com.revature.exceptions.ResourceNotFoundException;
 import com.revature.exceptions.ResourcePersistenceException;
@@ -9,6 +10,7 @@ import com.revature.models.Role;
 import com.revature.models.User;
 import com.revature.repos.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.sql.Timestamp;
@@ -23,6 +25,11 @@ import java.util.stream.Collectors;
 @Service
 public class UserService {
 
+    /**
+     * Largest page of Users that may be requested at once
+     */
+    public static final int MAX_PAGE_SIZE = 200;
+
     /**
      * UserRepository that is managed by Spring
      */
@@ -69,19 +76,25 @@ public class UserService {
     }
 
     /**
-     * Gets all User object
-     * @return a List of User objects
+     * Gets one page of all Users in id order
+     * @param after the id of the last User on the previous page, or 0 for the first page
+     * @param limit the maximum number of Users on the page
+     * @return a KeysetPage of User objects with the cursor of the next page
      */
-    public List<User> getAllUsers() {
+    public KeysetPage<User> getAllUsers(int after, int limit) {
+        if (after < 0 || limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("Page cursor must not be negative and limit must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
 
-        List<User> users = (List<User>) userRepo.findAll();
+        // ask for one extra row to find out if there is another page
+        List<User> users = userRepo.findUsersByUserIdGreaterThanOrderByUserIdAsc(after, PageRequest.of(0, limit + 1));
 
-        if (users.isEmpty()) {
-            //System.out.println("did we get here?");
-            throw new ResourceNotFoundException();
+        if (users.size() <= limit) {
+            return new KeysetPage<>(users, null);
         }
 
-        return users;
+        List<User> page = users.subList(0, limit);
+        return new KeysetPage<>(page, String.valueOf(page.get(limit - 1).getUserId()));
     }
 
 
@@ -0,0 +1,368 @@
+package com.revature.util;
+
+import com.revature.dtos.FanOutStats;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process hub that hands each published message to every subscriber of its key.
+ *
+ * Publishing never blocks: the message is put on a bounded queue per subscriber, and the queue
+ * is drained on the executor, one drain per subscriber at a time so messages arrive in order.
+ * A subscriber that falls behind loses its oldest messages rather than holding up the
+ * publisher. A drain hands its thread back after a batch of messages, so a busy subscriber
+ * takes turns with the others. Sinks may block, so a delivery that runs past the delivery
+ * timeout is stopped by {@link #closeStalled()}: the subscription is closed, the thread blocked
+ * in the sink is interrupted, and the abort action that drops the connection is handed to the
+ * abort executor. The abort may itself wait for the blocked write, as closing an SseEmitter
+ * does, so it never runs on the thread that checks for stalls. A subscriber whose sink fails is
+ * closed.
+ * @param <K> the type of the keys subscribed to
+ * @param <M> the type of the messages
+ */
+public class FanOutHub<K, M> {
+
+    /**
+     * Receives the messages of one subscriber
+     * @param <M> the type of the messages
+     */
+    @FunctionalInterface
+    public interface Sink<M> {
+
+        /**
+         * Delivers a message to the subscriber
+         * @param message the message
+         * @throws IOException if the subscriber can no longer be reached
+         */
+        void deliver(M message) throws IOException;
+    }
+
+    /**
+     * Most messages delivered by one drain before it lets the other subscribers run
+     */
+    private static final int DRAIN_BATCH = 32;
+
+    private final String name;
+    private final int queueSize;
+    private final long deliveryTimeoutNanos;
+    private final Executor executor;
+    private final Executor abortExecutor;
+
+    /**
+     * The subscribers of each key
+     */
+    private final ConcurrentHashMap<K, Set<Subscription>> subscribers = new ConcurrentHashMap<>();
+
+    /**
+     * Every open subscription
+     */
+    private final Set<Subscription> open = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Constructor for FanOutHub
+     * @param name the name reported in the stats
+     * @param queueSize the most messages waiting for each subscriber
+     * @param deliveryTimeoutMillis the longest time a single delivery may take
+     * @param executor drains the queues of the subscribers
+     * @param abortExecutor runs the abort actions of stalled subscribers
+     */
+    public FanOutHub(String name, int queueSize, long deliveryTimeoutMillis, Executor executor,
+                     Executor abortExecutor) {
+        if (queueSize < 1 || deliveryTimeoutMillis < 1) {
+            throw new IllegalArgumentException("queueSize and deliveryTimeoutMillis must be positive");
+        }
+        this.name = name;
+        this.queueSize = queueSize;
+        this.deliveryTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(deliveryTimeoutMillis);
+        this.executor = executor;
+        this.abortExecutor = abortExecutor;
+    }
+
+    /**
+     * Subscribes to the messages of some keys
+     * @param keys the keys to receive the messages of
+     * @param sink receives the messages
+     * @return the Subscription, to be closed when the subscriber goes away
+     */
+    public Subscription subscribe(Set<K> keys, Sink<M> sink) {
+        return subscribe(keys, sink, () -> { });
+    }
+
+    /**
+     * Subscribes to the messages of some keys
+     * @param keys the keys to receive the messages of
+     * @param sink receives the messages
+     * @param abort drops the connection of the subscriber when a delivery stalls, so the blocked
+     *              write fails; it is run on the abort executor
+     * @return the Subscription, to be closed when the subscriber goes away
+     */
+    public Subscription subscribe(Set<K> keys, Sink<M> sink, Runnable abort) {
+        Subscription subscription = new Subscription(sink, abort);
+        open.add(subscription);
+        subscription.setKeys(keys);
+        return subscription;
+    }
+
+    /**
+     * Publishes a message to the subscribers of a key
+     * @param key the key of the message
+     * @param message the message
+     * @return the number of subscribers the message was queued for
+     */
+    public int publish(K key, M message) {
+        published.increment();
+        Set<Subscription> forKey = subscribers.get(key);
+        if (forKey == null) return 0;
+
+        int queued = 0;
+        for (Subscription subscription : forKey) {
+            if (subscription.offer(message)) {
+                queued++;
+            }
+        }
+        return queued;
+    }
+
+    /**
+     * Checks whether anyone is subscribed to a key, so messages nobody receives need not be built
+     * @param key the key
+     * @return true if the key has a subscriber
+     */
+    public boolean hasSubscribers(K key) {
+        return subscribers.containsKey(key);
+    }
+
+    /**
+     * Gets the number of open subscriptions
+     */
+    public int getSubscriberCount() {
+        return open.size();
+    }
+
+    /**
+     * Closes and aborts the subscriptions whose current delivery has run past the delivery
+     * timeout, so a slow subscriber can't hold a thread of the executor for longer. Returns
+     * without waiting for the aborts.
+     * @return the number of subscriptions closed
+     */
+    public int closeStalled() {
+        long now = System.nanoTime();
+        int closed = 0;
+        for (Subscription subscription : open) {
+            if (subscription.isStalled(now)) {
+                subscription.abort();
+                closed++;
+            }
+        }
+        return closed;
+    }
+
+    /**
+     * Closes every subscription
+     */
+    public void closeAll() {
+        for (Subscription subscription : open) {
+            subscription.close();
+        }
+    }
+
+    /**
+     * Gets the current counters of the hub
+     * @return the FanOutStats
+     */
+    public FanOutStats getStats() {
+        return new FanOutStats(name, open.size(), published.sum(), delivered.sum(), dropped.sum());
+    }
+
+    /**
+     * One subscriber of the hub
+     */
+    public final class Subscription implements AutoCloseable {
+
+        private volatile Set<K> keys = Collections.emptySet();
+        private final Sink<M> sink;
+        private final Runnable abort;
+        private final ArrayBlockingQueue<M> queue = new ArrayBlockingQueue<>(queueSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        /**
+         * Whether a message is being delivered, and since when in System.nanoTime()
+         */
+        private volatile boolean delivering;
+        private volatile long deliveryStarted;
+
+        /**
+         * The thread delivering a message, or null; guarded by deliveryLock so an abort can't
+         * interrupt the thread once it has moved on to another subscriber
+         */
+        private Thread deliveryThread;
+        private final Object deliveryLock = new Object();
+
+        private Subscription(Sink<M> sink, Runnable abort) {
+            this.sink = sink;
+            this.abort = abort;
+        }
+
+        /**
+         * Gets the keys this subscription receives the messages of
+         */
+        public Set<K> getKeys() {
+            return keys;
+        }
+
+        /**
+         * Changes the keys this subscription receives the messages of. Messages already queued
+         * are still delivered.
+         * @param keys the new keys
+         */
+        public synchronized void setKeys(Set<K> keys) {
+            if (closed) return;
+
+            Set<K> previous = this.keys;
+            Set<K> next = Collections.unmodifiableSet(new LinkedHashSet<>(keys));
+            for (K key : next) {
+                if (!previous.contains(key)) {
+                    subscribe(key);
+                }
+            }
+            for (K key : previous) {
+                if (!next.contains(key)) {
+                    unsubscribe(key);
+                }
+            }
+            this.keys = next;
+        }
+
+        public boolean isClosed() {
+            return closed;
+        }
+
+        /**
+         * Stops receiving messages; messages still queued are discarded
+         */
+        @Override
+        public synchronized void close() {
+            if (closed) return;
+            closed = true;
+            open.remove(this);
+            for (K key : keys) {
+                unsubscribe(key);
+            }
+            queue.clear();
+        }
+
+        private boolean isStalled(long now) {
+            return delivering && now - deliveryStarted > deliveryTimeoutNanos;
+        }
+
+        private void abort() {
+            close();
+            synchronized (deliveryLock) {
+                if (deliveryThread != null) {
+                    deliveryThread.interrupt();
+                }
+            }
+            try {
+                abortExecutor.execute(() -> {
+                    try {
+                        abort.run();
+                    } catch (RuntimeException e) {
+                        // the connection is being dropped anyway
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // shutting down; the connections are closed with the server
+            }
+        }
+
+        private void subscribe(K key) {
+            // add inside compute so an unsubscribe can't drop the set between the lookup and the add
+            subscribers.compute(key, (k, forKey) -> {
+                Set<Subscription> set = forKey != null ? forKey : ConcurrentHashMap.<Subscription>newKeySet();
+                set.add(this);
+                return set;
+            });
+        }
+
+        private void unsubscribe(K key) {
+            subscribers.computeIfPresent(key, (k, forKey) -> {
+                forKey.remove(this);
+                return forKey.isEmpty() ? null : forKey;
+            });
+        }
+
+        private boolean offer(M message) {
+            if (closed) return false;
+
+            // make room by dropping the oldest message when the subscriber is behind
+            while (!queue.offer(message)) {
+                if (queue.poll() != null) {
+                    dropped.increment();
+                }
+            }
+            schedule();
+            return true;
+        }
+
+        private void schedule() {
+            if (closed || !draining.compareAndSet(false, true)) return;
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+            }
+        }
+
+        private void drain() {
+            try {
+                M message;
+                int sent = 0;
+                while (!closed && sent < DRAIN_BATCH && (message = queue.poll()) != null) {
+                    synchronized (deliveryLock) {
+                        deliveryThread = Thread.currentThread();
+                    }
+                    deliveryStarted = System.nanoTime();
+                    delivering = true;
+                    try {
+                        sink.deliver(message);
+                    } finally {
+                        delivering = false;
+                        synchronized (deliveryLock) {
+                            deliveryThread = null;
+                            // an abort that came too late must not interrupt the next drain
+                            Thread.interrupted();
+                        }
+                    }
+                    delivered.increment();
+                    sent++;
+                }
+            } catch (IOException | RuntimeException e) {
+                close();
+            } finally {
+                draining.set(false);
+            }
+
+            // more messages are left after a full batch, or one may have been queued after the
+            // last poll but before draining was reset
+            if (!closed && !queue.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+
+}
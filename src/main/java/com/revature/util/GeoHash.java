@@ -0,0 +1,172 @@
+package com.revature.util;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Utility class for encoding coordinates as geohashes and measuring distances between them.
+ * A geohash cell is a prefix of every longer hash inside of it, so a radius search can be
+ * answered with a handful of indexed prefix lookups instead of a table scan.
+ */
+public class GeoHash {
+
+    /**
+     * Number of characters stored for a Business geohash
+     */
+    public static final int MAX_PRECISION = 12;
+
+    /**
+     * Mean radius of the earth in meters
+     */
+    public static final double EARTH_RADIUS_METERS = 6_371_008.8;
+
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+
+    private static final double METERS_PER_DEGREE = Math.PI * EARTH_RADIUS_METERS / 180;
+
+    private GeoHash() {
+        super();
+    }
+
+    /**
+     * Encodes a coordinate pair as a geohash
+     * @param lat the latitude in decimal degrees
+     * @param lon the longitude in decimal degrees
+     * @param precision the number of characters in the resulting hash
+     * @return the geohash of the coordinate
+     */
+    public static String encode(double lat, double lon, int precision) {
+        double minLat = -90, maxLat = 90;
+        double minLon = -180, maxLon = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean lonBit = true;
+        int bits = 0;
+        int ch = 0;
+
+        while (hash.length() < precision) {
+            if (lonBit) {
+                double mid = (minLon + maxLon) / 2;
+                if (lon >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLon = mid;
+                } else {
+                    ch <<= 1;
+                    maxLon = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (lat >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLat = mid;
+                } else {
+                    ch <<= 1;
+                    maxLat = mid;
+                }
+            }
+            lonBit = !lonBit;
+
+            if (++bits == 5) {
+                hash.append(BASE32.charAt(ch));
+                bits = 0;
+                ch = 0;
+            }
+        }
+
+        return hash.toString();
+    }
+
+    /**
+     * Gets the height of a geohash cell in degrees of latitude
+     * @param precision the number of characters in the hash
+     * @return the cell height in degrees
+     */
+    public static double cellHeightDegrees(int precision) {
+        return 180 / Math.pow(2, (5 * precision) / 2);
+    }
+
+    /**
+     * Gets the width of a geohash cell in degrees of longitude
+     * @param precision the number of characters in the hash
+     * @return the cell width in degrees
+     */
+    public static double cellWidthDegrees(int precision) {
+        return 360 / Math.pow(2, (5 * precision + 1) / 2);
+    }
+
+    /**
+     * Gets the longest precision whose cells are still at least radiusMeters across at the given
+     * latitude, so the cell containing a point and its eight neighbours cover the whole circle
+     * @param lat the latitude of the center of the search
+     * @param radiusMeters the radius of the search in meters
+     * @return the precision to search with
+     */
+    public static int precisionFor(double lat, double radiusMeters) {
+        double radiusDegrees = radiusMeters / METERS_PER_DEGREE;
+        // cells are narrowest on the edge of the circle closest to a pole
+        double widestLat = Math.min(89.9, Math.abs(lat) + radiusDegrees);
+        double lonScale = Math.cos(Math.toRadians(widestLat));
+
+        int precision = 1;
+        while (precision < MAX_PRECISION
+                && cellHeightDegrees(precision + 1) >= radiusDegrees
+                && cellWidthDegrees(precision + 1) * lonScale >= radiusDegrees) {
+            precision++;
+        }
+
+        return precision;
+    }
+
+    /**
+     * Gets the geohash cells that together cover a circle: the cell containing the center and
+     * the eight cells around it
+     * @param lat the latitude of the center of the search
+     * @param lon the longitude of the center of the search
+     * @param radiusMeters the radius of the search in meters
+     * @return the distinct geohash prefixes to search
+     */
+    public static Set<String> coveringCells(double lat, double lon, double radiusMeters) {
+        int precision = precisionFor(lat, radiusMeters);
+        double height = cellHeightDegrees(precision);
+        double width = cellWidthDegrees(precision);
+        Set<String> cells = new LinkedHashSet<>();
+
+        for (int dLat = -1; dLat <= 1; dLat++) {
+            double cellLat = lat + dLat * height;
+            if (cellLat > 90 || cellLat < -90) continue;
+
+            for (int dLon = -1; dLon <= 1; dLon++) {
+                cells.add(encode(cellLat, wrapLongitude(lon + dLon * width), precision));
+            }
+        }
+
+        return cells;
+    }
+
+    /**
+     * Gets the great-circle distance between two coordinates using the haversine formula
+     * @return the distance in meters
+     */
+    public static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * Checks that a coordinate pair is on the globe
+     * @return true if both values are in range
+     */
+    public static boolean isValid(double lat, double lon) {
+        return lat >= -90 && lat <= 90 && lon >= -180 && lon <= 180;
+    }
+
+    private static double wrapLongitude(double lon) {
+        if (lon >= 180) return lon - 360;
+        if (lon < -180) return lon + 360;
+        return lon;
+    }
+
+}
@@ -0,0 +1,175 @@
+package com.revature.util;
+
+import com.revature.dtos.CacheStats;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Small in-process read-through cache with a size limit, a time to live, and hit and miss
+ * counters.
+ *
+ * Lookups that find nothing are cached too, for a shorter time, so repeated requests for a
+ * missing key don't each reach the database. The least recently used entry is evicted once the
+ * cache is full. A load that races with an invalidation of its key is not cached, so an
+ * invalidated value is never put back by a reader that loaded it before the write.
+ * @param <K> the type of the keys
+ * @param <V> the type of the cached values
+ */
+public class LookupCache<K, V> {
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final LongSupplier clock;
+
+    /**
+     * Entries in least recently used order; guarded by itself
+     */
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * The latest load started for each key that is being loaded; guarded by entries. Invalidating
+     * a key drops its load, so a value read before the write is not cached after it.
+     */
+    private final Map<K, Object> loads = new HashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructor for LookupCache
+     * @param name the name reported in the stats
+     * @param maxSize the largest number of entries to keep
+     * @param ttl how long a found value is kept
+     * @param negativeTtl how long a missing value is remembered
+     * @param unit the unit of both times
+     */
+    public LookupCache(String name, int maxSize, long ttl, long negativeTtl, TimeUnit unit) {
+        this(name, maxSize, ttl, negativeTtl, unit, System::nanoTime);
+    }
+
+    LookupCache(String name, int maxSize, long ttl, long negativeTtl, TimeUnit unit, LongSupplier clock) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = unit.toNanos(ttl);
+        this.negativeTtlNanos = unit.toNanos(negativeTtl);
+        this.clock = clock;
+    }
+
+    /**
+     * Gets a value from the cache, loading and caching it on a miss
+     * @param key the key to look up
+     * @param loader loads the value of a key, or an empty Optional if there is none
+     * @return the value, or an empty Optional if the key has no value
+     */
+    public Optional<V> get(K key, Function<? super K, Optional<V>> loader) {
+        long now = clock.getAsLong();
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.expiresAt - now > 0) {
+                hits.increment();
+                return Optional.ofNullable(entry.value);
+            }
+        }
+
+        misses.increment();
+        Object load = new Object();
+        synchronized (entries) {
+            loads.put(key, load);
+        }
+        Optional<V> loaded;
+        try {
+            loaded = loader.apply(key);
+        } catch (RuntimeException e) {
+            synchronized (entries) {
+                loads.remove(key, load);
+            }
+            throw e;
+        }
+
+        synchronized (entries) {
+            if (loads.remove(key, load)) {
+                long ttl = loaded.isPresent() ? ttlNanos : negativeTtlNanos;
+                entries.put(key, new Entry<>(loaded.orElse(null), clock.getAsLong() + ttl));
+                evictOverflow();
+            }
+        }
+
+        return loaded;
+    }
+
+    /**
+     * Removes a key from the cache
+     * @param key the key to remove
+     */
+    public void invalidate(K key) {
+        synchronized (entries) {
+            loads.remove(key);
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Removes every key from the cache
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            loads.clear();
+            entries.clear();
+        }
+    }
+
+    /**
+     * Gets the current hit and miss counts of the cache
+     * @return the CacheStats
+     */
+    public CacheStats getStats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheStats(name, size, hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    /**
+     * Drops expired entries first, then the least recently used ones, until the cache fits
+     */
+    private void evictOverflow() {
+        if (entries.size() <= maxSize) return;
+
+        long now = clock.getAsLong();
+        entries.values().removeIf(entry -> entry.expiresAt - now <= 0);
+
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxSize && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private static final class Entry<V> {
+
+        final V value;
+        final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+}
@@ -0,0 +1,187 @@
+package com.revature.util;
+
+import com.revature.dtos.CacheStats;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bounded cache of serialized response bodies, each stored as is and gzipped.
+ *
+ * Entries are tagged with the version of the resource they were rendered from, and a lookup
+ * with any other version misses, so bumping the version of a resource is enough to invalidate
+ * everything rendered from it. The least recently used entries are evicted once the stored bytes
+ * exceed the limit.
+ * @param <K> the type of the keys
+ */
+public class ResponseBytesCache<K> {
+
+    private final String name;
+    private final long maxBytes;
+
+    /**
+     * Entries in least recently used order; guarded by itself
+     */
+    private final LinkedHashMap<K, Body> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Bytes held by the entries; guarded by entries
+     */
+    private long bytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructor for ResponseBytesCache
+     * @param name the name reported in the stats
+     * @param maxBytes the most bytes, plain and gzipped together, to keep
+     */
+    public ResponseBytesCache(String name, long maxBytes) {
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("maxBytes must be positive");
+        }
+        this.name = name;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Gets a body rendered from the given version of its resource
+     * @param key the key of the body
+     * @param version the current version of the resource
+     * @return the Body, or null if there is none for that version
+     */
+    public Body get(K key, long version) {
+        Body body;
+        synchronized (entries) {
+            body = entries.get(key);
+        }
+
+        if (body == null || body.version != version) {
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        return body;
+    }
+
+    /**
+     * Stores a body, gzipping it once up front
+     * @param key the key of the body
+     * @param version the version of the resource the body was rendered from
+     * @param contentType the Content-Type of the body
+     * @param eTag the ETag sent with the body, or null if there was none
+     * @param plain the body
+     */
+    public void put(K key, long version, String contentType, String eTag, byte[] plain) {
+        Body body = new Body(version, contentType, eTag, plain, gzip(plain));
+        if (body.size() > maxBytes) return;
+
+        synchronized (entries) {
+            Body previous = entries.put(key, body);
+            if (previous != null) {
+                bytes -= previous.size();
+            }
+            bytes += body.size();
+
+            Iterator<Body> eldest = entries.values().iterator();
+            while (bytes > maxBytes && eldest.hasNext()) {
+                bytes -= eldest.next().size();
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Removes a body
+     * @param key the key of the body
+     */
+    public void invalidate(K key) {
+        synchronized (entries) {
+            Body previous = entries.remove(key);
+            if (previous != null) {
+                bytes -= previous.size();
+            }
+        }
+    }
+
+    /**
+     * Gets the current hit and miss counts of the cache
+     * @return the CacheStats
+     */
+    public CacheStats getStats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheStats(name, size, hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private static byte[] gzip(byte[] plain) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(plain.length / 4 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(plain);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * A cached response body
+     */
+    public static final class Body {
+
+        private final long version;
+        private final String contentType;
+        private final String eTag;
+        private final byte[] plain;
+        private final byte[] gzipped;
+
+        Body(long version, String contentType, String eTag, byte[] plain, byte[] gzipped) {
+            this.version = version;
+            this.contentType = contentType;
+            this.eTag = eTag;
+            this.plain = plain;
+            this.gzipped = gzipped;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        /**
+         * Gets the ETag sent with the body, or null if there was none
+         */
+        public String getETag() {
+            return eTag;
+        }
+
+        /**
+         * Gets the body as rendered; must not be modified
+         */
+        public byte[] getPlain() {
+            return plain;
+        }
+
+        /**
+         * Gets the gzipped body; must not be modified
+         */
+        public byte[] getGzipped() {
+            return gzipped;
+        }
+
+        long size() {
+            return plain.length + gzipped.length;
+        }
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.revature.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key into a single call.
+ *
+ * The first caller for a key runs the call; callers that arrive while it is running wait for
+ * its result instead of making the same call again. Waiting is bounded: a caller that has waited
+ * longer than the limit stops waiting and makes the call itself. Nothing is remembered once the
+ * call finishes, so this is not a cache.
+ * @param <K> the type of the keys
+ * @param <V> the type of the results
+ */
+public class SingleFlight<K, V> {
+
+    /**
+     * Longest wait, in milliseconds, suggested for calls that read from the database
+     */
+    public static final long DEFAULT_MAX_WAIT_MILLIS = 2000;
+
+    private final long maxWaitNanos;
+
+    /**
+     * The calls currently running, by key
+     */
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+
+    /**
+     * Constructor for SingleFlight
+     * @param maxWait the longest a caller waits for a call made by another caller
+     * @param unit the unit of maxWait
+     */
+    public SingleFlight(long maxWait, TimeUnit unit) {
+        this.maxWaitNanos = unit.toNanos(maxWait);
+    }
+
+    /**
+     * Runs a call, or waits for the one already running for the same key
+     * @param key the key the call is for
+     * @param call makes the call
+     * @return the result of the call
+     */
+    public V run(K key, Supplier<V> call) {
+        CompletableFuture<V> running = inFlight.get(key);
+        if (running == null) {
+            CompletableFuture<V> mine = new CompletableFuture<>();
+            running = inFlight.putIfAbsent(key, mine);
+            if (running == null) {
+                return lead(key, mine, call);
+            }
+        }
+
+        shared.increment();
+        return await(running, call);
+    }
+
+    /**
+     * Gets the number of calls made
+     */
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    /**
+     * Gets the number of callers that waited for another caller's call
+     */
+    public long getShared() {
+        return shared.sum();
+    }
+
+    private V lead(K key, CompletableFuture<V> mine, Supplier<V> call) {
+        calls.increment();
+        try {
+            V result = call.get();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private V await(CompletableFuture<V> running, Supplier<V> call) {
+        try {
+            return running.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // the call is taking too long, make our own rather than queue behind it
+            calls.increment();
+            return call.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a shared call", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+}
@@ -0,0 +1,144 @@
+package com.revature.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.AnnotatedClass;
+import com.fasterxml.jackson.databind.introspect.NopAnnotationIntrospector;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Jackson filter that only writes the requested fields of a response, given as a comma
+ * separated list such as "id,businessName,owner.username".
+ *
+ * A field is written when it was requested, when one of the fields nested in it was requested,
+ * or when the object it belongs to was requested as a whole. Nested fields are named by their
+ * path from the top of the response; lists don't add to the path. Lazy collections that are not
+ * written are never loaded.
+ */
+public class SparseFieldsFilter extends SimpleBeanPropertyFilter {
+
+    /**
+     * Id of the filter that every class is serialized through; see {@link SparseFieldsModule}
+     */
+    public static final String FILTER_ID = "sparseFields";
+
+    /**
+     * The requested paths
+     */
+    private final Set<String> requested = new HashSet<>();
+
+    /**
+     * Every path holding a requested path, which is written so the requested one can be
+     */
+    private final Set<String> holders = new HashSet<>();
+
+    /**
+     * Constructor for SparseFieldsFilter
+     * @param fields the comma separated paths of the fields to write
+     */
+    public SparseFieldsFilter(String fields) {
+        for (String field : fields.split(",")) {
+            field = field.trim();
+            if (field.isEmpty()) continue;
+
+            requested.add(field);
+            for (int dot = field.indexOf('.'); dot > 0; dot = field.indexOf('.', dot + 1)) {
+                holders.add(field.substring(0, dot));
+            }
+        }
+    }
+
+    /**
+     * Gets a FilterProvider that writes only the given fields
+     * @param fields the comma separated paths of the fields to write
+     * @return the FilterProvider, or null if no field was given
+     */
+    public static FilterProvider provider(String fields) {
+        SparseFieldsFilter filter = new SparseFieldsFilter(fields);
+        if (filter.requested.isEmpty()) return null;
+        return new SimpleFilterProvider().addFilter(FILTER_ID, filter);
+    }
+
+    /**
+     * Gets the FilterProvider used when no fields were requested, which writes every field
+     * @return the FilterProvider
+     */
+    public static FilterProvider serializeAllProvider() {
+        return new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll());
+    }
+
+    @Override
+    public void serializeAsField(Object pojo, JsonGenerator gen, SerializerProvider provider, PropertyWriter writer)
+            throws Exception {
+        if (includes(pathOf(gen.getOutputContext(), writer.getName()))) {
+            writer.serializeAsField(pojo, gen, provider);
+        } else if (!gen.canOmitFields()) {
+            writer.serializeAsOmittedField(pojo, gen, provider);
+        }
+    }
+
+    /**
+     * Checks whether the field at a path is written
+     * @param path the path of the field
+     * @return true if the field is written
+     */
+    boolean includes(String path) {
+        if (requested.contains(path) || holders.contains(path)) return true;
+
+        for (int dot = path.lastIndexOf('.'); dot > 0; dot = path.lastIndexOf('.', dot - 1)) {
+            if (requested.contains(path.substring(0, dot))) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Builds the path of a field from the names of the fields its object is nested in
+     * @param context the output context of the object being written
+     * @param name the name of the field
+     * @return the path of the field
+     */
+    private static String pathOf(JsonStreamContext context, String name) {
+        StringBuilder path = new StringBuilder(name);
+        for (JsonStreamContext parent = context.getParent(); parent != null; parent = parent.getParent()) {
+            if (parent.inObject() && parent.getCurrentName() != null) {
+                path.insert(0, '.').insert(0, parent.getCurrentName());
+            }
+        }
+        return path.toString();
+    }
+
+    /**
+     * Jackson Module that serializes every class through the {@link SparseFieldsFilter} unless it
+     * names a filter of its own, so no entity needs a {@code @JsonFilter}
+     */
+    public static class SparseFieldsModule extends SimpleModule {
+
+        public SparseFieldsModule() {
+            super("SparseFields");
+        }
+
+        @Override
+        public void setupModule(SetupContext context) {
+            super.setupModule(context);
+            context.appendAnnotationIntrospector(new Introspector());
+        }
+    }
+
+    private static class Introspector extends NopAnnotationIntrospector {
+
+        @Override
+        public Object findFilterId(Annotated annotated) {
+            return annotated instanceof AnnotatedClass ? FILTER_ID : null;
+        }
+    }
+
+}
@@ -0,0 +1,243 @@
+package com.revature.util;
+
+import com.revature.dtos.ReadCacheStats;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Cache that keeps serving a value while it is refreshed in the background.
+ *
+ * A value younger than the soft time to live is served as is. An older one is still served
+ * right away, and a single refresh is started on the executor; until the refresh finishes every
+ * caller gets the old value. Only once a value is older than the hard time to live does a caller
+ * wait for the loader. A refresh that fails keeps the old value, so a slow or failing database
+ * is hidden for up to the hard time to live.
+ * @param <K> the type of the keys
+ * @param <V> the type of the cached values
+ */
+public class StaleWhileRevalidateCache<K, V> {
+
+    private final String name;
+    private final int maxSize;
+    private final long softTtlNanos;
+    private final long hardTtlNanos;
+    private final Executor executor;
+    private final LongSupplier clock;
+
+    /**
+     * Entries in least recently used order; guarded by itself
+     */
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * The latest load started for each key that is being loaded; guarded by entries. Invalidating
+     * a key drops its load, so a value read before the write is not stored after it.
+     */
+    private final Map<K, Object> loads = new HashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder staleServes = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+
+    /**
+     * Constructor for StaleWhileRevalidateCache
+     * @param name the name reported in the stats
+     * @param maxSize the largest number of entries to keep
+     * @param softTtl the age after which a value is refreshed in the background
+     * @param hardTtl the age after which a value is no longer served
+     * @param unit the unit of both times
+     * @param executor runs the background refreshes
+     */
+    public StaleWhileRevalidateCache(String name, int maxSize, long softTtl, long hardTtl, TimeUnit unit,
+                                     Executor executor) {
+        this(name, maxSize, softTtl, hardTtl, unit, executor, System::nanoTime);
+    }
+
+    StaleWhileRevalidateCache(String name, int maxSize, long softTtl, long hardTtl, TimeUnit unit,
+                              Executor executor, LongSupplier clock) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        if (softTtl > hardTtl) {
+            throw new IllegalArgumentException("softTtl must not be longer than hardTtl");
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        this.softTtlNanos = unit.toNanos(softTtl);
+        this.hardTtlNanos = unit.toNanos(hardTtl);
+        this.executor = executor;
+        this.clock = clock;
+    }
+
+    /**
+     * Gets a value from the cache. A missing or expired value is loaded by the caller, and a
+     * stale one is served while it is refreshed in the background.
+     * @param key the key to look up
+     * @param loader loads the value of the key; exceptions it throws are not cached
+     * @return the value
+     */
+    public V get(K key, Supplier<V> loader) {
+        Entry<V> entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+
+        if (entry != null) {
+            long age = clock.getAsLong() - entry.loadedAt;
+            if (age < softTtlNanos) {
+                hits.increment();
+                return entry.value;
+            }
+            if (age < hardTtlNanos) {
+                staleServes.increment();
+                refresh(key, entry, loader);
+                return entry.value;
+            }
+        }
+
+        misses.increment();
+        Object load = startLoad(key);
+        V value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException e) {
+            endLoad(key, load);
+            throw e;
+        }
+        store(key, value, load);
+        return value;
+    }
+
+    /**
+     * Removes a key from the cache
+     * @param key the key to remove
+     */
+    public void invalidate(K key) {
+        synchronized (entries) {
+            loads.remove(key);
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Removes every key from the cache
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            loads.clear();
+            entries.clear();
+        }
+    }
+
+    /**
+     * Gets the current counters of the cache
+     * @return the ReadCacheStats
+     */
+    public ReadCacheStats getStats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new ReadCacheStats(name, size, hits.sum(), misses.sum(), staleServes.sum(), refreshes.sum(),
+                refreshFailures.sum());
+    }
+
+    /**
+     * Starts a background refresh of a stale entry, unless one is already running
+     */
+    private void refresh(K key, Entry<V> stale, Supplier<V> loader) {
+        if (!stale.refreshing.compareAndSet(false, true)) return;
+
+        Object load = startLoad(key);
+        try {
+            executor.execute(() -> {
+                V value;
+                try {
+                    value = loader.get();
+                } catch (RuntimeException e) {
+                    value = null;
+                }
+                if (value == null) {
+                    // keep serving the stale value; the next caller tries again
+                    endLoad(key, load);
+                    refreshFailures.increment();
+                    stale.refreshing.set(false);
+                    return;
+                }
+                refreshes.increment();
+                if (!store(key, value, load)) {
+                    // the key was written or loaded again meanwhile; a stale entry left behind may refresh again
+                    stale.refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            endLoad(key, load);
+            refreshFailures.increment();
+            stale.refreshing.set(false);
+        }
+    }
+
+    /**
+     * Registers a load of a key as the latest one
+     * @return the token of the load
+     */
+    private Object startLoad(K key) {
+        Object load = new Object();
+        synchronized (entries) {
+            loads.put(key, load);
+        }
+        return load;
+    }
+
+    /**
+     * Forgets a load that stores nothing
+     */
+    private void endLoad(K key, Object load) {
+        synchronized (entries) {
+            loads.remove(key, load);
+        }
+    }
+
+    /**
+     * Stores a loaded value, unless the key was invalidated or loaded again since the load started
+     * @return true if the value was stored
+     */
+    private boolean store(K key, V value, Object load) {
+        synchronized (entries) {
+            if (!loads.remove(key, load) || value == null) return false;
+
+            entries.put(key, new Entry<>(value, clock.getAsLong()));
+            Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+            while (entries.size() > maxSize && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+            }
+            return true;
+        }
+    }
+
+    private static final class Entry<V> {
+
+        final V value;
+        final long loadedAt;
+        final AtomicBoolean refreshing = new AtomicBoolean();
+
+        Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+}
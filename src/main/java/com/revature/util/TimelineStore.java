@@ -0,0 +1,188 @@
+package com.revature.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Bounded store of per key timelines of entries, newest first.
+ *
+ * A timeline is created empty by the first reader of its key, and can be appended to straight
+ * away; the reader then loads the entries it read from the database into it, so entries appended
+ * while it was reading are kept. Each timeline keeps at most its capacity of entries, and the
+ * least recently used timelines are dropped once there are too many.
+ * @param <K> the type of the keys
+ * @param <E> the type of the entries
+ */
+public class TimelineStore<K, E> {
+
+    private final int maxTimelines;
+    private final int capacity;
+    private final Comparator<? super E> newestFirst;
+
+    /**
+     * Timelines in least recently used order; guarded by itself
+     */
+    private final LinkedHashMap<K, Timeline<E>> timelines = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Constructor for TimelineStore
+     * @param maxTimelines the most timelines to keep
+     * @param capacity the most entries to keep in each timeline
+     * @param newestFirst the order of the entries, newest first
+     */
+    public TimelineStore(int maxTimelines, int capacity, Comparator<? super E> newestFirst) {
+        if (maxTimelines < 1 || capacity < 1) {
+            throw new IllegalArgumentException("maxTimelines and capacity must be positive");
+        }
+        this.maxTimelines = maxTimelines;
+        this.capacity = capacity;
+        this.newestFirst = newestFirst;
+    }
+
+    /**
+     * Gets the timeline of a key, creating an empty one that is not loaded yet if there is none
+     * @param key the key of the timeline
+     * @return the Timeline
+     */
+    public Timeline<E> getOrCreate(K key) {
+        synchronized (timelines) {
+            Timeline<E> timeline = timelines.get(key);
+            if (timeline != null) return timeline;
+
+            timeline = new Timeline<>(capacity, newestFirst);
+            timelines.put(key, timeline);
+            Iterator<Map.Entry<K, Timeline<E>>> eldest = timelines.entrySet().iterator();
+            while (timelines.size() > maxTimelines && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+            }
+            return timeline;
+        }
+    }
+
+    /**
+     * Adds an entry to the timeline of a key, if the key has one
+     * @param key the key of the timeline
+     * @param entry the entry to add
+     * @return true if the key had a timeline
+     */
+    public boolean append(K key, E entry) {
+        Timeline<E> timeline;
+        synchronized (timelines) {
+            timeline = timelines.get(key);
+        }
+        if (timeline == null) return false;
+
+        timeline.add(entry);
+        return true;
+    }
+
+    /**
+     * Drops the timeline of a key, so the next reader loads it again
+     * @param key the key of the timeline
+     */
+    public void invalidate(K key) {
+        synchronized (timelines) {
+            timelines.remove(key);
+        }
+    }
+
+    /**
+     * Gets the number of timelines kept
+     */
+    public int size() {
+        synchronized (timelines) {
+            return timelines.size();
+        }
+    }
+
+    /**
+     * The entries of one key, newest first
+     * @param <E> the type of the entries
+     */
+    public static final class Timeline<E> {
+
+        private final int capacity;
+
+        /**
+         * The entries, newest first; guarded by this
+         */
+        private final TreeSet<E> entries;
+
+        private boolean loaded;
+        private boolean complete;
+
+        Timeline(int capacity, Comparator<? super E> newestFirst) {
+            this.capacity = capacity;
+            this.entries = new TreeSet<>(newestFirst);
+        }
+
+        /**
+         * Checks if the entries read from the database have been loaded into the timeline
+         */
+        public synchronized boolean isLoaded() {
+            return loaded;
+        }
+
+        /**
+         * Checks if the timeline holds every entry older than its newest one, rather than only the
+         * newest ones up to its capacity
+         */
+        public synchronized boolean isComplete() {
+            return complete;
+        }
+
+        /**
+         * Loads the entries read from the database, keeping any appended since
+         * @param newest the newest entries of the key
+         * @param complete true if there are no older entries than those given
+         */
+        public synchronized void load(List<E> newest, boolean complete) {
+            entries.addAll(newest);
+            this.complete = complete;
+            this.loaded = true;
+            trim();
+        }
+
+        /**
+         * Gets the entries older than a cursor, newest first
+         * @param before the cursor, or null to start from the newest entry
+         * @param limit the most entries to return
+         * @return a List of entries
+         */
+        public synchronized List<E> before(E before, int limit) {
+            List<E> page = new ArrayList<>(Math.min(limit, entries.size()));
+            for (E entry : before == null ? entries : entries.tailSet(before, false)) {
+                if (page.size() == limit) break;
+                page.add(entry);
+            }
+            return page;
+        }
+
+        /**
+         * Removes an entry that no longer exists
+         * @param entry the entry to remove
+         */
+        public synchronized void remove(E entry) {
+            entries.remove(entry);
+        }
+
+        synchronized void add(E entry) {
+            entries.add(entry);
+            trim();
+        }
+
+        private void trim() {
+            while (entries.size() > capacity) {
+                entries.pollLast();
+                complete = false;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.revature.util;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Helper for the @Version columns of the entities that clients may send back without one
+ */
+public class VersionUtil {
+
+    /**
+     * Fills in the version of a row sent with an id but without a version, so it is saved over
+     * the stored row as before instead of being treated as new
+     * @param id the id of the row, or null if it is new
+     * @param version the version sent with the row
+     * @param findVersionById looks up the stored version of a row by its id
+     * @param setVersion sets the version of the row
+     */
+    public static void fillVersion(Integer id, Long version,
+                                   Function<Integer, Optional<Long>> findVersionById, Consumer<Long> setVersion) {
+        if (id != null && version == null) {
+            setVersion.accept(findVersionById.apply(id).orElse(0L));
+        }
+    }
+
+}
@@ -6,6 +6,7 @@ import com.revature.exceptions.ResourceNotFoundException;
 import com.revature.exceptions.ResourcePersistenceException;
 import com.revature.util.ErrorResponseFactory;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -33,4 +34,10 @@ public class ExceptionHandlingAspect {
     public ErrorResponse handleResourcePersistenceException(ResourcePersistenceException e) {
         return ErrorResponseFactory.getInstance().generateErrorResponse(HttpStatus.CONFLICT);
     }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleOptimisticLockingFailureException(OptimisticLockingFailureException e) {
+        return ErrorResponseFactory.getInstance().generateErrorResponse(HttpStatus.CONFLICT);
+    }
 }
\ No newline at end of file
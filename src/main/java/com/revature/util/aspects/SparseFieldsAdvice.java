@@ -0,0 +1,45 @@
+package com.revature.util.aspects;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.revature.util.SparseFieldsFilter;
+import com.revature.web.controllers.BusinessController;
+import com.revature.web.controllers.UserController;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * Applies the fields parameter of a GET to the JSON written for it, e.g.
+ * GET /businesses/type/bakery?fields=id,businessName,owner.username. See {@link SparseFieldsFilter}.
+ */
+@RestControllerAdvice(assignableTypes = {BusinessController.class, UserController.class})
+public class SparseFieldsAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    /**
+     * Query parameter naming the fields to write
+     */
+    public static final String FIELDS_PARAM = "fields";
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (request.getMethod() != HttpMethod.GET || !(request instanceof ServletServerHttpRequest)) return;
+
+        String fields = ((ServletServerHttpRequest) request).getServletRequest().getParameter(FIELDS_PARAM);
+        if (fields == null) return;
+
+        FilterProvider filters = SparseFieldsFilter.provider(fields);
+        if (filters != null) {
+            bodyContainer.setFilters(filters);
+        }
+    }
+
+}
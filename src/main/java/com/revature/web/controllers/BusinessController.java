@@ -1,13 +1,32 @@
 package com.revature.web.controllers;
 
+import com.revature.dtos.BusinessBatch;
+import com.revature.dtos.BusinessCluster;
+import com.revature.dtos.BusinessFacets;
+import com.revature.dtos.BusinessPin;
+import com.revature.dtos.BusinessSuggestion;
+import com.revature.dtos.KeysetPage;
+import com.revature.dtos.TaggedValue;
+import com.revature.exceptions.InvalidRequestException;
+import com.revature.exceptions.ResourceNotFoundException;
 import com.revature.dtos.Principal;
 import com.revature.models.*;
+import com.revature.search.BusinessClusterIndex;
+import com.revature.search.BusinessFacetIndex;
+import com.revature.search.BusinessFuzzyIndex;
+import com.revature.search.BusinessNameSuggester;
+import com.revature.search.BusinessQueryPlanner;
+import com.revature.search.BusinessSearchIndex;
+import com.revature.search.BusinessSpatialIndex;
 import com.revature.services.*;
+import com.revature.services.ReadCacheService.Endpoint;
 import com.revature.util.JwtParser;
 import com.revature.util.Secured;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.http.MediaType;
 
 import javax.servlet.http.Cookie;
@@ -48,44 +67,167 @@ public class BusinessController {
 
     private final JwtParser jwtParser;
 
+    /**
+     * In-memory R-tree of Business locations
+     */
+    private final BusinessSpatialIndex spatialIndex;
+
+    /**
+     * Precomputed map clusters for each zoom level
+     */
+    private final BusinessClusterIndex clusterIndex;
+
+    /**
+     * Full-text index of Business names, types, locations and Posts
+     */
+    private final BusinessSearchIndex searchIndex;
+
+    /**
+     * Trie of active Business names for type-ahead suggestions
+     */
+    private final BusinessNameSuggester nameSuggester;
+
+    /**
+     * Trigram index of Business names for typo tolerant search
+     */
+    private final BusinessFuzzyIndex fuzzyIndex;
+
+    /**
+     * Running facet counts of active Businesses
+     */
+    private final BusinessFacetIndex facetIndex;
+
+    /**
+     * Plans searches that combine several filters over the in-memory indexes
+     */
+    private final BusinessQueryPlanner queryPlanner;
+
+    /**
+     * Serves the Business read endpoints stale while the database is slow
+     */
+    private final ReadCacheService readCache;
+
+    /**
+     * Derives the ETags of a Business and its Posts, Reviews and Hours from their versions
+     */
+    private final ETagService eTagService;
+
+    /**
+     * Pushes writes to Posts to the clients following their Businesses
+     */
+    private final PostStreamService postStreams;
+
     /**
      * All-args constructor
      * @param bizService service class for Business
      * @param reviewsService service class for Review
      * @param postService service class for Post
      * @param hoursService service class for Hours
+     * @param spatialIndex in-memory index of Business locations
+     * @param clusterIndex precomputed map clusters for each zoom level
+     * @param searchIndex full-text index of Businesses
+     * @param nameSuggester trie of Business names for type-ahead suggestions
+     * @param fuzzyIndex trigram index of Business names
+     * @param facetIndex running facet counts of Businesses
+     * @param queryPlanner planner for searches with several filters
+     * @param readCache stale-while-revalidate cache of the read endpoints
+     * @param eTagService ETags of the read endpoints
+     * @param postStreams Server-Sent Event streams of Posts
      */
     @Autowired
     public BusinessController (BusinessService bizService, ReviewsService reviewsService,
                                PostService postService, HoursService hoursService, UserService userService,
-                               JwtParser jwtParser) {
+                               JwtParser jwtParser, BusinessSpatialIndex spatialIndex,
+                               BusinessClusterIndex clusterIndex, BusinessSearchIndex searchIndex,
+                               BusinessNameSuggester nameSuggester, BusinessFuzzyIndex fuzzyIndex,
+                               BusinessFacetIndex facetIndex, BusinessQueryPlanner queryPlanner,
+                               ReadCacheService readCache, ETagService eTagService,
+                               PostStreamService postStreams) {
         this.bizService = bizService;
         this.reviewsService = reviewsService;
         this.postService = postService;
         this.hoursService = hoursService;
         this.userService = userService;
         this.jwtParser = jwtParser;
+        this.spatialIndex = spatialIndex;
+        this.clusterIndex = clusterIndex;
+        this.searchIndex = searchIndex;
+        this.nameSuggester = nameSuggester;
+        this.fuzzyIndex = fuzzyIndex;
+        this.facetIndex = facetIndex;
+        this.queryPlanner = queryPlanner;
+        this.readCache = readCache;
+        this.eTagService = eTagService;
+        this.postStreams = postStreams;
     }
 
     // ADMIN PRIVILEGES SECTION
 
     /**
-     * Handles an HTTPRequest for getting all Businesses
-     * @return a List of all Businesses
+     * Handles an HTTPRequest for getting a page of all Businesses. The cursor of the next page
+     * is returned in the X-Next-Cursor header.
+     * @param after the cursor from the previous page
+     * @param limit the maximum number of Businesses to return
+     * @param resp the HTTPServletResponse
+     * @return a List of Businesses
      */
     @ResponseStatus(HttpStatus.OK)
     @GetMapping(produces=MediaType.APPLICATION_JSON_VALUE)
-    public List<Business> getAllBusinesses() { return bizService.getAllBusinesses(); }
+    public List<Business> getAllBusinesses(@RequestParam(defaultValue = "0") int after,
+                                           @RequestParam(defaultValue = "50") int limit, HttpServletResponse resp) {
+        KeysetPage<Business> page = bizService.getAllBusinesses(after, limit);
+        if (page.hasNext()) {
+            resp.setHeader(KeysetPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return page.getItems();
+    }
+
+    /**
+     * Handles an HTTPRequest for getting several Businesses by Id in one request, such as
+     * GET /businesses?ids=1,2,3. Ids that don't match a Business are listed separately rather
+     * than failing the request.
+     * @param ids the ids of the desired Businesses
+     * @return a BusinessBatch of the Businesses in the order of the ids, and the missing ids
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping(params = "ids", produces = MediaType.APPLICATION_JSON_VALUE)
+    public BusinessBatch getBusinessesByIds(@RequestParam List<Integer> ids) {
+        return bizService.getBusinessBatch(ids);
+    }
+
+    /**
+     * Handles an HTTPRequest for getting a page of map pins for all Businesses. Pins only hold
+     * the fields the map needs, so no Reviews, Hours or Posts are loaded. The cursor of the next
+     * page is returned in the X-Next-Cursor header.
+     * @param after the cursor from the previous page
+     * @param limit the maximum number of pins to return
+     * @param resp the HTTPServletResponse
+     * @return a List of BusinessPin objects
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping(path = "/pins", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<BusinessPin> getBusinessPins(@RequestParam(defaultValue = "0") int after,
+                                             @RequestParam(defaultValue = "1000") int limit, HttpServletResponse resp) {
+        KeysetPage<BusinessPin> page = bizService.getBusinessPins(after, limit);
+        if (page.hasNext()) {
+            resp.setHeader(KeysetPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return page.getItems();
+    }
 
     /**
-     * Handles an HTTPRequest for getting a Business by Id
+     * Handles an HTTPRequest for getting a Business by Id. Answers 304 when the If-None-Match
+     * header holds the ETag of the cached Business.
      * @param id the id of the desired Business
+     * @param request the WebRequest
      * @return the Business object that corresponds to the given Id
      */
-    @ResponseStatus(HttpStatus.OK)
     @GetMapping(path = "/id/{id}")
     // @Secured(allowedRoles = {"ADMIN"})
-    public Business getBusinessById(@PathVariable int id) { return bizService.getBusinessById(id); }
+    public Business getBusinessById(@PathVariable int id, WebRequest request) {
+        TaggedValue<Business> business = readBusiness(id);
+        return notModified(request, business.getETag()) ? null : business.getValue();
+    }
 
     /**
      * Handles an HTTPRequest for deleting a Review by Id
@@ -196,7 +338,9 @@ public class BusinessController {
      */
     @ResponseStatus(HttpStatus.OK)
     @GetMapping(path = "/name/{businessName}")
-    public Business getBusinessByName(@PathVariable String businessName) { return bizService.getBusinessByBusinessName(businessName); }
+    public Business getBusinessByName(@PathVariable String businessName) {
+        return readBusiness(bizService.getBusinessByBusinessName(businessName).getId()).getValue();
+    }
 
     /**
      * Handles an HTTPRequest for getting a Business by email
@@ -205,7 +349,9 @@ public class BusinessController {
      */
     @ResponseStatus(HttpStatus.OK)
     @GetMapping(path = "/email/{email}")
-    public Business getBusinessByEmail(@PathVariable String email) { return bizService.getBusinessByEmail(email); }
+    public Business getBusinessByEmail(@PathVariable String email) {
+        return readBusiness(bizService.getBusinessByEmail(email).getId()).getValue();
+    }
 
     /**
      * Handles an HTTPRequest for getting a Business by location
@@ -232,40 +378,209 @@ public class BusinessController {
         return bizService.getBusinessesByType(type);
     }
 
+    /**
+     * Handles an HTTPRequest for getting the Businesses near a point, closest first
+     * @param lat the latitude of the point
+     * @param lon the longitude of the point
+     * @param radiusMeters the search radius in meters
+     * @param limit the maximum number of Businesses to return
+     * @return a List of Business objects sorted by distance
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping(path = "/near", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<Business> getBusinessesNear(@RequestParam double lat, @RequestParam double lon,
+                                            @RequestParam(defaultValue = "5000") double radiusMeters,
+                                            @RequestParam(defaultValue = "50") int limit) {
+        return bizService.getBusinessesNear(lat, lon, radiusMeters, limit);
+    }
+
+    /**
+     * Handles an HTTPRequest for getting every Business inside of a map viewport. Served from
+     * memory, without a database query.
+     * @param minLat the southern edge of the viewport
+     * @param minLon the western edge of the viewport
+     * @param maxLat the northern edge of the viewport
+     * @param maxLon the eastern edge of the viewport
+     * @param limit the maximum number of pins to return
+     * @return a List of BusinessPin objects inside the viewport
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping(path = "/bbox", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<BusinessPin> getBusinessesInBox(@RequestParam double minLat, @RequestParam double minLon,
+                                                @RequestParam double maxLat, @RequestParam double maxLon,
+                                                @RequestParam(defaultValue = "1000") int limit) {
+        return spatialIndex.findInBox(minLat, minLon, maxLat, maxLon, limit);
+    }
+
+    /**
+     * Handles an HTTPRequest for getting the map clusters inside of a viewport
+     * @param bbox the viewport as minLat,minLon,maxLat,maxLon
+     * @param zoom the map zoom level
+     * @return a List of BusinessCluster objects with their centroids and counts
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping(path = "/clusters", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<BusinessCluster> getBusinessClusters(@RequestParam double[] bbox, @RequestParam int zoom) {
+        if (bbox.length != 4) {
+            throw new InvalidRequestException("bbox must be minLat,minLon,maxLat,maxLon");
+        }
+        return clusterIndex.findClusters(bbox[0], bbox[1], bbox[2], bbox[3], zoom);
+    }
+
+    /**
+     * Handles an HTTPRequest for a search of Businesses, best match first. The default "text"
+     * mode is a full-text search where the last word of the query also matches as a prefix, so
+     * partial words can be searched while typing. The "fuzzy" mode only searches names and
+     * tolerates typos.
+     * @param q the search query
+     * @param mode either "text" or "fuzzy"
+     * @param limit the maximum number of Businesses to return
+     * @return a List of Business objects ranked by relevance
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping(path = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<Business> searchBusinesses(@RequestParam String q, @RequestParam(defaultValue = "text") String mode,
+                                           @RequestParam(defaultValue = "20") int limit) {
+        switch (mode) {
+            case "text":
+                return bizService.getBusinessesByIds(searchIndex.search(q, limit));
+            case "fuzzy":
+                return bizService.getBusinessesByIds(fuzzyIndex.search(q, limit));
+            default:
+                throw new InvalidRequestException("Search mode must be text or fuzzy.");
+        }
+    }
+
+    /**
+     * Handles an HTTPRequest for type-ahead suggestions of active Business names, most popular
+     * first. Served from memory, without a database query.
+     * @param prefix what the user has typed so far
+     * @param limit the maximum number of suggestions to return
+     * @return a List of BusinessSuggestion objects
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping(path = "/suggest", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<BusinessSuggestion> suggestBusinesses(@RequestParam String prefix,
+                                                      @RequestParam(defaultValue = "8") int limit) {
+        return nameSuggester.suggest(prefix, limit);
+    }
+
+    /**
+     * Handles an HTTPRequest for the number of active Businesses of each type, in each rating
+     * bucket and open right now. Served from precomputed counters.
+     * @return the BusinessFacets
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping(path = "/facets", produces = MediaType.APPLICATION_JSON_VALUE)
+    public BusinessFacets getBusinessFacets() {
+        return facetIndex.getFacets(LocalDateTime.now());
+    }
+
+    /**
+     * Handles an HTTPRequest for the active Businesses that match every given filter, such as
+     * "coffee shops within 2 km, rated 4 or more, open right now". At least one filter is
+     * required. Results are sorted by distance when a location is given, and by rating otherwise.
+     * @param type the Business type
+     * @param lat the latitude to search around
+     * @param lon the longitude to search around
+     * @param radiusMeters the distance from lat and lon to search within
+     * @param minRating the lowest average rating
+     * @param openNow whether the Businesses must be open right now
+     * @param limit the maximum number of Businesses to return
+     * @return a List of matching Business objects
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping(path = "/find", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<Business> findBusinesses(@RequestParam(required = false) String type,
+                                         @RequestParam(required = false) Double lat,
+                                         @RequestParam(required = false) Double lon,
+                                         @RequestParam(defaultValue = "5000") double radiusMeters,
+                                         @RequestParam(required = false) Double minRating,
+                                         @RequestParam(defaultValue = "false") boolean openNow,
+                                         @RequestParam(defaultValue = "50") int limit) {
+        List<Integer> ids = queryPlanner.find(type, lat, lon, radiusMeters, minRating,
+                openNow ? LocalDateTime.now() : null, limit);
+        return bizService.getBusinessesByIds(ids);
+    }
+
     /**
      * Handles an HTTPRequest for getting the Reviews of a Business
      * @param id the Id of the Business
+     * @param request the WebRequest
      * @return a List of Review objects
      */
-    @ResponseStatus(HttpStatus.OK)
     @GetMapping(path = "/id/{id}/reviews")
-    public List<Review> getBusinessReviews(@PathVariable int id) {
-        Business biz =  bizService.getBusinessById(id);
-        return reviewsService.findReviewsByBusiness(biz);
+    public List<Review> getBusinessReviews(@PathVariable int id, WebRequest request) {
+        TaggedValue<List<Review>> reviews = readCache.get(Endpoint.REVIEWS, id, () -> {
+            Business business = bizService.getBusinessById(id);
+            List<Review> rows = reviewsService.findReviewsByBusiness(business);
+            return new TaggedValue<>(rows, eTagService.getReviewsETag(business, rows));
+        });
+        return notModified(request, reviews.getETag()) ? null : reviews.getValue();
     }
 
     /**
      * Handles an HTTPRequest for getting the Hours of a Business
      * @param id the Id of the Business
+     * @param request the WebRequest
      * @return a List of Hours
      */
-    @ResponseStatus(HttpStatus.OK)
     @GetMapping(path = "/id/{id}/hours")
-    public List<Hours> getBusinessHours(@PathVariable int id) {
-        Business biz =  bizService.getBusinessById(id);
-        return hoursService.findHoursByBusiness(biz);
+    public List<Hours> getBusinessHours(@PathVariable int id, WebRequest request) {
+        TaggedValue<List<Hours>> hours = readCache.get(Endpoint.HOURS, id, () -> {
+            Business business = bizService.getBusinessById(id);
+            List<Hours> rows = hoursService.findHoursByBusiness(business);
+            return new TaggedValue<>(rows, eTagService.getHoursETag(business, rows));
+        });
+        return notModified(request, hours.getETag()) ? null : hours.getValue();
     }
 
     /**
-     * Handles an HTTPRequest for getting the Posts for a Business
+     * Handles an HTTPRequest for getting the Posts for a Business. Without a cursor or limit every
+     * Post is returned; with either, one page of Posts is returned, newest first, and the cursor
+     * of the next page is returned in the X-Next-Cursor header.
      * @param id the id value of the business
+     * @param cursor the cursor from the previous page
+     * @param limit the maximum number of Posts to return
+     * @param request the WebRequest
+     * @param resp the HttpServletResponse object
      * @return a List of Posts
      */
-    @ResponseStatus(HttpStatus.OK)
     @GetMapping(path = "/id/{id}/posts")
-    public List<Post> getBusinessPosts(@PathVariable int id) {
-        Business biz =  bizService.getBusinessById(id);
-        return postService.findPostsByBusiness(biz);
+    public List<Post> getBusinessPosts(@PathVariable int id, @RequestParam(required = false) String cursor,
+                                       @RequestParam(required = false) Integer limit, WebRequest request,
+                                       HttpServletResponse resp) {
+        if (cursor == null && limit == null) {
+            TaggedValue<List<Post>> posts = readCache.get(Endpoint.POSTS, id, () -> {
+                Business business = bizService.getBusinessById(id);
+                List<Post> rows = postService.findPostsByBusiness(business);
+                return new TaggedValue<>(rows, eTagService.getPostsETag(business, rows));
+            });
+            return notModified(request, posts.getETag()) ? null : posts.getValue();
+        }
+
+        KeysetPage<Post> page = postService.getPostsByBusiness(id, cursor, limit == null ? 20 : limit);
+        // a Business without Posts and a missing Business both give an empty page
+        if (page.getItems().isEmpty() && !bizService.existsById(id)) {
+            throw new ResourceNotFoundException();
+        }
+        if (notModified(request, eTagService.getPostsPageETag(id, page.getItems()))) return null;
+        if (page.hasNext()) {
+            resp.setHeader(KeysetPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return page.getItems();
+    }
+
+    /**
+     * Handles an HTTPRequest for a Server-Sent Event stream of the Posts of some Businesses,
+     * such as GET /businesses/posts/stream?ids=1,2,3. Every Post created, updated or deleted
+     * for one of the Businesses is pushed as it is written.
+     * @param ids the ids of the Businesses to follow
+     * @return the SseEmitter of the stream
+     */
+    @GetMapping(path = "/posts/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBusinessPosts(@RequestParam List<Integer> ids) {
+        return postStreams.subscribe(ids);
     }
 
     /**
@@ -335,6 +650,29 @@ public class BusinessController {
         // Return the User found by the username from the Principal
         return userService.getUserByUsername(principal.getUsername());
     }
-}
 
+    /**
+     * Gets a Business with its Reviews, Hours and Posts, and its ETag, through the read cache
+     * @param id the id of the Business
+     * @return the TaggedValue of the Business
+     */
+    private TaggedValue<Business> readBusiness(int id) {
+        return readCache.get(Endpoint.BUSINESS, id, () -> {
+            Business business = bizService.getBusinessWithCollections(id);
+            return new TaggedValue<>(business, eTagService.getBusinessETag(business));
+        });
+    }
+
+    /**
+     * Checks the If-None-Match header of a request against the current ETag of a resource, and
+     * sets the ETag header of the response. Handlers using it must not be annotated with
+     * {@link ResponseStatus}, which would turn the 304 back into a 200.
+     * @param request the WebRequest
+     * @param eTag the current ETag, or null if the resource does not exist
+     * @return true if the response is a 304 and needs no body
+     */
+    private static boolean notModified(WebRequest request, String eTag) {
+        return eTag != null && request.checkNotModified(eTag);
+    }
 
+}
@@ -0,0 +1,94 @@
+package com.revature.web.controllers;
+
+import com.revature.dtos.CacheStats;
+import com.revature.dtos.FanOutStats;
+import com.revature.dtos.ReadCacheStats;
+import com.revature.services.BusinessChangeService;
+import com.revature.services.CacheStatsService;
+import com.revature.services.PostStreamService;
+import com.revature.services.ReadCacheService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The Controller Class that handles any HttpRequest for runtime statistics
+ */
+@RestController
+@RequestMapping("/stats")
+public class MetricsController {
+
+    /**
+     * The CacheStatsService object that gathers the cache counters
+     */
+    private final CacheStatsService cacheStatsService;
+
+    /**
+     * The ReadCacheService object that serves the read endpoints stale
+     */
+    private final ReadCacheService readCache;
+
+    /**
+     * The PostStreamService object that pushes Posts to clients
+     */
+    private final PostStreamService postStreams;
+
+    /**
+     * The BusinessChangeService object that pushes changes over WebSockets
+     */
+    private final BusinessChangeService businessChanges;
+
+    /**
+     * MetricsController all args constructor
+     * @param cacheStatsService the CacheStatsService given by Spring
+     * @param readCache the ReadCacheService given by Spring
+     * @param postStreams the PostStreamService given by Spring
+     * @param businessChanges the BusinessChangeService given by Spring
+     */
+    @Autowired
+    public MetricsController(CacheStatsService cacheStatsService, ReadCacheService readCache,
+                             PostStreamService postStreams, BusinessChangeService businessChanges) {
+        this.cacheStatsService = cacheStatsService;
+        this.readCache = readCache;
+        this.postStreams = postStreams;
+        this.businessChanges = businessChanges;
+    }
+
+    /**
+     * Handles an HTTPRequest for the hit and miss counts of the caches, including the
+     * Hibernate second level cache regions
+     * @return a List of CacheStats
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping(value = "/caches", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<CacheStats> getCacheStats() {
+        return cacheStatsService.getCacheStats();
+    }
+
+    /**
+     * Handles an HTTPRequest for the counters of the stale-while-revalidate endpoint caches,
+     * including how often each endpoint was served stale
+     * @return a List of ReadCacheStats
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping(value = "/endpoints", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<ReadCacheStats> getEndpointStats() {
+        return readCache.getStats();
+    }
+
+    /**
+     * Handles an HTTPRequest for the counters of the pushed streams, including how many
+     * events were dropped for clients that fell behind
+     * @return a List of FanOutStats
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping(value = "/streams", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<FanOutStats> getStreamStats() {
+        return Arrays.asList(postStreams.getStats(), businessChanges.getStats());
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.revature.web.controllers;
+
+import com.revature.dtos.KeysetPage;
+import com.revature.models.Post;
+import com.revature.services.PostService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import javax.servlet.http.HttpServletResponse;
+import java.util.List;
+
+/**
+ * The Controller Class that handles any HttpRequest for {@link Post}s across all Businesses
+ */
+@RestController
+@RequestMapping("/posts")
+public class PostController {
+
+    /**
+     * The PostService object that handles data validation and Repository calls
+     */
+    private final PostService postService;
+
+    /**
+     * PostController all args constructor
+     * @param postService the PostService given by Spring
+     */
+    @Autowired
+    public PostController(PostService postService) {
+        this.postService = postService;
+    }
+
+    /**
+     * Handles an HTTPRequest for the Posts created or updated since a cursor, oldest write first.
+     * The cursor to pass as "since" next time is returned in the X-Next-Cursor header; a client
+     * syncs by repeating the request until it gets an empty page, and keeps the cursor for later.
+     * Posts written in the last few seconds are only returned once they are older than that.
+     * @param since the cursor from the previous request, or none to start from the oldest Post
+     * @param limit the maximum number of Posts to return
+     * @param resp the HttpServletResponse object
+     * @return a List of Posts
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<Post> getPostsSince(@RequestParam(required = false) String since,
+                                    @RequestParam(defaultValue = "100") int limit, HttpServletResponse resp) {
+        KeysetPage<Post> page = postService.getPostsSince(since, limit);
+        if (page.hasNext()) {
+            resp.setHeader(KeysetPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return page.getItems();
+    }
+
+}
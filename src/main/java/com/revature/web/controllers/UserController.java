@@ -1,11 +1,15 @@
 package com.revature.web.controllers;
 
 import at.favre.lib.crypto.bcrypt.BCrypt;
+import com.revature.dtos.KeysetPage;
 import com.revature.dtos.Principal;
 import com.revature.exceptions.ResourceNotFoundException;
 import com.revature.models.Business;
+import com.revature.models.Post;
 import com.revature.models.User;
+import com.revature.search.BusinessNameSuggester;
 import com.revature.services.BusinessService;
+import com.revature.services.FeedService;
 import com.revature.services.UserService;
 import com.revature.util.JwtParser;
 import com.revature.util.Secured;
@@ -42,28 +46,51 @@ public class UserController {
 
     private final BusinessService bizService;
 
+    /**
+     * The FeedService that builds the feed of a User's favorites
+     */
+    private final FeedService feedService;
+
+    /**
+     * The BusinessNameSuggester that ranks suggestions by favorites
+     */
+    private final BusinessNameSuggester nameSuggester;
 
     /**
      * UserController all args constructor
      * @param userService the UserService given by Spring
      * @param jwtParser the JwtParser given by Spring
+     * @param feedService the FeedService given by Spring
+     * @param nameSuggester the BusinessNameSuggester given by Spring
      */
     @Autowired
-    public UserController (UserService userService, JwtParser jwtParser, BusinessService bizService) {
+    public UserController (UserService userService, JwtParser jwtParser, BusinessService bizService,
+                           FeedService feedService, BusinessNameSuggester nameSuggester) {
         this.userService = userService;
         this.jwtParser = jwtParser;
         this.bizService = bizService;
+        this.feedService = feedService;
+        this.nameSuggester = nameSuggester;
     }
 
     /**
-     * Handles an HTTPRequest for getting all users
-     * @return a List of all Users
+     * Handles an HTTPRequest for getting a page of all users. The cursor of the next page
+     * is returned in the X-Next-Cursor header.
+     * @param after the cursor from the previous page
+     * @param limit the maximum number of Users to return
+     * @param resp the HttpServletResponse object
+     * @return a List of Users
      */
     // @Secured(allowedRoles = "ADMIN")
     @ResponseStatus(HttpStatus.OK)
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public List<User> getAllUsers() {
-        return userService.getAllUsers();
+    public List<User> getAllUsers(@RequestParam(defaultValue = "0") int after,
+                                  @RequestParam(defaultValue = "50") int limit, HttpServletResponse resp) {
+        KeysetPage<User> page = userService.getAllUsers(after, limit);
+        if (page.hasNext()) {
+            resp.setHeader(KeysetPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return page.getItems();
     }
 
     /**
@@ -107,6 +134,27 @@ public class UserController {
         return userService.getUserById(id);
     }
 
+    /**
+     * Handles an HTTPRequest for getting a page of the feed of a User: the Posts of the Businesses
+     * they have favorited, newest first. The cursor of the next page is returned in the
+     * X-Next-Cursor header.
+     * @param id the id value for the User
+     * @param cursor the cursor from the previous page
+     * @param limit the maximum number of Posts to return
+     * @param resp the HttpServletResponse object
+     * @return a List of Posts
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping(path = "/id/{id}/feed", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<Post> getFeed(@PathVariable int id, @RequestParam(required = false) String cursor,
+                              @RequestParam(defaultValue = "20") int limit, HttpServletResponse resp) {
+        KeysetPage<Post> page = feedService.getFeed(id, cursor, limit);
+        if (page.hasNext()) {
+            resp.setHeader(KeysetPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return page.getItems();
+    }
+
     /**
      * Handles an HTTPRequest for getting a User by their username
      * @param username the username of the desired User
@@ -173,6 +221,8 @@ public class UserController {
         Business bus = bizService.getBusinessById(id);
         user.getFavorites().add(bus);
         userService.updateProfile(user);
+        feedService.onFavoritesChanged(userId);
+        nameSuggester.onFavoritesChanged(id);
     }
 
     @DeleteMapping(path = "/favorites/businessId/{id}/user/{userId}")
@@ -180,8 +230,11 @@ public class UserController {
         User user = userService.getUserById(userId);
         /*User user = getUserFromJwt(req);*/
         Business bus = bizService.getBusinessById(id);
-        user.getFavorites().remove(bus);
+        // match by id, the Business may be a cached copy rather than the one in the list
+        user.getFavorites().removeIf(favorite -> favorite.getId().equals(bus.getId()));
         userService.updateProfile(user);
+        feedService.onFavoritesChanged(userId);
+        nameSuggester.onFavoritesChanged(id);
     }
 
     /**
@@ -0,0 +1,110 @@
+package com.revature.web.sockets;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revature.dtos.Viewport;
+import com.revature.exceptions.InvalidRequestException;
+import com.revature.services.BusinessChangeService;
+import com.revature.util.FanOutHub;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Handles the WebSocket at /ws/businesses, which pushes changes to the Posts, Reviews and Hours
+ * of the Businesses in a client's map viewport.
+ *
+ * The client sends its viewport as {"minLat":..,"minLon":..,"maxLat":..,"maxLon":..} whenever the
+ * map moves, and is answered with {"kind":"viewport","businesses":n}. Changes then arrive as
+ * {@link com.revature.dtos.BusinessChange} objects. A message that isn't a valid viewport is
+ * answered with {"kind":"error"} and the previous viewport is kept.
+ */
+@Component
+public class BusinessChangeSocketHandler extends TextWebSocketHandler {
+
+    /**
+     * Longest time in milliseconds a single send to a client may take before it is disconnected
+     */
+    public static final int SEND_TIME_LIMIT_MS = 10_000;
+
+    /**
+     * Most bytes buffered for a client while another send to it is in progress
+     */
+    public static final int SEND_BUFFER_LIMIT = 512 * 1024;
+
+    private static final String SUBSCRIPTION = "subscription";
+    private static final String SENDER = "sender";
+
+    private final BusinessChangeService changes;
+    private final ObjectMapper mapper;
+
+    /**
+     * Constructor for BusinessChangeSocketHandler
+     * @param changes the BusinessChangeService
+     * @param mapper the ObjectMapper used for responses
+     */
+    @Autowired
+    public BusinessChangeSocketHandler(BusinessChangeService changes, ObjectMapper mapper) {
+        this.changes = changes;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        WebSocketSession sender = new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MS,
+                SEND_BUFFER_LIMIT, ConcurrentWebSocketSessionDecorator.OverflowStrategy.DROP);
+        session.getAttributes().put(SENDER, sender);
+        session.getAttributes().put(SUBSCRIPTION, changes.subscribe(sender::sendMessage, () -> disconnect(session)));
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        Map<String, Object> reply = new LinkedHashMap<>();
+        try {
+            Viewport viewport = mapper.readValue(message.getPayload(), Viewport.class);
+            reply.put("kind", "viewport");
+            reply.put("businesses", changes.setViewport(subscription(session), viewport));
+        } catch (JsonProcessingException | InvalidRequestException e) {
+            reply.put("kind", "error");
+            reply.put("message", e instanceof InvalidRequestException ? e.getMessage() : "Viewport is invalid.");
+        }
+        sender(session).sendMessage(new TextMessage(mapper.writeValueAsString(reply)));
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        FanOutHub<?, ?>.Subscription subscription = (FanOutHub<?, ?>.Subscription) session.getAttributes().get(SUBSCRIPTION);
+        if (subscription != null) {
+            subscription.close();
+        }
+    }
+
+    /**
+     * Drops a client whose send has stalled; closing the session fails the blocked write
+     */
+    private static void disconnect(WebSocketSession session) {
+        try {
+            session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException e) {
+            // already gone
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static FanOutHub<Integer, TextMessage>.Subscription subscription(WebSocketSession session) {
+        return (FanOutHub<Integer, TextMessage>.Subscription) session.getAttributes().get(SUBSCRIPTION);
+    }
+
+    private static WebSocketSession sender(WebSocketSession session) {
+        return (WebSocketSession) session.getAttributes().get(SENDER);
+    }
+
+}
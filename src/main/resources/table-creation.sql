@@ -48,9 +48,13 @@ create table business (
 	email varchar(320) not null unique,
 	business_name varchar(25) not null,
 	location varchar(100) not null,
+	latitude double precision,
+	longitude double precision,
+	geohash varchar(12),
 	business_type varchar,
 	register_datetime timestamp default localtimestamp,
 	is_active boolean,
+	version bigint default 0 not null,
 	
 	constraint business_pk
 	primary key (business_id),
@@ -60,12 +64,17 @@ create table business (
 	references app_users
 );
 
+-- varchar_pattern_ops lets "geohash like 'prefix%'" use the index
+create index business_geohash_idx on business (geohash varchar_pattern_ops);
+
 create table posts (
   post_id serial,
   business_id int,
   post_type varchar(255),
   body varchar(2056) not null,
   created_time timestamp default localtimestamp,
+  modified_time timestamp default localtimestamp,
+  version bigint default 0 not null,
   
   constraint posts_pk
   primary key (post_id),
@@ -75,12 +84,18 @@ create table posts (
   references business
 );
 
+-- serves the lookups by business as well as the newest first pages of a business's posts
+create index posts_business_created_idx on posts (business_id, created_time desc, post_id desc);
+-- serves the sync of the posts modified after a cursor
+create index posts_modified_idx on posts (modified_time, post_id);
+
 create table business_hours (
 	hours_id serial,
 	business_id int not null,
 	day int not null,
 	open timestamp not null,
 	closed timestamp not null,
+	version bigint default 0 not null,
 	
 	constraint business_hours_pk
 	primary key (hours_id),
@@ -90,6 +105,8 @@ create table business_hours (
 	references business
 );
 
+create index business_hours_business_idx on business_hours (business_id);
+
 create table user_favorites (
 	user_id int,
 	business_id int,
@@ -112,6 +129,7 @@ create table business_reviews (
 	user_id int not null,
 	rating double precision not null,
 	review varchar default '',
+	version bigint default 0 not null,
 	
 	constraint business_reviews_pk
 	primary key (review_id),
@@ -125,5 +143,7 @@ create table business_reviews (
 	references app_users
 );
 
+create index business_reviews_business_idx on business_reviews (business_id);
+
 INSERT INTO app_users (username, password, firstname, lastname, email, phone_number ) VALUES ('wsingleton', 'revature', 'Wezley', 'Singleton', 'phone0', 'wezley.singleton@revature.com', true);
 INSERT INTO app_users (username, password, firstname, lastname, email, phone_number ) VALUES ('0x', 'pass', 'fname', 'lname', 'phone', 'wezley.singleton@revature.com', true);
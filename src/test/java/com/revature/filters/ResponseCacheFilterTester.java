@@ -0,0 +1,163 @@
+package com.revature.filters;
+
+import com.revature.events.BusinessEvent;
+import com.revature.events.ChangeType;
+import com.revature.services.ResponseCacheService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResponseCacheFilterTester {
+
+    ResponseCacheService responseCache;
+    ResponseCacheFilter filter;
+    AtomicInteger renders;
+
+    /**
+     * Stands in for the controller: renders a JSON body that changes on every call
+     */
+    HttpServlet controller = new HttpServlet() {
+        @Override
+        protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+            resp.setContentType("application/json");
+            resp.setHeader("ETag", "W/\"posts-1-0\"");
+            resp.getWriter().write("{\"render\":" + renders.incrementAndGet() + "}");
+        }
+    };
+
+    @BeforeEach
+    public void setup() {
+        responseCache = new ResponseCacheService();
+        filter = new ResponseCacheFilter(responseCache);
+        renders = new AtomicInteger();
+    }
+
+    private MockHttpServletResponse get(String uri, String acceptEncoding) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        if (acceptEncoding != null) {
+            request.addHeader("Accept-Encoding", acceptEncoding);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(controller));
+        return response;
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[256];
+            for (int n; (n = in.read(buffer)) > 0; ) {
+                out.write(buffer, 0, n);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    @DisplayName("Verifying a second GET is served from the cached bytes, plain or gzipped")
+    public void cachedGet() throws Exception {
+        MockHttpServletResponse first = get("/businesses/id/1/posts", null);
+        assertEquals("{\"render\":1}", first.getContentAsString());
+        assertEquals("MISS", first.getHeader(ResponseCacheFilter.CACHE_HEADER));
+
+        MockHttpServletResponse second = get("/businesses/id/1/posts", null);
+        assertEquals("{\"render\":1}", second.getContentAsString());
+        assertEquals("HIT", second.getHeader(ResponseCacheFilter.CACHE_HEADER));
+
+        MockHttpServletResponse gzipped = get("/businesses/id/1/posts", "gzip, deflate");
+        assertEquals("gzip", gzipped.getHeader("Content-Encoding"));
+        assertEquals("{\"render\":1}", gunzip(gzipped.getContentAsByteArray()));
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    @DisplayName("Verifying a hit answers 304 when If-None-Match holds the stored ETag")
+    public void conditionalGet() throws Exception {
+        get("/businesses/id/1/posts", null);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/businesses/id/1/posts");
+        request.addHeader("If-None-Match", "\"other\", W/\"posts-1-0\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(controller));
+
+        assertEquals(304, response.getStatus());
+        assertEquals("W/\"posts-1-0\"", response.getHeader("ETag"));
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    @DisplayName("Verifying a write to the Business makes its cached bodies miss")
+    public void writeInvalidates() throws Exception {
+        get("/businesses/id/1", null);
+        get("/businesses/id/2", null);
+
+        responseCache.onBusinessEvent(new BusinessEvent(ChangeType.UPDATED, 1));
+        assertEquals("{\"render\":3}", get("/businesses/id/1", null).getContentAsString());
+        assertEquals("{\"render\":2}", get("/businesses/id/2", null).getContentAsString());
+    }
+
+    @Test
+    @DisplayName("Verifying gzip is only sent when Accept-Encoding gives it a q-value above 0")
+    public void acceptEncodingQuality() throws Exception {
+        get("/businesses/id/1/posts", null);
+
+        assertNull(get("/businesses/id/1/posts", "gzip;q=0, deflate").getHeader("Content-Encoding"));
+        assertNull(get("/businesses/id/1/posts", "*;q=0.5, gzip;q=0").getHeader("Content-Encoding"));
+        assertNull(get("/businesses/id/1/posts", "identity").getHeader("Content-Encoding"));
+        assertEquals("gzip", get("/businesses/id/1/posts", "gzip;q=0.3, identity").getHeader("Content-Encoding"));
+        assertEquals("gzip", get("/businesses/id/1/posts", "br, *").getHeader("Content-Encoding"));
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    @DisplayName("Verifying cached JSON is only served when JSON is the preferred type")
+    public void acceptQuality() throws Exception {
+        get("/businesses/id/1/posts", null);
+
+        for (String accept : new String[] { "application/cbor, application/json;q=0.5", "application/json;q=0, */*" }) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/businesses/id/1/posts");
+            request.addHeader("Accept", accept);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, new MockFilterChain(controller));
+            assertNull(response.getHeader(ResponseCacheFilter.CACHE_HEADER));
+        }
+        assertEquals(3, renders.get());
+
+        MockHttpServletRequest preferred = new MockHttpServletRequest("GET", "/businesses/id/1/posts");
+        preferred.addHeader("Accept", "application/cbor;q=0.5, application/json");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(preferred, response, new MockFilterChain(controller));
+        assertEquals("HIT", response.getHeader(ResponseCacheFilter.CACHE_HEADER));
+    }
+
+    @Test
+    @DisplayName("Verifying other requests pass through without being cached")
+    public void passThrough() throws Exception {
+        get("/businesses/type/bakery", null);
+        get("/businesses/type/bakery", null);
+        assertEquals(2, renders.get());
+
+        MockHttpServletRequest withQuery = new MockHttpServletRequest("GET", "/businesses/id/1");
+        withQuery.setQueryString("fields=id");
+        filter.doFilter(withQuery, new MockHttpServletResponse(), new MockFilterChain(controller));
+        filter.doFilter(withQuery, new MockHttpServletResponse(), new MockFilterChain(controller));
+        assertEquals(4, renders.get());
+    }
+
+}
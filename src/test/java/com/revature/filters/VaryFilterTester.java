@@ -0,0 +1,51 @@
+package com.revature.filters;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VaryFilterTester {
+
+    VaryFilter filter = new VaryFilter();
+
+    /**
+     * Stands in for the controller: answers 304 to every GET
+     */
+    HttpServlet controller = new HttpServlet() {
+        @Override
+        protected void doGet(HttpServletRequest req, HttpServletResponse resp) {
+            resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        }
+    };
+
+    private MockHttpServletResponse perform(String method) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(method, "/businesses/id/1"), response,
+                new MockFilterChain(controller));
+        return response;
+    }
+
+    @Test
+    @DisplayName("Verifying every GET response, 304s included, varies by Accept and Accept-Encoding")
+    public void varyOnGet() throws Exception {
+        MockHttpServletResponse response = perform("GET");
+
+        assertEquals(HttpServletResponse.SC_NOT_MODIFIED, response.getStatus());
+        assertEquals("Accept, Accept-Encoding", response.getHeader("Vary"));
+    }
+
+    @Test
+    @DisplayName("Verifying writes are left alone")
+    public void noVaryOnWrite() throws Exception {
+        assertNull(perform("PUT").getHeader("Vary"));
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.revature.search;
+
+import com.revature.dtos.BusinessCluster;
+import com.revature.exceptions.InvalidRequestException;
+import com.revature.models.Business;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BusinessClusterIndexTester {
+
+    BusinessClusterIndex index;
+    List<Business> list;
+
+    @BeforeEach
+    public void setup() {
+        index = new BusinessClusterIndex();
+        list = new ArrayList<>();
+
+        // three businesses a few blocks apart in St. Louis and one in Kansas City
+        list.add(business(1, 38.6270, -90.1994));
+        list.add(business(2, 38.6280, -90.1910));
+        list.add(business(3, 38.6300, -90.1950));
+        list.add(business(4, 39.0997, -94.5786));
+        index.rebuild(list);
+    }
+
+    private Business business(int id, Double lat, Double lon) {
+        Business business = new Business();
+        business.setId(id);
+        business.setLatitude(lat);
+        business.setLongitude(lon);
+        return business;
+    }
+
+    private int total(List<BusinessCluster> clusters) {
+        return clusters.stream().mapToInt(BusinessCluster::getCount).sum();
+    }
+
+    @Test
+    @DisplayName("Verifying findClusters() groups nearby businesses when zoomed out")
+    public void findClustersZoomedOut() {
+        assertEquals(1, index.findClusters(-85, -180, 85, 180, 2).size());
+
+        List<BusinessCluster> clusters = index.findClusters(-85, -180, 85, 180, 5);
+        assertEquals(2, clusters.size());
+        assertEquals(4, total(clusters));
+        BusinessCluster single = clusters.stream().filter(c -> c.getCount() == 1).findFirst().get();
+        assertEquals(Integer.valueOf(4), single.getBusinessId());
+    }
+
+    @Test
+    @DisplayName("Verifying findClusters() separates businesses when zoomed in")
+    public void findClustersZoomedIn() {
+        List<BusinessCluster> clusters = index.findClusters(38.6, -90.3, 38.7, -90.1, 18);
+
+        assertEquals(3, clusters.size());
+        assertTrue(clusters.stream().allMatch(c -> c.getCount() == 1 && c.getBusinessId() != null));
+    }
+
+    @Test
+    @DisplayName("Verifying put() and remove() update the clusters incrementally")
+    public void putAndRemove() {
+        index.put(business(4, 38.6290, -90.1960));
+        index.remove(1);
+
+        List<BusinessCluster> clusters = index.findClusters(-85, -180, 85, 180, 3);
+        assertEquals(1, clusters.size());
+        assertEquals(3, clusters.get(0).getCount());
+        assertEquals(38.629, clusters.get(0).getLatitude(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Verifying findClusters() throws for an invalid box or zoom")
+    public void findClustersInvalid() {
+        assertThrows(InvalidRequestException.class, () -> index.findClusters(40, 0, 30, 10, 3));
+        assertThrows(InvalidRequestException.class, () -> index.findClusters(0, 0, 10, 10, -1));
+    }
+
+}
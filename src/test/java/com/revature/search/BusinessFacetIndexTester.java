@@ -0,0 +1,159 @@
+package com.revature.search;
+
+import com.revature.dtos.BusinessFacets;
+import com.revature.events.ChangeType;
+import com.revature.events.HoursEvent;
+import com.revature.events.ReviewEvent;
+import com.revature.models.Business;
+import com.revature.models.Hours;
+import com.revature.models.Review;
+import com.revature.repos.BusinessRepository;
+import com.revature.repos.HoursRepository;
+import com.revature.repos.ReviewsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class BusinessFacetIndexTester {
+
+    // a Monday
+    static final LocalDateTime MONDAY_NOON = LocalDateTime.of(2020, 3, 16, 12, 0);
+
+    @Mock
+    BusinessRepository businessRepo;
+
+    @Mock
+    ReviewsRepository reviewsRepo;
+
+    @Mock
+    HoursRepository hoursRepo;
+
+    @InjectMocks
+    BusinessFacetIndex index;
+
+    List<Business> list;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+
+        list = new ArrayList<>();
+        list.add(business(1, "restaurant", true));
+        list.add(business(2, "restaurant", true));
+        list.add(business(3, "bookstore", true));
+        list.add(business(4, "bookstore", false));
+
+        List<Object[]> ratings = new ArrayList<>();
+        ratings.add(new Object[] { 1, 4.5 });
+        ratings.add(new Object[] { 2, 3.0 });
+        ratings.add(new Object[] { 4, 5.0 });
+        when(businessRepo.averageRatingByBusiness()).thenReturn(ratings);
+
+        // business 1 is open 8am - 9pm on Mondays, business 3 from 6pm Monday until 2am Tuesday
+        List<Object[]> hours = new ArrayList<>();
+        hours.add(new Object[] { 1, 1, 1, time("08:00"), time("21:00") });
+        hours.add(new Object[] { 2, 3, 1, time("18:00"), time("02:00") });
+        when(hoursRepo.findHoursAfter(eq(0), any(Pageable.class))).thenReturn(hours);
+        when(hoursRepo.findHoursAfter(eq(2), any(Pageable.class))).thenReturn(Collections.emptyList());
+
+        index.rebuild(list);
+    }
+
+    private Business business(int id, String type, boolean active) {
+        Business business = new Business();
+        business.setId(id);
+        business.setBusinessType(type);
+        business.setActive(active);
+        return business;
+    }
+
+    private static Timestamp time(String time) {
+        return Timestamp.valueOf("2020-03-14 " + time + ":00");
+    }
+
+    @Test
+    @DisplayName("Verifying getFacets() counts active businesses by type and rating")
+    public void getFacets() {
+        BusinessFacets facets = index.getFacets(MONDAY_NOON);
+        assertEquals(3, facets.getTotal());
+        assertEquals(Integer.valueOf(2), facets.getBusinessTypes().get("restaurant"));
+        assertEquals(Integer.valueOf(1), facets.getBusinessTypes().get("bookstore"));
+        assertEquals(Integer.valueOf(1), facets.getRatings().get("4-5"));
+        assertEquals(Integer.valueOf(1), facets.getRatings().get("3-4"));
+        assertEquals(Integer.valueOf(1), facets.getRatings().get("unrated"));
+    }
+
+    @Test
+    @DisplayName("Verifying getFacets() counts businesses open now, including past midnight")
+    public void getFacetsOpenNow() {
+        assertEquals(1, index.getFacets(MONDAY_NOON).getOpenNow());
+        assertEquals(2, index.getFacets(MONDAY_NOON.withHour(19)).getOpenNow());
+        assertEquals(1, index.getFacets(MONDAY_NOON.plusDays(1).withHour(1)).getOpenNow());
+        assertEquals(0, index.getFacets(MONDAY_NOON.plusDays(2)).getOpenNow());
+    }
+
+    @Test
+    @DisplayName("Verifying getFacets() follows Business, Review and Hours writes")
+    public void getFacetsAfterWrites() {
+        list.get(0).setActive(false);
+        index.put(list.get(0));
+        index.remove(3);
+        list.get(3).setActive(true);
+        index.put(list.get(3));
+
+        BusinessFacets facets = index.getFacets(MONDAY_NOON);
+        assertEquals(2, facets.getTotal());
+        assertEquals(0, facets.getOpenNow());
+        assertEquals(Integer.valueOf(1), facets.getBusinessTypes().get("restaurant"));
+        assertEquals(Integer.valueOf(1), facets.getRatings().get("4-5"));
+
+        Review review = new Review();
+        review.setBusiness(list.get(1));
+        when(reviewsRepo.averageRatingForBusiness(2)).thenReturn(1.5);
+        index.onReviewEvent(new ReviewEvent(ChangeType.CREATED, review));
+        assertEquals(Integer.valueOf(1), index.getFacets(MONDAY_NOON).getRatings().get("1-2"));
+
+        Hours hours = new Hours(9, list.get(1), 1, time("11:00"), time("13:00"), 0L);
+        when(hoursRepo.findHoursByBusinessId(2)).thenReturn(Collections.singletonList(hours));
+        index.onHoursEvent(new HoursEvent(ChangeType.CREATED, hours));
+        assertEquals(1, index.getFacets(MONDAY_NOON).getOpenNow());
+    }
+
+    @Test
+    @DisplayName("Verifying reconcile() keeps the writes applied while it reads the database")
+    public void reconcileReplaysWrites() {
+        List<Object[]> rows = new ArrayList<>();
+        for (Business business : list) {
+            rows.add(new Object[] { business.getId(), business.getBusinessType(), business.isActive() });
+        }
+        when(businessRepo.findBusinessFacetFields()).thenAnswer(invocation -> {
+            // written after the ratings and Hours were read but before the counters are swapped
+            index.put(business(5, "cafe", true));
+            index.remove(2);
+            return rows;
+        });
+
+        index.reconcile();
+
+        BusinessFacets facets = index.getFacets(MONDAY_NOON);
+        assertEquals(3, facets.getTotal());
+        assertEquals(Integer.valueOf(1), facets.getBusinessTypes().get("cafe"));
+        assertEquals(Integer.valueOf(1), facets.getBusinessTypes().get("restaurant"));
+        assertFalse(index.isActive(2));
+        assertTrue(index.isActive(5));
+    }
+
+}
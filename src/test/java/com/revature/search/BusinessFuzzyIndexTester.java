@@ -0,0 +1,82 @@
+package com.revature.search;
+
+import com.revature.exceptions.InvalidRequestException;
+import com.revature.models.Business;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BusinessFuzzyIndexTester {
+
+    BusinessFuzzyIndex index;
+    List<Business> list;
+
+    @BeforeEach
+    public void setup() {
+        index = new BusinessFuzzyIndex();
+        list = new ArrayList<>();
+        list.add(business(1, "Pizza Palace"));
+        list.add(business(2, "Pizzeria Uno"));
+        list.add(business(3, "Tony's Pizza"));
+        list.add(business(4, "Corner Books"));
+        index.rebuild(list);
+    }
+
+    private Business business(int id, String name) {
+        Business business = new Business();
+        business.setId(id);
+        business.setBusinessName(name);
+        return business;
+    }
+
+    @Test
+    @DisplayName("Verifying search() finds names with typos, fewest edits first")
+    public void searchWithTypos() {
+        assertEquals(Arrays.asList(1), index.search("piza palce", 10));
+        assertEquals(Arrays.asList(4), index.search("Coner Boks", 10));
+        assertEquals(Arrays.asList(1, 3), index.search("pizza", 10));
+    }
+
+    @Test
+    @DisplayName("Verifying search() does not match names that are too far off")
+    public void searchTooFar() {
+        assertTrue(index.search("burger barn", 10).isEmpty());
+        assertTrue(index.search("pzz", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Verifying search() follows Business writes")
+    public void searchAfterWrites() {
+        list.get(3).setBusinessName("Corner Bakery");
+        index.put(list.get(3));
+        assertTrue(index.search("corner boks", 10).isEmpty());
+        assertEquals(Arrays.asList(4), index.search("corner bakry", 10));
+
+        index.remove(1);
+        assertTrue(index.search("piza palce", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Verifying search() rejects empty queries and bad limits")
+    public void searchInvalid() {
+        assertThrows(InvalidRequestException.class, () -> index.search("", 10));
+        assertThrows(InvalidRequestException.class, () -> index.search("pizza", 0));
+        assertThrows(InvalidRequestException.class, () -> index.search("pizza", BusinessFuzzyIndex.MAX_RESULTS + 1));
+    }
+
+    @Test
+    @DisplayName("Verifying editDistance() stops at the bound")
+    public void editDistanceBounded() {
+        assertEquals(0, TextAnalyzer.editDistance("pizza", "pizza", 2));
+        assertEquals(1, TextAnalyzer.editDistance("piza", "pizza", 2));
+        assertEquals(2, TextAnalyzer.editDistance("plaza", "place", 2));
+        assertEquals(3, TextAnalyzer.editDistance("pizza", "burger", 2));
+    }
+
+}
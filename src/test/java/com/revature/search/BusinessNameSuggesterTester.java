@@ -0,0 +1,137 @@
+package com.revature.search;
+
+import com.revature.dtos.BusinessSuggestion;
+import com.revature.events.ChangeType;
+import com.revature.events.ReviewEvent;
+import com.revature.exceptions.InvalidRequestException;
+import com.revature.models.Business;
+import com.revature.models.Review;
+import com.revature.repos.BusinessRepository;
+import com.revature.repos.ReviewsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class BusinessNameSuggesterTester {
+
+    @Mock
+    BusinessRepository businessRepo;
+
+    @Mock
+    ReviewsRepository reviewsRepo;
+
+    @InjectMocks
+    BusinessNameSuggester suggester;
+
+    List<Business> list;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+
+        list = new ArrayList<>();
+        list.add(business(1, "Pizza Palace", true));
+        list.add(business(2, "Pizzeria Uno", true));
+        list.add(business(3, "Tony's Pizza", true));
+        list.add(business(4, "Pizza Hut", false));
+
+        // Pizzeria Uno has the most favorites, Pizza Palace and Tony's tie but Tony's is rated higher
+        List<Object[]> favorites = new ArrayList<>();
+        favorites.add(new Object[] { 2, 5L });
+        favorites.add(new Object[] { 1, 2L });
+        favorites.add(new Object[] { 3, 2L });
+        List<Object[]> ratings = new ArrayList<>();
+        ratings.add(new Object[] { 1, 3.5 });
+        ratings.add(new Object[] { 3, 4.5 });
+        when(businessRepo.countFavoritesByBusiness()).thenReturn(favorites);
+        when(businessRepo.averageRatingByBusiness()).thenReturn(ratings);
+
+        suggester.rebuild(list);
+    }
+
+    private Business business(int id, String name, boolean active) {
+        Business business = new Business();
+        business.setId(id);
+        business.setBusinessName(name);
+        business.setBusinessType("restaurant");
+        business.setActive(active);
+        return business;
+    }
+
+    private List<Integer> ids(List<BusinessSuggestion> suggestions) {
+        return suggestions.stream().map(BusinessSuggestion::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Verifying suggest() orders active matches by popularity")
+    public void suggestByPopularity() {
+        assertEquals(Arrays.asList(2, 3, 1), ids(suggester.suggest("piz", 10)));
+        assertEquals(Arrays.asList(3, 1), ids(suggester.suggest("Pizza", 10)));
+        assertEquals(Arrays.asList(2), ids(suggester.suggest("piz", 1)));
+    }
+
+    @Test
+    @DisplayName("Verifying suggest() matches the start of any word and ignores punctuation")
+    public void suggestWords() {
+        assertEquals(Arrays.asList(3), ids(suggester.suggest("TONY'S p", 10)));
+        assertEquals(Arrays.asList(1), ids(suggester.suggest("palace", 10)));
+        assertEquals(Arrays.asList(1), ids(suggester.suggest("pizza ", 10)));
+        assertTrue(suggester.suggest("burger", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Verifying suggest() follows Business writes")
+    public void suggestAfterWrites() {
+        list.get(3).setActive(true);
+        suggester.put(list.get(3));
+        assertEquals(Arrays.asList(3, 1, 4), ids(suggester.suggest("pizza", 10)));
+
+        list.get(0).setBusinessName("Burger Palace");
+        suggester.put(list.get(0));
+        assertEquals(Arrays.asList(3, 4), ids(suggester.suggest("pizza", 10)));
+        assertEquals(Arrays.asList(1), ids(suggester.suggest("bur", 10)));
+
+        suggester.remove(2);
+        assertTrue(suggester.suggest("pizzer", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Verifying suggest() follows Reviews and favorites")
+    public void suggestAfterPopularityChanges() {
+        // Pizza Palace gets a better rating than Tony's, then overtakes Pizzeria Uno in favorites
+        Review review = new Review();
+        review.setBusiness(list.get(0));
+        when(reviewsRepo.averageRatingForBusiness(1)).thenReturn(4.8);
+        when(businessRepo.countFavoritesForBusiness(1)).thenReturn(2L);
+        suggester.onReviewEvent(new ReviewEvent(ChangeType.CREATED, review));
+        assertEquals(Arrays.asList(2, 1, 3), ids(suggester.suggest("piz", 10)));
+
+        when(businessRepo.countFavoritesForBusiness(1)).thenReturn(6L);
+        suggester.onFavoritesChanged(1);
+        assertEquals(Arrays.asList(1, 2, 3), ids(suggester.suggest("piz", 10)));
+
+        // the weight is kept when the Business is written again
+        suggester.put(list.get(0));
+        assertEquals(Arrays.asList(1, 2, 3), ids(suggester.suggest("piz", 10)));
+    }
+
+    @Test
+    @DisplayName("Verifying suggest() rejects a missing prefix and bad limits")
+    public void suggestInvalid() {
+        assertThrows(InvalidRequestException.class, () -> suggester.suggest(null, 5));
+        assertThrows(InvalidRequestException.class, () -> suggester.suggest("p", 0));
+        assertThrows(InvalidRequestException.class, () -> suggester.suggest("p", BusinessNameSuggester.MAX_SUGGESTIONS + 1));
+    }
+
+}
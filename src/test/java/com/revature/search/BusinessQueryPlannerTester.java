@@ -0,0 +1,150 @@
+package com.revature.search;
+
+import com.revature.exceptions.InvalidRequestException;
+import com.revature.models.Business;
+import com.revature.repos.BusinessRepository;
+import com.revature.repos.HoursRepository;
+import com.revature.repos.ReviewsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class BusinessQueryPlannerTester {
+
+    // a Monday
+    static final LocalDateTime MONDAY_NOON = LocalDateTime.of(2020, 3, 16, 12, 0);
+
+    @Mock
+    BusinessRepository businessRepo;
+
+    @Mock
+    ReviewsRepository reviewsRepo;
+
+    @Mock
+    HoursRepository hoursRepo;
+
+    BusinessSpatialIndex spatialIndex;
+    BusinessFacetIndex facetIndex;
+    BusinessQueryPlanner planner;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+
+        // three coffee shops and a bakery downtown, and a coffee shop in Kansas City
+        List<Business> list = new ArrayList<>();
+        list.add(business(1, "coffee", 38.6270, -90.1994));
+        list.add(business(2, "coffee", 38.6280, -90.1910));
+        list.add(business(3, "coffee", 38.6300, -90.1950));
+        list.add(business(4, "bakery", 38.6290, -90.1990));
+        list.add(business(5, "coffee", 39.0997, -94.5786));
+
+        List<Object[]> ratings = new ArrayList<>();
+        ratings.add(new Object[] { 1, 4.5 });
+        ratings.add(new Object[] { 2, 3.5 });
+        ratings.add(new Object[] { 3, 4.0 });
+        ratings.add(new Object[] { 4, 5.0 });
+        ratings.add(new Object[] { 5, 4.8 });
+        when(businessRepo.averageRatingByBusiness()).thenReturn(ratings);
+
+        // everything but business 3 is open on Monday afternoons
+        List<Object[]> hours = new ArrayList<>();
+        for (int id : new int[] { 1, 2, 4, 5 }) {
+            hours.add(new Object[] { id, id, 1, Timestamp.valueOf("2020-03-14 08:00:00"), Timestamp.valueOf("2020-03-14 18:00:00") });
+        }
+        when(hoursRepo.findHoursAfter(eq(0), any(Pageable.class))).thenReturn(hours);
+        when(hoursRepo.findHoursAfter(eq(5), any(Pageable.class))).thenReturn(Collections.emptyList());
+
+        spatialIndex = new BusinessSpatialIndex();
+        facetIndex = new BusinessFacetIndex(businessRepo, reviewsRepo, hoursRepo);
+        spatialIndex.rebuild(list);
+        facetIndex.rebuild(list);
+        planner = new BusinessQueryPlanner(spatialIndex, facetIndex);
+    }
+
+    private Business business(int id, String type, double lat, double lon) {
+        Business business = new Business();
+        business.setId(id);
+        business.setBusinessType(type);
+        business.setLatitude(lat);
+        business.setLongitude(lon);
+        business.setActive(true);
+        return business;
+    }
+
+    @Test
+    @DisplayName("Verifying find() intersects type, distance, rating and open now")
+    public void findAllFilters() {
+        assertEquals(Arrays.asList(1), planner.find("coffee", 38.6270, -90.1994, 2000, 4.0, MONDAY_NOON, 10));
+        assertEquals(Arrays.asList(1, 3), planner.find("coffee", 38.6270, -90.1994, 2000, 4.0, null, 10));
+    }
+
+    @Test
+    @DisplayName("Verifying find() sorts by distance with a location and by rating without one")
+    public void findOrder() {
+        assertEquals(Arrays.asList(1, 4, 3, 2), planner.find(null, 38.6270, -90.1994, 2000, null, null, 10));
+        assertEquals(Arrays.asList(5, 1, 3, 2), planner.find("coffee", null, null, 2000, null, null, 10));
+        assertEquals(Arrays.asList(4, 5), planner.find(null, null, null, 2000, 4.8, null, 10));
+        assertEquals(Arrays.asList(4, 5, 1, 2), planner.find(null, null, null, 2000, null, MONDAY_NOON, 10));
+    }
+
+    @Test
+    @DisplayName("Verifying find() skips inactive businesses")
+    public void findActiveOnly() {
+        Business closed = business(1, "coffee", 38.6270, -90.1994);
+        closed.setActive(false);
+        facetIndex.put(closed);
+
+        assertEquals(Arrays.asList(3), planner.find("coffee", 38.6270, -90.1994, 2000, 4.0, null, 10));
+    }
+
+    @Test
+    @DisplayName("Verifying find() rejects searches without filters or with bad values")
+    public void findInvalid() {
+        assertThrows(InvalidRequestException.class, () -> planner.find(null, null, null, 2000, null, null, 10));
+        assertThrows(InvalidRequestException.class, () -> planner.find(null, 38.6, null, 2000, null, null, 10));
+        assertThrows(InvalidRequestException.class, () -> planner.find(null, 38.6, -90.2, 0, null, null, 10));
+        assertThrows(InvalidRequestException.class, () -> planner.find("coffee", null, null, 2000, null, null, 0));
+    }
+
+    @Test
+    @DisplayName("Verifying estimateInBox() counts pins without visiting them")
+    public void estimateInBox() {
+        assertEquals(4, spatialIndex.estimateInBox(38.6, -90.3, 38.7, -90.1));
+        assertEquals(5, spatialIndex.estimateInBox(-90, -180, 90, 180));
+        assertEquals(0, spatialIndex.estimateInBox(10, 10, 20, 20));
+    }
+
+    @Test
+    @DisplayName("Verifying find() by distance reaches the nearest Business past the viewport cap")
+    public void findNearestPastCap() {
+        // a grid of more pins than one viewport query returns, south west of the searched point
+        List<Business> list = new ArrayList<>();
+        int id = 100;
+        for (int row = 0; row < 60; row++) {
+            for (int column = 0; column < 100; column++) {
+                list.add(business(id++, "coffee", 38.60 + row * 0.001, -90.30 + column * 0.001));
+            }
+        }
+        list.add(business(id, "coffee", 38.70, -90.19));
+        assertTrue(list.size() > BusinessSpatialIndex.MAX_RESULTS);
+
+        spatialIndex.rebuild(list);
+        facetIndex.rebuild(list);
+        assertEquals(Arrays.asList(id), planner.find(null, 38.70, -90.19, 20000, null, null, 1));
+    }
+
+}
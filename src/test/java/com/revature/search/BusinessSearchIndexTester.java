@@ -0,0 +1,119 @@
+package com.revature.search;
+
+import com.revature.events.ChangeType;
+import com.revature.events.PostEvent;
+import com.revature.exceptions.InvalidRequestException;
+import com.revature.models.Business;
+import com.revature.models.Post;
+import com.revature.repos.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class BusinessSearchIndexTester {
+
+    @Mock
+    PostRepository postRepo;
+
+    @InjectMocks
+    BusinessSearchIndex index;
+
+    List<Business> list;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+
+        list = new ArrayList<>();
+        list.add(business(1, "Tony's Pizza", "restaurant", "St. Louis"));
+        list.add(business(2, "Pizzeria Uno", "restaurant", "Chicago"));
+        list.add(business(3, "Corner Books", "bookstore", "St. Louis"));
+        list.add(business(4, "Café Crème", "coffee", "Kansas City"));
+
+        List<Object[]> posts = new ArrayList<>();
+        posts.add(new Object[] { 3, 10, "Half off every cookbook this weekend" });
+        posts.add(new Object[] { 4, 11, "New espresso blend" });
+        when(postRepo.findPostTextAfter(eq(0), any(Pageable.class))).thenReturn(posts);
+        when(postRepo.findPostTextAfter(eq(11), any(Pageable.class))).thenReturn(Collections.emptyList());
+
+        index.rebuild(list);
+    }
+
+    private Business business(int id, String name, String type, String location) {
+        Business business = new Business();
+        business.setId(id);
+        business.setBusinessName(name);
+        business.setBusinessType(type);
+        business.setLocation(location);
+        return business;
+    }
+
+    @Test
+    @DisplayName("Verifying search() ranks a name match above a location match")
+    public void searchRanksByField() {
+        list.get(1).setLocation("near Tony's");
+        index.put(list.get(1));
+
+        assertEquals(Arrays.asList(1, 2), index.search("tony", 10));
+    }
+
+    @Test
+    @DisplayName("Verifying search() expands the last word as a prefix")
+    public void searchPrefix() {
+        assertEquals(Arrays.asList(2), index.search("pizzer", 10));
+        assertEquals(2, index.search("st lou", 10).size());
+        assertTrue(index.search("pizzer ", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Verifying search() ignores case and accents")
+    public void searchNormalizes() {
+        assertEquals(Arrays.asList(4), index.search("CAFE CREME", 10));
+    }
+
+    @Test
+    @DisplayName("Verifying search() matches Post text loaded at startup")
+    public void searchPosts() {
+        assertEquals(Arrays.asList(3), index.search("cookbook", 10));
+    }
+
+    @Test
+    @DisplayName("Verifying search() follows Post and Business writes")
+    public void searchAfterWrites() {
+        Post post = new Post();
+        post.setPostId(12);
+        post.setBusiness(list.get(0));
+        post.setBody("Fresh calzones today");
+
+        index.onPostEvent(new PostEvent(ChangeType.CREATED, post));
+        assertEquals(Arrays.asList(1), index.search("calzones", 10));
+
+        index.onPostEvent(new PostEvent(ChangeType.DELETED, post));
+        assertTrue(index.search("calzones", 10).isEmpty());
+
+        index.remove(3);
+        assertTrue(index.search("cookbook", 10).isEmpty());
+        assertEquals(Arrays.asList(1), index.search("louis", 10));
+    }
+
+    @Test
+    @DisplayName("Verifying search() rejects empty queries and bad limits")
+    public void searchInvalid() {
+        assertThrows(InvalidRequestException.class, () -> index.search(" ", 10));
+        assertThrows(InvalidRequestException.class, () -> index.search("pizza", 0));
+        assertThrows(InvalidRequestException.class, () -> index.search("pizza", BusinessSearchIndex.MAX_RESULTS + 1));
+    }
+
+}
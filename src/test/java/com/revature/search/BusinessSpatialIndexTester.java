@@ -0,0 +1,112 @@
+package com.revature.search;
+
+import com.revature.dtos.BusinessPin;
+import com.revature.exceptions.InvalidRequestException;
+import com.revature.models.Business;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BusinessSpatialIndexTester {
+
+    BusinessSpatialIndex index;
+    List<Business> list;
+
+    @BeforeEach
+    public void setup() {
+        index = new BusinessSpatialIndex();
+        list = new ArrayList<>();
+
+        // a 20 x 20 grid of businesses, one every tenth of a degree starting at (10, 10)
+        int id = 1;
+        for (int row = 0; row < 20; row++) {
+            for (int col = 0; col < 20; col++) {
+                list.add(business(id++, 10 + row * 0.1, 10 + col * 0.1));
+            }
+        }
+        index.rebuild(list);
+    }
+
+    private Business business(int id, Double lat, Double lon) {
+        Business business = new Business();
+        business.setId(id);
+        business.setBusinessName("business " + id);
+        business.setBusinessType("store");
+        business.setLatitude(lat);
+        business.setLongitude(lon);
+        business.setActive(true);
+        return business;
+    }
+
+    private List<Integer> ids(List<BusinessPin> pins) {
+        return pins.stream().map(BusinessPin::getId).sorted().collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Verifying findInBox() returns exactly the pins inside the box")
+    public void findInBox() {
+        List<BusinessPin> pins = index.findInBox(10.05, 10.05, 10.25, 10.15, 1000);
+
+        // rows 1-2 and column 1
+        assertEquals(2, pins.size());
+        assertEquals(400, index.size());
+        assertEquals(ids(pins), ids(index.findInBox(10.1, 10.1, 10.2, 10.1, 1000)));
+    }
+
+    @Test
+    @DisplayName("Verifying findInBox() respects the limit")
+    public void findInBoxLimit() {
+        assertEquals(25, index.findInBox(0, 0, 20, 20, 25).size());
+    }
+
+    @Test
+    @DisplayName("Verifying put() and remove() are visible to findInBox() before and after a repack")
+    public void putAndRemove() {
+        index.put(business(1, 50.0, 50.0));
+        index.remove(2);
+        index.put(business(1000, 50.1, 50.1));
+
+        assertEquals(2, index.findInBox(49, 49, 51, 51, 1000).size());
+        assertTrue(index.findInBox(9.9, 9.9, 10.05, 10.15, 1000).isEmpty());
+
+        // enough writes to force a repack
+        for (int id = 3; id < 200; id++) {
+            index.remove(id);
+        }
+        assertEquals(2, index.findInBox(49, 49, 51, 51, 1000).size());
+        assertEquals(203, index.size());
+    }
+
+    @Test
+    @DisplayName("Verifying a Business without coordinates is not indexed")
+    public void putWithoutCoordinates() {
+        index.put(business(1, null, null));
+
+        assertNull(index.getPin(1));
+        assertEquals(399, index.size());
+    }
+
+    @Test
+    @DisplayName("Verifying findInBox() handles a box that crosses the antimeridian")
+    public void findInBoxAcrossAntimeridian() {
+        index.put(business(1000, 0.0, 179.5));
+        index.put(business(1001, 0.0, -179.5));
+
+        assertEquals(2, index.findInBox(-1, 179, 1, -179, 1000).size());
+    }
+
+    @Test
+    @DisplayName("Verifying findInBox() throws for an invalid box or limit")
+    public void findInBoxInvalid() {
+        assertThrows(InvalidRequestException.class, () -> index.findInBox(20, 0, 10, 10, 10));
+        assertThrows(InvalidRequestException.class, () -> index.findInBox(0, 0, 95, 10, 10));
+        assertThrows(InvalidRequestException.class, () -> index.findInBox(0, 0, 10, 10, 0));
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.revature.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revature.dtos.BusinessPin;
+import com.revature.dtos.Viewport;
+import com.revature.events.ChangeType;
+import com.revature.events.PostEvent;
+import com.revature.events.ReviewEvent;
+import com.revature.exceptions.InvalidRequestException;
+import com.revature.models.Business;
+import com.revature.models.Post;
+import com.revature.models.Review;
+import com.revature.search.BusinessSpatialIndex;
+import com.revature.util.FanOutHub;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.web.socket.TextMessage;
+
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class BusinessChangeServiceTester {
+
+    @Mock
+    BusinessSpatialIndex spatialIndex;
+
+    BusinessChangeService changes;
+    BlockingQueue<TextMessage> received;
+    FanOutHub<Integer, TextMessage>.Subscription subscription;
+    ObjectMapper mapper = new ObjectMapper();
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+        changes = new BusinessChangeService(spatialIndex, mapper, 16, 1, 10_000);
+        received = new LinkedBlockingQueue<>();
+        subscription = changes.subscribe(received::add, () -> { });
+
+        when(spatialIndex.findInBox(1, 1, 2, 2, BusinessChangeService.MAX_BUSINESSES)).thenReturn(Arrays.asList(
+                new BusinessPin(1, "one", "bakery", 1.5, 1.5, true, null),
+                new BusinessPin(2, "two", "bakery", 1.6, 1.6, true, null)));
+        when(spatialIndex.findInBox(5, 5, 6, 6, BusinessChangeService.MAX_BUSINESSES)).thenReturn(Arrays.asList(
+                new BusinessPin(3, "three", "bakery", 5.5, 5.5, true, null)));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        changes.shutdown();
+    }
+
+    private Business business(int id) {
+        Business business = new Business();
+        business.setId(id);
+        return business;
+    }
+
+    private PostEvent postEvent(int businessId) {
+        Post post = new Post();
+        post.setPostId(10);
+        post.setBody("new post");
+        post.setBusiness(business(businessId));
+        return new PostEvent(ChangeType.CREATED, post);
+    }
+
+    @Test
+    @DisplayName("Verifying changes of the Businesses in the viewport are pushed, and others are not")
+    public void pushInViewport() throws Exception {
+        assertEquals(2, changes.setViewport(subscription, new Viewport(1, 1, 2, 2)));
+
+        changes.onPostEvent(postEvent(3));
+        changes.onPostEvent(postEvent(2));
+        Review review = new Review();
+        review.setBusiness(business(1));
+        review.setRating(5.0);
+        changes.onReviewEvent(new ReviewEvent(ChangeType.UPDATED, review));
+
+        JsonNode post = mapper.readTree(received.poll(5, TimeUnit.SECONDS).getPayload());
+        assertEquals("post", post.get("kind").asText());
+        assertEquals("created", post.get("type").asText());
+        assertEquals(2, post.get("businessId").asInt());
+        assertEquals("new post", post.get("data").get("body").asText());
+
+        JsonNode updated = mapper.readTree(received.poll(5, TimeUnit.SECONDS).getPayload());
+        assertEquals("review", updated.get("kind").asText());
+        assertNull(received.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("Verifying moving the viewport follows the new Businesses only")
+    public void moveViewport() throws Exception {
+        changes.setViewport(subscription, new Viewport(1, 1, 2, 2));
+        assertEquals(1, changes.setViewport(subscription, new Viewport(5, 5, 6, 6)));
+
+        changes.onPostEvent(postEvent(1));
+        changes.onPostEvent(postEvent(3));
+
+        JsonNode post = mapper.readTree(received.poll(5, TimeUnit.SECONDS).getPayload());
+        assertEquals(3, post.get("businessId").asInt());
+        assertNull(received.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("Verifying an invalid viewport is rejected and keeps the previous one")
+    public void invalidViewport() {
+        changes.setViewport(subscription, new Viewport(1, 1, 2, 2));
+        when(spatialIndex.findInBox(anyDouble(), anyDouble(), eq(-100.0), anyDouble(), anyInt()))
+                .thenThrow(new InvalidRequestException("Bounding box is invalid."));
+
+        assertThrows(InvalidRequestException.class,
+                () -> changes.setViewport(subscription, new Viewport(1, 1, -100, 2)));
+        assertEquals(2, subscription.getKeys().size());
+    }
+
+}
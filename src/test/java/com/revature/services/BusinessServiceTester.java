@@ -1,5 +1,10 @@
 package com.revature.services;
 
+import com.revature.dtos.BusinessBatch;
+import com.revature.dtos.BusinessPin;
+import com.revature.dtos.KeysetPage;
+import com.revature.events.BusinessEvent;
+import com.revature.events.ChangeType;
 import com.revature.exceptions.InvalidRequestException;
 import com.revature.exceptions.ResourceNotFoundException;
 import com.revature.exceptions.ResourcePersistenceException;
@@ -11,16 +16,22 @@ import com.revature.repos.BusinessRepository;
 import org.jeasy.random.EasyRandom;
 import org.junit.jupiter.api.*;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import java.sql.Timestamp;
@@ -40,6 +51,9 @@ public class BusinessServiceTester {
     @Mock
     BusinessRepository bizRepo;
 
+    @Mock
+    ApplicationEventPublisher publisher;
+
     @InjectMocks
     BusinessService bizServices;
 
@@ -63,6 +77,13 @@ public class BusinessServiceTester {
         bizOne.setOwner(owner);
         bizTwo.setOwner(owner);
         bizThree.setOwner(owner);
+        // the cached copies leave out the collections, so leave them out here too
+        owner.setFavorites(null);
+        for (Business business : Arrays.asList(bizOne, bizTwo, bizThree)) {
+            business.setReviews(null);
+            business.setHours(null);
+            business.setPosts(null);
+        }
 
         testEmptyBiz = new Business();
 
@@ -75,21 +96,91 @@ public class BusinessServiceTester {
     @Test
     @DisplayName("Verifying getAllBusinesses() works as expected and pulls all businesses")
     public void getAllBusinesses() {
-        when(bizRepo.findAll()).thenReturn(list);
+        when(bizRepo.findBusinessesByIdGreaterThanOrderByIdAsc(eq(0), any(Pageable.class))).thenReturn(list);
 
-        assertEquals(bizServices.getAllBusinesses(), list);
-        verify(bizRepo, times(1)).findAll();
-        assertEquals(3, bizServices.getAllBusinesses().size());
-        verify(bizRepo, times(2)).findAll();
+        KeysetPage<Business> page = bizServices.getAllBusinesses(0, 50);
+        assertEquals(list, page.getItems());
+        assertFalse(page.hasNext());
+        verify(bizRepo, times(1)).findBusinessesByIdGreaterThanOrderByIdAsc(0, PageRequest.of(0, 51));
     }
 
     @Test
-    @DisplayName("Verifying getAllBusinesses() throws error when no businesses found")
+    @DisplayName("Verifying getAllBusinesses() returns a next cursor when there are more businesses")
+    public void getAllBusinessesWithNextPage() {
+        when(bizRepo.findBusinessesByIdGreaterThanOrderByIdAsc(eq(0), any(Pageable.class))).thenReturn(list);
+
+        KeysetPage<Business> page = bizServices.getAllBusinesses(0, 2);
+        assertEquals(2, page.getItems().size());
+        assertEquals(String.valueOf(bizTwo.getId()), page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Verifying getAllBusinesses() returns an empty page without a cursor when no businesses found")
     public void getAllBusinessesButNoBusinesses() {
         list.removeAll(list);
-        when(bizRepo.findAll()).thenReturn(list);
+        when(bizRepo.findBusinessesByIdGreaterThanOrderByIdAsc(eq(0), any(Pageable.class))).thenReturn(list);
+
+        KeysetPage<Business> page = bizServices.getAllBusinesses(0, 50);
+        assertTrue(page.getItems().isEmpty());
+        assertFalse(page.hasNext());
+    }
+
+    @Test
+    @DisplayName("Verifying getAllBusinesses() throws error for an invalid cursor or limit")
+    public void getAllBusinessesInvalidPage() {
+        assertThrows(InvalidRequestException.class, () -> bizServices.getAllBusinesses(-1, 50));
+        assertThrows(InvalidRequestException.class, () -> bizServices.getAllBusinesses(0, 0));
+        assertThrows(InvalidRequestException.class, () -> bizServices.getAllBusinesses(0, BusinessService.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    @DisplayName("Verifying getBusinessesByIds() keeps the order of the ids and skips missing ones")
+    public void getBusinessesByIds() {
+        List<Integer> ids = Arrays.asList(bizThree.getId(), 999_999, bizOne.getId());
+        when(bizRepo.findBusinessesByIdIn(ids)).thenReturn(list);
+
+        assertEquals(Arrays.asList(bizThree, bizOne), bizServices.getBusinessesByIds(ids));
+        assertThrows(InvalidRequestException.class, () -> bizServices.getBusinessesByIds(null));
+    }
+
+    @Test
+    @DisplayName("Verifying getBusinessBatch() keeps the order of the ids and reports missing ones")
+    public void getBusinessBatch() {
+        when(bizRepo.findBusinessesByIdIn(any())).thenReturn(list);
+
+        BusinessBatch batch = bizServices.getBusinessBatch(
+                Arrays.asList(bizThree.getId(), 999_999, bizOne.getId(), bizThree.getId()));
+        assertEquals(Arrays.asList(bizThree, bizOne), batch.getBusinesses());
+        assertEquals(Collections.singletonList(999_999), batch.getMissingIds());
+        verify(bizRepo, times(1)).findBusinessesByIdIn(any());
+    }
 
-        assertThrows(ResourceNotFoundException.class, () -> bizServices.getAllBusinesses());
+    @Test
+    @DisplayName("Verifying getBusinessBatch() throws error for a missing or oversized id list")
+    public void getBusinessBatchInvalid() {
+        List<Integer> tooMany = new ArrayList<>();
+        for (int i = 1; i <= BusinessService.MAX_PAGE_SIZE + 1; i++) {
+            tooMany.add(i);
+        }
+        assertThrows(InvalidRequestException.class, () -> bizServices.getBusinessBatch(null));
+        assertThrows(InvalidRequestException.class, () -> bizServices.getBusinessBatch(tooMany));
+        verify(bizRepo, never()).findBusinessesByIdIn(any());
+    }
+
+    @Test
+    @DisplayName("Verifying getBusinessPins() returns pins with a next cursor when there are more")
+    public void getBusinessPins() {
+        List<BusinessPin> pins = new ArrayList<>();
+        for (Business biz : list) {
+            pins.add(new BusinessPin(biz));
+        }
+        when(bizRepo.findBusinessPins(eq(0), any(Pageable.class))).thenReturn(pins);
+
+        KeysetPage<BusinessPin> page = bizServices.getBusinessPins(0, 2);
+        assertEquals(2, page.getItems().size());
+        assertEquals(String.valueOf(bizTwo.getId()), page.getNextCursor());
+        assertFalse(bizServices.getBusinessPins(0, 3).hasNext());
+        assertThrows(InvalidRequestException.class, () -> bizServices.getBusinessPins(0, 0));
     }
 
     @Test
@@ -102,12 +193,89 @@ public class BusinessServiceTester {
         verify(bizRepo, times(1)).findById(bizTwo.getId());
     }
 
+    @Test
+    @DisplayName("Verifying getBusinessById() serves repeated lookups from the cache")
+    public void getBusinessByIdCached() {
+        when(bizRepo.findById(bizTwo.getId())).thenReturn(java.util.Optional.of(bizTwo));
+
+        bizServices.getBusinessById(bizTwo.getId());
+        assertEquals(bizServices.getBusinessById(bizTwo.getId()), bizTwo);
+        verify(bizRepo, times(1)).findById(bizTwo.getId());
+
+        // a missing business is remembered too
+        assertThrows(ResourceNotFoundException.class, () -> bizServices.getBusinessById(13));
+        assertThrows(ResourceNotFoundException.class, () -> bizServices.getBusinessById(13));
+        verify(bizRepo, times(1)).findById(13);
+    }
+
+    @Test
+    @DisplayName("Verifying getBusinessById() caches a copy that is not the entity read")
+    public void getBusinessByIdCopy() {
+        when(bizRepo.findById(bizTwo.getId())).thenReturn(java.util.Optional.of(bizTwo));
+
+        Business cached = bizServices.getBusinessById(bizTwo.getId());
+        assertNotSame(bizTwo, cached);
+        assertNotSame(bizTwo.getOwner(), cached.getOwner());
+        assertEquals(bizTwo.getOwner().getUserId(), cached.getOwner().getUserId());
+    }
+
+    @Test
+    @DisplayName("Verifying getBusinessWithCollections() reads the collections and is not cached")
+    public void getBusinessWithCollections() {
+        Review review = new Review();
+        bizTwo.setReviews(Collections.singletonList(review));
+        bizTwo.setHours(new ArrayList<>());
+        bizTwo.setPosts(new ArrayList<>());
+        when(bizRepo.findById(bizTwo.getId())).thenReturn(java.util.Optional.of(bizTwo));
+
+        assertEquals(Collections.singletonList(review), bizServices.getBusinessWithCollections(bizTwo.getId()).getReviews());
+        bizServices.getBusinessWithCollections(bizTwo.getId());
+        verify(bizRepo, times(2)).findById(bizTwo.getId());
+        assertNull(bizServices.getBusinessById(bizTwo.getId()).getReviews());
+
+        assertThrows(ResourceNotFoundException.class, () -> bizServices.getBusinessWithCollections(13));
+    }
+
+    @Test
+    @DisplayName("Verifying updateBusiness() and deleteBusinessById() evict the cached business")
+    public void getBusinessByIdAfterWrites() {
+        when(bizRepo.findById(bizOne.getId())).thenReturn(java.util.Optional.of(bizOne));
+        bizServices.getBusinessById(bizOne.getId());
+
+        bizServices.updateBusiness(bizOne);
+        bizServices.getBusinessById(bizOne.getId());
+        verify(bizRepo, times(2)).findById(bizOne.getId());
+
+        bizServices.deleteBusinessById(bizOne.getId());
+        when(bizRepo.findById(bizOne.getId())).thenReturn(java.util.Optional.empty());
+        assertThrows(ResourceNotFoundException.class, () -> bizServices.getBusinessById(bizOne.getId()));
+    }
+
+    @Test
+    @DisplayName("Verifying getBusinessByEmail() caches the id and rechecks a renamed business")
+    public void getBusinessByEmailCached() {
+        String email = bizTwo.getEmail();
+        when(bizRepo.findBusinessByEmail(email)).thenReturn(java.util.Optional.of(bizTwo));
+        when(bizRepo.findById(bizTwo.getId())).thenReturn(java.util.Optional.of(bizTwo));
+
+        bizServices.getBusinessByEmail(email);
+        assertEquals(bizServices.getBusinessByEmail(email), bizTwo);
+        verify(bizRepo, times(1)).findBusinessByEmail(email);
+
+        // the email changed, so the stale id is dropped
+        bizTwo.setEmail("moved@example.com");
+        bizServices.updateBusiness(bizTwo);
+        when(bizRepo.findBusinessByEmail(email)).thenReturn(java.util.Optional.empty());
+        assertThrows(ResourceNotFoundException.class, () -> bizServices.getBusinessByEmail(email));
+    }
+
     @Test
     @DisplayName("Verifying deleteBusinessById() works as expected and calls repo to delete business")
     public void testDeleteBusinessById() {
         assertThrows(InvalidRequestException.class, () -> bizServices.deleteBusinessById(0));
         bizServices.deleteBusinessById(1);
         verify(bizRepo, times(1)).deleteById(1);
+        verify(publisher, times(1)).publishEvent(any(BusinessEvent.class));
     }
 
 
@@ -242,6 +410,29 @@ public class BusinessServiceTester {
         verify(bizRepo, times(1)).save(bizOne);
     }
 
+    @Test
+    @DisplayName("Verifying addBusiness() inserts a Business sent with an id and version, and announces the saved one")
+    public void createNewBusinessWithVersion() {
+        bizOne.setId(5);
+        bizOne.setVersion(0L);
+        Business saved = new Business();
+        saved.setId(42);
+        when(bizRepo.save(bizOne)).thenAnswer(invocation -> {
+            Business business = invocation.getArgument(0);
+            // Spring Data only persists rather than merges a Business without an id or version
+            assertNull(business.getId());
+            assertNull(business.getVersion());
+            return saved;
+        });
+
+        bizServices.addBusiness(bizOne);
+
+        ArgumentCaptor<BusinessEvent> event = ArgumentCaptor.forClass(BusinessEvent.class);
+        verify(publisher).publishEvent(event.capture());
+        assertEquals(ChangeType.CREATED, event.getValue().getType());
+        assertEquals(42, event.getValue().getBusinessId());
+    }
+
     @Test
     @DisplayName("Verifying errors thrown on createNewBusiness for invalid business")
     public void createNewBusinessCheckInvalid() {
@@ -293,6 +484,38 @@ public class BusinessServiceTester {
         assertThrows(ResourceNotFoundException.class, () -> bizServices.findBusinessesByOwner(owner));
     }
 
+    @Test
+    @DisplayName("Verifying getBusinessesNear() filters by radius and sorts closest first")
+    public void getBusinessesNear() {
+        List<Object[]> coordinates = new ArrayList<>();
+        coordinates.add(new Object[] { 1, 38.6280, -90.1910 });
+        coordinates.add(new Object[] { 2, 38.6270, -90.1994 });
+        coordinates.add(new Object[] { 3, 39.0997, -94.5786 });
+        when(bizRepo.findCoordinatesByGeohashStartingWith(anyString())).thenReturn(coordinates);
+        when(bizRepo.findBusinessesByIdIn(anyCollection())).thenReturn(Arrays.asList(bizOne, bizTwo));
+
+        List<Business> near = bizServices.getBusinessesNear(38.6270, -90.1994, 5000, 10);
+
+        assertEquals(2, near.size());
+        assertEquals(bizTwo, near.get(0));
+        assertEquals(bizOne, near.get(1));
+        verify(bizRepo).findBusinessesByIdIn(Arrays.asList(2, 1));
+
+        when(bizRepo.findBusinessesByIdIn(anyCollection())).thenReturn(Arrays.asList(bizTwo));
+        assertEquals(1, bizServices.getBusinessesNear(38.6270, -90.1994, 5000, 1).size());
+        verify(bizRepo).findBusinessesByIdIn(Arrays.asList(2));
+    }
+
+    @Test
+    @DisplayName("Verifying error thrown on getBusinessesNear() for out of range arguments")
+    public void getBusinessesNearInvalid() {
+        assertThrows(InvalidRequestException.class, () -> bizServices.getBusinessesNear(91, 0, 1000, 10));
+        assertThrows(InvalidRequestException.class, () -> bizServices.getBusinessesNear(0, 181, 1000, 10));
+        assertThrows(InvalidRequestException.class, () -> bizServices.getBusinessesNear(0, 0, 0, 10));
+        assertThrows(InvalidRequestException.class, () -> bizServices.getBusinessesNear(0, 0, 1000, 0));
+        verify(bizRepo, times(0)).findCoordinatesByGeohashStartingWith(anyString());
+    }
+
     //Internal function
     @Test
     @DisplayName("Verifying isBusinessValid() is false with null business")
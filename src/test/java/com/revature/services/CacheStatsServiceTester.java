@@ -0,0 +1,76 @@
+package com.revature.services;
+
+import com.revature.dtos.CacheStats;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CacheStatsServiceTester {
+
+    @Mock
+    BusinessService bizService;
+
+    @Mock
+    ResponseCacheService responseCache;
+
+    @Mock
+    EntityManagerFactory emf;
+
+    @Mock
+    SessionFactory sessionFactory;
+
+    @Mock
+    Statistics statistics;
+
+    @Mock
+    CacheRegionStatistics businessRegion;
+
+    @Mock
+    CacheRegionStatistics hoursRegion;
+
+    CacheStatsService service;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+        when(emf.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+        service = new CacheStatsService(bizService, responseCache, emf);
+    }
+
+    @Test
+    @DisplayName("Verifying getCacheStats() lists the lookup caches and then every Hibernate region")
+    public void getCacheStats() {
+        when(bizService.getCacheStats()).thenReturn(Collections.singletonList(new CacheStats("business.byId", 2, 3, 1, 0)));
+        when(responseCache.getStats()).thenReturn(new CacheStats("response.bytes", 0, 0, 0, 0));
+        when(statistics.getSecondLevelCacheRegionNames()).thenReturn(new String[] { "hours", "business" });
+        when(statistics.getCacheRegionStatistics("business")).thenReturn(businessRegion);
+        when(statistics.getCacheRegionStatistics("hours")).thenReturn(hoursRegion);
+        when(businessRegion.getElementCountInMemory()).thenReturn(5L);
+        when(businessRegion.getHitCount()).thenReturn(9L);
+        when(businessRegion.getMissCount()).thenReturn(1L);
+        when(hoursRegion.getElementCountInMemory()).thenReturn(Long.MIN_VALUE);
+
+        // the query results region has no statistics until a cacheable query runs
+        List<CacheStats> stats = service.getCacheStats();
+        assertEquals(4, stats.size());
+        assertEquals("business.byId", stats.get(0).getName());
+        assertEquals("response.bytes", stats.get(1).getName());
+        assertEquals(new CacheStats("hibernate.business", 5, 9, 1, 0), stats.get(2));
+        assertEquals(0.9, stats.get(2).getHitRatio(), 1e-9);
+        assertEquals(new CacheStats("hibernate.hours", -1, 0, 0, 0), stats.get(3));
+    }
+
+}
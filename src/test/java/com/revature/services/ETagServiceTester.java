@@ -0,0 +1,83 @@
+package com.revature.services;
+
+import com.revature.models.Business;
+import com.revature.models.Hours;
+import com.revature.models.Post;
+import com.revature.models.Review;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ETagServiceTester {
+
+    ETagService eTagService = new ETagService();
+
+    Business business;
+    List<Post> posts;
+
+    @BeforeEach
+    public void init() {
+        business = new Business();
+        business.setId(1);
+        business.setVersion(4L);
+
+        posts = new ArrayList<>(Arrays.asList(post(9, 3L), post(4, 2L)));
+
+        Hours hours = new Hours();
+        hours.setHoursId(14);
+        hours.setVersion(0L);
+
+        business.setPosts(posts);
+        business.setReviews(new ArrayList<>());
+        business.setHours(new ArrayList<>(Arrays.asList(hours)));
+    }
+
+    @Test
+    @DisplayName("Verifying getBusinessETag() combines the Business and its collections")
+    public void getBusinessETag() {
+        assertEquals("W/\"business-1-4-2.5.9-0.0.0-1.0.14\"", eTagService.getBusinessETag(business));
+    }
+
+    @Test
+    @DisplayName("Verifying the collection ETags change when a row is added, updated or removed")
+    public void getPostsETag() {
+        String before = eTagService.getPostsETag(business, posts);
+        assertEquals("W/\"posts-1-4-2.5.9\"", before);
+
+        posts.add(post(10, 0L));
+        String added = eTagService.getPostsETag(business, posts);
+        posts.get(0).setVersion(4L);
+        String updated = eTagService.getPostsETag(business, posts);
+        posts.remove(1);
+        String removed = eTagService.getPostsETag(business, posts);
+
+        assertNotEquals(before, added);
+        assertNotEquals(added, updated);
+        assertNotEquals(updated, removed);
+    }
+
+    @Test
+    @DisplayName("Verifying the collection ETags change when the Business is updated")
+    public void getReviewsETag() {
+        List<Review> reviews = new ArrayList<>();
+        String before = eTagService.getReviewsETag(business, reviews);
+        business.setVersion(5L);
+
+        assertEquals("W/\"reviews-1-4-0.0.0\"", before);
+        assertNotEquals(before, eTagService.getReviewsETag(business, reviews));
+    }
+
+    private static Post post(int id, long version) {
+        Post post = new Post();
+        post.setPostId(id);
+        post.setVersion(version);
+        return post;
+    }
+
+}
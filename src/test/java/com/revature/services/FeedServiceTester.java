@@ -0,0 +1,210 @@
+package com.revature.services;
+
+import com.revature.dtos.KeysetPage;
+import com.revature.dtos.TimeCursor;
+import com.revature.events.ChangeType;
+import com.revature.events.PostEvent;
+import com.revature.exceptions.InvalidRequestException;
+import com.revature.exceptions.ResourceNotFoundException;
+import com.revature.models.Business;
+import com.revature.models.Post;
+import com.revature.repos.PostRepository;
+import com.revature.repos.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class FeedServiceTester {
+
+    FeedService feedService;
+
+    @Mock
+    PostRepository postRepo;
+
+    @Mock
+    UserRepository userRepo;
+
+    /**
+     * Creation times of the Posts that don't default to their id in seconds
+     */
+    Map<Integer, Timestamp> times = new HashMap<>();
+
+    Set<Integer> deleted = new HashSet<>();
+
+    @BeforeEach
+    public void init() {
+        MockitoAnnotations.initMocks(this);
+        feedService = new FeedService(postRepo, userRepo, 10, 3, 2);
+
+        when(userRepo.existsById(1)).thenReturn(true);
+        when(postRepo.findAllById(any())).thenAnswer(invocation -> {
+            List<Post> posts = new ArrayList<>();
+            for (Integer id : invocation.<Iterable<Integer>>getArgument(0)) {
+                if (!deleted.contains(id)) posts.add(post(1, id));
+            }
+            return posts;
+        });
+    }
+
+    private Timestamp time(int postId) {
+        return times.getOrDefault(postId, new Timestamp(postId * 1000L));
+    }
+
+    private TimeCursor key(int postId) {
+        return new TimeCursor(time(postId), postId);
+    }
+
+    private List<Object[]> keys(Integer... postIds) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Integer postId : postIds) {
+            rows.add(new Object[] { time(postId), postId });
+        }
+        return rows;
+    }
+
+    private Post post(int businessId, int postId) {
+        Business business = new Business();
+        business.setId(businessId);
+        Post post = new Post();
+        post.setPostId(postId);
+        post.setBusiness(business);
+        post.setCreatedTime(time(postId));
+        return post;
+    }
+
+    private List<Integer> idsOf(KeysetPage<Post> page) {
+        List<Integer> ids = new ArrayList<>();
+        for (Post post : page.getItems()) {
+            ids.add(post.getPostId());
+        }
+        return ids;
+    }
+
+    @Test
+    @DisplayName("Verifying getFeed() loads the timeline once, then only looks up the Posts of each page")
+    public void getFeed() {
+        when(postRepo.findFeedPostKeys(eq(1), any())).thenReturn(keys(8, 6));
+
+        KeysetPage<Post> first = feedService.getFeed(1, null, 1);
+        assertEquals(Collections.singletonList(8), idsOf(first));
+        assertEquals(key(8).toCursor(), first.getNextCursor());
+
+        KeysetPage<Post> second = feedService.getFeed(1, first.getNextCursor(), 1);
+        assertEquals(Collections.singletonList(6), idsOf(second));
+        assertFalse(second.hasNext());
+
+        verify(postRepo, times(1)).findFeedPostKeys(anyInt(), any());
+        verify(postRepo, times(2)).findAllById(any());
+    }
+
+    @Test
+    @DisplayName("Verifying getFeed() orders Posts by creation time, then by id")
+    public void getFeedByCreationTime() {
+        times.put(9, new Timestamp(1000));
+        times.put(10, new Timestamp(2500));
+        when(postRepo.findFeedPostKeys(eq(1), any())).thenReturn(keys(4, 9));
+        when(userRepo.findUserIdsByFavorite(eq(1), any())).thenReturn(Collections.singletonList(1));
+
+        assertEquals(Arrays.asList(4, 9), idsOf(feedService.getFeed(1, null, 10)));
+
+        feedService.onPostEvent(new PostEvent(ChangeType.CREATED, post(1, 10)));
+        assertEquals(Arrays.asList(4, 10, 9), idsOf(feedService.getFeed(1, null, 10)));
+        assertEquals(Collections.singletonList(9), idsOf(feedService.getFeed(1, key(10).toCursor(), 10)));
+    }
+
+    @Test
+    @DisplayName("Verifying deleted Posts are skipped without cutting a page short or reporting a next page")
+    public void getFeedSkipsDeleted() {
+        when(postRepo.findFeedPostKeys(eq(1), any())).thenReturn(keys(9, 8));
+        deleted.add(8);
+
+        KeysetPage<Post> page = feedService.getFeed(1, null, 1);
+        assertEquals(Collections.singletonList(9), idsOf(page));
+        assertFalse(page.hasNext());
+
+        deleted.clear();
+        deleted.add(9);
+        feedService.onFavoritesChanged(1);
+        page = feedService.getFeed(1, null, 1);
+        assertEquals(Collections.singletonList(8), idsOf(page));
+        assertFalse(page.hasNext());
+    }
+
+    @Test
+    @DisplayName("Verifying getFeed() throws error for a bad cursor or limit, or a missing User")
+    public void getFeedInvalid() {
+        assertThrows(InvalidRequestException.class, () -> feedService.getFeed(1, "8", 10));
+        assertThrows(InvalidRequestException.class, () -> feedService.getFeed(1, null, 0));
+        assertThrows(InvalidRequestException.class, () -> feedService.getFeed(1, null, FeedService.MAX_PAGE_SIZE + 1));
+        assertThrows(ResourceNotFoundException.class, () -> feedService.getFeed(2, null, 10));
+    }
+
+    @Test
+    @DisplayName("Verifying a new Post is appended to the timelines of the followers of its Business")
+    public void fanOutOnWrite() {
+        when(postRepo.findFeedPostKeys(eq(1), any())).thenReturn(keys(4));
+        when(userRepo.findUserIdsByFavorite(eq(1), any())).thenReturn(Arrays.asList(1, 2));
+        feedService.getFeed(1, null, 10);
+
+        feedService.onPostEvent(new PostEvent(ChangeType.CREATED, post(1, 9)));
+        feedService.onPostEvent(new PostEvent(ChangeType.UPDATED, post(1, 4)));
+
+        assertEquals(Arrays.asList(9, 4), idsOf(feedService.getFeed(1, null, 10)));
+        verify(userRepo, times(1)).findUserIdsByFavorite(anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("Verifying the Posts of a Business with too many followers are merged in when the feed is read")
+    public void fanOutOnRead() {
+        when(postRepo.findFeedPostKeys(eq(1), any())).thenReturn(keys(4));
+        when(userRepo.findUserIdsByFavorite(eq(7), any())).thenReturn(Arrays.asList(1, 2, 3));
+        when(userRepo.findFavoriteIdsIn(eq(1), any())).thenReturn(Collections.singletonList(7));
+        when(postRepo.findPostKeysByBusinessIds(eq(Collections.singletonList(7)), any())).thenReturn(keys(9));
+        feedService.getFeed(1, null, 10);
+
+        feedService.onPostEvent(new PostEvent(ChangeType.CREATED, post(7, 9)));
+        feedService.onPostEvent(new PostEvent(ChangeType.CREATED, post(7, 10)));
+
+        assertEquals(Arrays.asList(9, 4), idsOf(feedService.getFeed(1, null, 10)));
+        // the follower count is not looked up again once the Business is known to be too popular
+        verify(userRepo, times(1)).findUserIdsByFavorite(anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("Verifying a page past the end of a full timeline is read from the database")
+    public void pastTimeline() {
+        when(postRepo.findFeedPostKeys(eq(1), any())).thenReturn(keys(9, 8, 7));
+        when(postRepo.findFeedPostKeysBefore(eq(1), eq(time(7)), eq(7), any())).thenReturn(keys(5, 2));
+
+        assertEquals(Arrays.asList(9, 8, 7), idsOf(feedService.getFeed(1, null, 3)));
+        assertEquals(Arrays.asList(5, 2), idsOf(feedService.getFeed(1, key(7).toCursor(), 3)));
+    }
+
+    @Test
+    @DisplayName("Verifying onFavoritesChanged() makes the next read load the timeline again")
+    public void onFavoritesChanged() {
+        when(postRepo.findFeedPostKeys(eq(1), any())).thenReturn(keys(4));
+        feedService.getFeed(1, null, 10);
+        feedService.onFavoritesChanged(1);
+        feedService.getFeed(1, null, 10);
+
+        verify(postRepo, times(2)).findFeedPostKeys(anyInt(), any());
+    }
+
+}
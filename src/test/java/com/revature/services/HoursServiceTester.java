@@ -14,6 +14,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.context.ApplicationEventPublisher;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.jupiter.api.Assertions.*;
@@ -38,6 +39,9 @@ public class HoursServiceTester {
     @Mock
     HoursRepository hoursRepository;
 
+    @Mock
+    ApplicationEventPublisher publisher;
+
     @BeforeEach
     public void setup () {
         MockitoAnnotations.initMocks(this);
@@ -101,6 +105,7 @@ public class HoursServiceTester {
     @DisplayName("Verifying createHours() works as expected and pulls hours obj")
     public void testCreateHours() {
         hours.setDay(1);
+        when(hoursRepository.save(hours)).thenReturn(hours);
         hoursService.createHours(hours);
         verify(hoursRepository, times(1)).save(hours);
     }
@@ -3,6 +3,8 @@ package com.revature.services;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.revature.dtos.KeysetPage;
+import com.revature.dtos.TimeCursor;
 import com.revature.exceptions.InvalidRequestException;
 import com.revature.exceptions.ResourceNotFoundException;
 import com.revature.models.Business;
@@ -15,10 +17,12 @@ import com.revature.repos.UserRepository;
 import org.jeasy.random.EasyRandom;
 import org.junit.jupiter.api.*;
 import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.jupiter.api.Assertions.*;
@@ -30,13 +34,14 @@ import java.sql.Timestamp;
 
 
 public class PostServiceTester {
-    //injectmocks actually creates the mock and also injects the dependent mocks that are marked with @mock (userrepo here)
-    @InjectMocks
     PostService postService;
 
     @Mock
     PostRepository postRepository;
 
+    @Mock
+    ApplicationEventPublisher publisher;
+
     Business bus;
     Post post0, badPost;
     User user;
@@ -45,6 +50,7 @@ public class PostServiceTester {
     @BeforeEach
     public void init() {
         MockitoAnnotations.initMocks(this);
+        postService = new PostService(postRepository, publisher, 1000);
 
         user = new User();
         user.setEmail("nathan.gamble@revature.net");
@@ -69,13 +75,6 @@ public class PostServiceTester {
         postList.add(badPost);
     }
 
-    @Test
-    @DisplayName("Verifying findAllPosts() works as expected and pulls all posts")
-    public void testFindAllPosts() {
-        when(postRepository.findAll()).thenReturn(postList);
-        assertEquals(postList, postService.findAllPosts());
-    }
-
     @Test
     @DisplayName("Verifying getPostByPostId() works as expected and pulls a post by id")
     public void testgetPostByPostId() {
@@ -94,6 +93,7 @@ public class PostServiceTester {
     @Test
     @DisplayName("Verifying createPost() works as expected and call repo to create new post")
     public void testCreatePost() {
+        when(postRepository.save(post0)).thenReturn(post0);
         postService.createPost(post0);
         verify(postRepository, times(1)).save(post0);
     }
@@ -111,6 +111,15 @@ public class PostServiceTester {
         verify(postRepository, times(1)).save(post0);
     }
     @Test
+    @DisplayName("Verifying editPost() fills in the stored version of a post sent without one")
+    public void testEditPostFillsVersion() {
+        post0.setPostId(7);
+        when(postRepository.findVersionById(7)).thenReturn(Optional.of(3L));
+        postService.editPost(post0);
+        assertEquals(Long.valueOf(3L), post0.getVersion());
+        verify(postRepository, times(1)).save(post0);
+    }
+    @Test
     @DisplayName("Verifying editPost() throws error when expected given invalid post")
     public void testEditPostInvalid() {
         assertThrows(InvalidRequestException.class, () -> postService.editPost(badPost));
@@ -152,4 +161,88 @@ public class PostServiceTester {
         assertTrue(postService.isPostValid(badPost));
     }
 
+    private Post postAt(int postId, Timestamp createdTime) {
+        Post post = new Post();
+        post.setPostId(postId);
+        post.setCreatedTime(createdTime);
+        return post;
+    }
+
+    @Test
+    @DisplayName("Verifying getPostsByBusiness() returns the newest page with the cursor of its last Post")
+    public void testGetPostsByBusiness() {
+        Timestamp time = Timestamp.valueOf("2021-03-01 09:00:00.123456");
+        List<Post> posts = Arrays.asList(postAt(9, time), postAt(7, time), postAt(3, time));
+        when(postRepository.findLatestPostsByBusinessId(1, PageRequest.of(0, 3))).thenReturn(posts);
+
+        KeysetPage<Post> page = postService.getPostsByBusiness(1, null, 2);
+        assertEquals(posts.subList(0, 2), page.getItems());
+        assertEquals(new TimeCursor(time, 7), TimeCursor.parse(page.getNextCursor()));
+
+        when(postRepository.findPostsByBusinessIdBefore(1, time, 7, PageRequest.of(0, 3)))
+                .thenReturn(posts.subList(2, 3));
+        page = postService.getPostsByBusiness(1, page.getNextCursor(), 2);
+        assertEquals(posts.subList(2, 3), page.getItems());
+        assertFalse(page.hasNext());
+    }
+
+    @Test
+    @DisplayName("Verifying getPostsByBusiness() throws error for a bad limit or a malformed cursor")
+    public void testGetPostsByBusinessInvalid() {
+        assertThrows(InvalidRequestException.class, () -> postService.getPostsByBusiness(1, null, 0));
+        assertThrows(InvalidRequestException.class,
+                () -> postService.getPostsByBusiness(1, null, PostService.MAX_PAGE_SIZE + 1));
+        assertThrows(InvalidRequestException.class, () -> postService.getPostsByBusiness(1, "12", 10));
+        assertThrows(InvalidRequestException.class, () -> postService.getPostsByBusiness(1, "a.b.c", 10));
+    }
+
+    @Test
+    @DisplayName("Verifying createPost() fills in a missing creation time")
+    public void testCreatePostFillsCreatedTime() {
+        when(postRepository.save(post0)).thenReturn(post0);
+        postService.createPost(post0);
+        assertNotNull(post0.getCreatedTime());
+    }
+
+    @Test
+    @DisplayName("Verifying getPostsSince() returns the cursor of its last Post, and keeps the cursor on an empty page")
+    public void testGetPostsSince() {
+        Timestamp time = Timestamp.valueOf("2021-03-01 09:00:00.5");
+        Post post = postAt(4, null);
+        post.setModifiedTime(time);
+        when(postRepository.findFirstModifiedPosts(any(Timestamp.class), eq(PageRequest.of(0, 10))))
+                .thenReturn(Collections.singletonList(post));
+
+        KeysetPage<Post> page = postService.getPostsSince(null, 10);
+        assertEquals(Collections.singletonList(post), page.getItems());
+        String cursor = page.getNextCursor();
+        assertEquals(new TimeCursor(time, 4), TimeCursor.parse(cursor));
+
+        when(postRepository.findPostsModifiedAfter(eq(time), eq(4), any(Timestamp.class), eq(PageRequest.of(0, 10))))
+                .thenReturn(new ArrayList<>());
+        page = postService.getPostsSince(cursor, 10);
+        assertTrue(page.getItems().isEmpty());
+        assertEquals(cursor, page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Verifying getPostsSince() leaves out the Posts written within the sync window")
+    public void testGetPostsSinceWindow() {
+        long before = System.currentTimeMillis();
+        postService.getPostsSince(null, 10);
+        long after = System.currentTimeMillis();
+
+        ArgumentCaptor<Timestamp> until = ArgumentCaptor.forClass(Timestamp.class);
+        verify(postRepository).findFirstModifiedPosts(until.capture(), eq(PageRequest.of(0, 10)));
+        assertTrue(until.getValue().getTime() >= before - 1000);
+        assertTrue(until.getValue().getTime() <= after - 1000);
+    }
+
+    @Test
+    @DisplayName("Verifying getPostsSince() throws error for a bad limit or a malformed cursor")
+    public void testGetPostsSinceInvalid() {
+        assertThrows(InvalidRequestException.class, () -> postService.getPostsSince(null, 0));
+        assertThrows(InvalidRequestException.class, () -> postService.getPostsSince("yesterday", 10));
+    }
+
 }
@@ -0,0 +1,67 @@
+package com.revature.services;
+
+import com.revature.events.ChangeType;
+import com.revature.events.PostEvent;
+import com.revature.exceptions.InvalidRequestException;
+import com.revature.models.Business;
+import com.revature.models.Post;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PostStreamServiceTester {
+
+    PostStreamService postStreams;
+
+    @BeforeEach
+    public void init() {
+        postStreams = new PostStreamService(60_000, 8, 1, 10_000);
+    }
+
+    @AfterEach
+    public void shutdown() {
+        postStreams.shutdown();
+    }
+
+    private PostEvent event(int businessId, int postId) {
+        Business business = new Business();
+        business.setId(businessId);
+        Post post = new Post();
+        post.setPostId(postId);
+        post.setBusiness(business);
+        return new PostEvent(ChangeType.CREATED, post);
+    }
+
+    @Test
+    @DisplayName("Verifying subscribe() opens a stream that counts as a subscriber")
+    public void subscribe() {
+        assertNotNull(postStreams.subscribe(Arrays.asList(1, 2, 2)));
+        assertEquals(1, postStreams.getStats().getSubscribers());
+
+        postStreams.onPostEvent(event(2, 5));
+        postStreams.onPostEvent(event(3, 6));
+        assertEquals(2, postStreams.getStats().getPublished());
+    }
+
+    @Test
+    @DisplayName("Verifying subscribe() throws error for a missing, empty or oversized id list")
+    public void subscribeInvalid() {
+        List<Integer> tooMany = new ArrayList<>();
+        for (int i = 1; i <= PostStreamService.MAX_BUSINESSES + 1; i++) {
+            tooMany.add(i);
+        }
+        assertThrows(InvalidRequestException.class, () -> postStreams.subscribe(null));
+        assertThrows(InvalidRequestException.class, () -> postStreams.subscribe(Collections.emptyList()));
+        assertThrows(InvalidRequestException.class, () -> postStreams.subscribe(tooMany));
+        assertEquals(0, postStreams.getStats().getSubscribers());
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.revature.services;
+
+import com.revature.events.BusinessEvent;
+import com.revature.events.ChangeType;
+import com.revature.events.PostEvent;
+import com.revature.models.Business;
+import com.revature.models.Post;
+import com.revature.services.ReadCacheService.Endpoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ReadCacheServiceTester {
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @Mock
+    TransactionStatus status;
+
+    ReadCacheService readCache;
+    AtomicInteger loads;
+    Business business;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+        when(transactionManager.getTransaction(any())).thenReturn(status);
+        readCache = new ReadCacheService(transactionManager, 60_000, 300_000, 1);
+        loads = new AtomicInteger();
+
+        business = new Business();
+        business.setId(1);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        readCache.shutdown();
+    }
+
+    private Integer load() {
+        return loads.incrementAndGet();
+    }
+
+    @Test
+    @DisplayName("Verifying get() reads each endpoint once, in a read only transaction")
+    public void get() {
+        assertEquals(Integer.valueOf(1), readCache.get(Endpoint.POSTS, 1, this::load));
+        assertEquals(Integer.valueOf(1), readCache.get(Endpoint.POSTS, 1, this::load));
+        assertEquals(Integer.valueOf(2), readCache.get(Endpoint.REVIEWS, 1, this::load));
+        verify(transactionManager, times(2)).commit(status);
+    }
+
+    @Test
+    @DisplayName("Verifying writes drop the cached responses of their Business")
+    public void eventsInvalidate() {
+        readCache.get(Endpoint.BUSINESS, 1, this::load);
+        readCache.get(Endpoint.POSTS, 1, this::load);
+        readCache.get(Endpoint.REVIEWS, 1, this::load);
+
+        Post post = new Post();
+        post.setBusiness(business);
+        readCache.onPostEvent(new PostEvent(ChangeType.CREATED, post));
+        assertEquals(Integer.valueOf(4), readCache.get(Endpoint.POSTS, 1, this::load));
+        assertEquals(Integer.valueOf(5), readCache.get(Endpoint.BUSINESS, 1, this::load));
+        assertEquals(Integer.valueOf(3), readCache.get(Endpoint.REVIEWS, 1, this::load));
+
+        readCache.onBusinessEvent(new BusinessEvent(ChangeType.UPDATED, business));
+        assertEquals(Integer.valueOf(6), readCache.get(Endpoint.REVIEWS, 1, this::load));
+    }
+
+    @Test
+    @DisplayName("Verifying getStats() reports every endpoint")
+    public void getStats() {
+        readCache.get(Endpoint.HOURS, 1, this::load);
+        assertEquals(Endpoint.values().length, readCache.getStats().size());
+        assertEquals(1, readCache.getStats().get(Endpoint.HOURS.ordinal()).getMisses());
+    }
+
+}
@@ -20,6 +20,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.context.ApplicationEventPublisher;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.jupiter.api.Assertions.*;
@@ -38,6 +39,9 @@ public class ReviewsServiceTester {
     @Mock
     ReviewsRepository revRepo;
 
+    @Mock
+    ApplicationEventPublisher publisher;
+
     Business bus;
     Review validReview, invalidReview;
     User user;
@@ -98,6 +102,7 @@ public class ReviewsServiceTester {
     @Test
     @DisplayName("Verifying createReview() works as expected and call repo to create new review")
     public void testCreateReview() {
+        when(revRepo.save(validReview)).thenReturn(validReview);
         revService.createReview(validReview);
         verify(revRepo, times(1)).save(validReview);
     }
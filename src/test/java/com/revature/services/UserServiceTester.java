@@ -1,5 +1,6 @@
 package com.revature.services;
 
+import com.revature.dtos.KeysetPage;
 import com.revature.exceptions.InvalidRequestException;
 import com.revature.exceptions.ResourceNotFoundException;
 import com.revature.exceptions.ResourcePersistenceException;
@@ -15,6 +16,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.jupiter.api.Assertions.*;
@@ -60,21 +63,40 @@ public class UserServiceTester {
     @Test
     @DisplayName("Verifying getAllUsers() works as expected and pulls all Users")
     public void getAllUsers() {
-        when(userRepo.findAll()).thenReturn(list);
+        when(userRepo.findUsersByUserIdGreaterThanOrderByUserIdAsc(eq(0), any(Pageable.class))).thenReturn(list);
 
-        assertEquals(userService.getAllUsers(), list);
-        verify(userRepo, times(1)).findAll();
-        assertEquals(3, userService.getAllUsers().size());
-        verify(userRepo, times(2)).findAll();
+        KeysetPage<User> page = userService.getAllUsers(0, 50);
+        assertEquals(list, page.getItems());
+        assertFalse(page.hasNext());
+        verify(userRepo, times(1)).findUsersByUserIdGreaterThanOrderByUserIdAsc(0, PageRequest.of(0, 51));
     }
 
     @Test
-    @DisplayName("Verifying getAllUsers() throws error when no Users found")
+    @DisplayName("Verifying getAllUsers() returns a next cursor when there are more Users")
+    public void getAllUsersWithNextPage() {
+        when(userRepo.findUsersByUserIdGreaterThanOrderByUserIdAsc(eq(0), any(Pageable.class))).thenReturn(list);
+
+        KeysetPage<User> page = userService.getAllUsers(0, 1);
+        assertEquals(1, page.getItems().size());
+        assertEquals(String.valueOf(userOne.getUserId()), page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Verifying getAllUsers() returns an empty page without a cursor when no Users found")
     public void getAllUsersButNoUsers() {
         list.removeAll(list);
-        when(userRepo.findAll()).thenReturn(list);
+        when(userRepo.findUsersByUserIdGreaterThanOrderByUserIdAsc(eq(0), any(Pageable.class))).thenReturn(list);
 
-        assertThrows(ResourceNotFoundException.class, () -> userService.getAllUsers());
+        KeysetPage<User> page = userService.getAllUsers(0, 50);
+        assertTrue(page.getItems().isEmpty());
+        assertFalse(page.hasNext());
+    }
+
+    @Test
+    @DisplayName("Verifying getAllUsers() throws error for an invalid cursor or limit")
+    public void getAllUsersInvalidPage() {
+        assertThrows(InvalidRequestException.class, () -> userService.getAllUsers(-1, 50));
+        assertThrows(InvalidRequestException.class, () -> userService.getAllUsers(0, 0));
     }
 
     @Test
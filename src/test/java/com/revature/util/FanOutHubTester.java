@@ -0,0 +1,178 @@
+package com.revature.util;
+
+import com.revature.dtos.FanOutStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FanOutHubTester {
+
+    /**
+     * Holds the drains until the test runs them
+     */
+    Queue<Runnable> pending;
+    FanOutHub<Integer, String> hub;
+
+    @BeforeEach
+    public void setup() {
+        pending = new ArrayDeque<>();
+        hub = new FanOutHub<>("test", 3, 50, pending::add, Runnable::run);
+    }
+
+    private void runPending() {
+        while (!pending.isEmpty()) {
+            pending.poll().run();
+        }
+    }
+
+    @Test
+    @DisplayName("Verifying messages reach only the subscribers of their key, in order")
+    public void publishToKey() {
+        List<String> first = new ArrayList<>();
+        List<String> second = new ArrayList<>();
+        hub.subscribe(new HashSet<>(Arrays.asList(1, 2)), first::add);
+        hub.subscribe(Collections.singleton(2), second::add);
+
+        assertEquals(1, hub.publish(1, "a"));
+        assertEquals(2, hub.publish(2, "b"));
+        assertEquals(0, hub.publish(3, "c"));
+        runPending();
+
+        assertEquals(Arrays.asList("a", "b"), first);
+        assertEquals(Collections.singletonList("b"), second);
+    }
+
+    @Test
+    @DisplayName("Verifying a subscriber that falls behind loses its oldest messages")
+    public void slowSubscriber() {
+        List<String> received = new ArrayList<>();
+        hub.subscribe(Collections.singleton(1), received::add);
+
+        for (String message : Arrays.asList("a", "b", "c", "d", "e")) {
+            hub.publish(1, message);
+        }
+        assertEquals(1, pending.size());
+        runPending();
+
+        assertEquals(Arrays.asList("c", "d", "e"), received);
+        FanOutStats stats = hub.getStats();
+        assertEquals(5, stats.getPublished());
+        assertEquals(3, stats.getDelivered());
+        assertEquals(2, stats.getDropped());
+    }
+
+    @Test
+    @DisplayName("Verifying a subscriber whose sink fails is closed, and closed ones get nothing")
+    public void closeSubscriber() {
+        FanOutHub<Integer, String>.Subscription failing = hub.subscribe(Collections.singleton(1), message -> {
+            throw new IOException("gone");
+        });
+        List<String> received = new ArrayList<>();
+        FanOutHub<Integer, String>.Subscription closing = hub.subscribe(Collections.singleton(1), received::add);
+
+        hub.publish(1, "a");
+        runPending();
+        assertTrue(failing.isClosed());
+        assertEquals(Collections.singletonList("a"), received);
+
+        closing.close();
+        assertEquals(0, hub.publish(1, "b"));
+        assertEquals(0, hub.getSubscriberCount());
+    }
+
+    @Test
+    @DisplayName("Verifying a drain hands back its thread after a batch so other subscribers take turns")
+    public void drainInBatches() {
+        FanOutHub<Integer, String> roomy = new FanOutHub<>("test", 100, 50, pending::add, Runnable::run);
+        List<String> received = new ArrayList<>();
+        roomy.subscribe(Collections.singleton(1), received::add);
+
+        for (int i = 0; i < 40; i++) {
+            roomy.publish(1, String.valueOf(i));
+        }
+        pending.poll().run();
+        assertTrue(received.size() < 40);
+        assertEquals(1, pending.size());
+
+        runPending();
+        assertEquals(40, received.size());
+    }
+
+    @Test
+    @DisplayName("Verifying closeStalled() aborts a delivery blocked past the timeout and frees its thread")
+    public void closeStalled() throws Exception {
+        CountDownLatch connection = new CountDownLatch(1);
+        FanOutHub<Integer, String>.Subscription stuck = hub.subscribe(Collections.singleton(1), message -> {
+            try {
+                connection.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IOException("connection dropped");
+        }, connection::countDown);
+
+        hub.publish(1, "a");
+        Thread sender = new Thread(pending.poll());
+        sender.start();
+
+        assertEquals(0, hub.closeStalled());
+        Thread.sleep(100);
+        assertEquals(1, hub.closeStalled());
+        sender.join(1000);
+
+        assertFalse(sender.isAlive());
+        assertTrue(stuck.isClosed());
+        assertEquals(0, hub.getSubscriberCount());
+    }
+
+    @Test
+    @DisplayName("Verifying closeStalled() neither waits for an abort that blocks behind the stalled send nor leaves the sender blocked")
+    public void closeStalledBlockingAbort() throws Exception {
+        // like SseEmitter, the send holds a monitor while it writes and the abort needs that monitor
+        Object emitter = new Object();
+        CountDownLatch aborted = new CountDownLatch(1);
+        FanOutHub<Integer, String> blocking = new FanOutHub<>("test", 3, 50, pending::add,
+                runnable -> new Thread(runnable).start());
+        blocking.subscribe(Collections.singleton(1), message -> {
+            synchronized (emitter) {
+                try {
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException("write interrupted");
+                }
+            }
+        }, () -> {
+            synchronized (emitter) {
+                aborted.countDown();
+            }
+        });
+
+        blocking.publish(1, "a");
+        Thread sender = new Thread(pending.poll());
+        sender.start();
+        Thread.sleep(100);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> assertEquals(1, blocking.closeStalled()));
+        sender.join(1000);
+
+        assertFalse(sender.isAlive());
+        assertTrue(aborted.await(1, TimeUnit.SECONDS));
+        assertEquals(0, blocking.getSubscriberCount());
+    }
+
+}
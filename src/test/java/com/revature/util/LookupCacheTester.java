@@ -0,0 +1,102 @@
+package com.revature.util;
+
+import com.revature.dtos.CacheStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LookupCacheTester {
+
+    AtomicLong now;
+    AtomicInteger loads;
+    LookupCache<Integer, String> cache;
+
+    @BeforeEach
+    public void setup() {
+        now = new AtomicLong();
+        loads = new AtomicInteger();
+        cache = new LookupCache<>("test", 2, 60, 5, TimeUnit.SECONDS, now::get);
+    }
+
+    private Optional<String> load(Integer key) {
+        loads.incrementAndGet();
+        return key < 0 ? Optional.empty() : Optional.of("value" + key);
+    }
+
+    @Test
+    @DisplayName("Verifying get() loads once and serves hits until the entry expires")
+    public void getExpires() {
+        assertEquals(Optional.of("value1"), cache.get(1, this::load));
+        assertEquals(Optional.of("value1"), cache.get(1, this::load));
+        assertEquals(1, loads.get());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        cache.get(1, this::load);
+        assertEquals(2, loads.get());
+
+        CacheStats stats = cache.getStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(2, stats.getMisses());
+    }
+
+    @Test
+    @DisplayName("Verifying get() remembers missing keys for the shorter time")
+    public void getNegative() {
+        assertFalse(cache.get(-1, this::load).isPresent());
+        assertFalse(cache.get(-1, this::load).isPresent());
+        assertEquals(1, loads.get());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(6));
+        cache.get(-1, this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Verifying get() evicts the least recently used entry when full")
+    public void getEvictsEldest() {
+        cache.get(1, this::load);
+        cache.get(2, this::load);
+        cache.get(1, this::load);
+        cache.get(3, this::load);
+
+        cache.get(1, this::load);
+        assertEquals(3, loads.get());
+        cache.get(2, this::load);
+        assertEquals(4, loads.get());
+        assertEquals(2, cache.getStats().getEvictions());
+    }
+
+    @Test
+    @DisplayName("Verifying a load that races with invalidate() is not cached")
+    public void getRacingInvalidate() {
+        cache.get(1, key -> {
+            cache.invalidate(key);
+            return load(key);
+        });
+        cache.get(1, this::load);
+        assertEquals(2, loads.get());
+
+        cache.invalidate(1);
+        cache.get(1, this::load);
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    @DisplayName("Verifying a load is still cached when another key is invalidated meanwhile")
+    public void getWithOtherInvalidate() {
+        cache.get(1, key -> {
+            cache.invalidate(2);
+            return load(key);
+        });
+        cache.get(1, this::load);
+        assertEquals(1, loads.get());
+    }
+
+}
@@ -0,0 +1,136 @@
+package com.revature.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTester {
+
+    static final int CALLERS = 8;
+
+    ExecutorService executor;
+    AtomicInteger calls;
+
+    @BeforeEach
+    public void setup() {
+        executor = Executors.newFixedThreadPool(CALLERS);
+        calls = new AtomicInteger();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Starts a caller for key 1 whose call blocks until released
+     */
+    private Future<String> startBlockedCall(SingleFlight<Integer, String> flight, CountDownLatch started,
+                                            CountDownLatch release) {
+        return executor.submit(() -> flight.run(1, () -> {
+            calls.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "shared";
+        }));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitForShared(SingleFlight<?, ?> flight, long shared) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (flight.getShared() < shared && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    @DisplayName("Verifying run() shares one call between concurrent callers for a key")
+    public void runCoalesces() throws Exception {
+        SingleFlight<Integer, String> flight = new SingleFlight<>(10, TimeUnit.SECONDS);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = new ArrayList<>();
+        results.add(startBlockedCall(flight, started, release));
+        await(started);
+        for (int i = 1; i < CALLERS; i++) {
+            results.add(executor.submit(() -> flight.run(1, () -> {
+                calls.incrementAndGet();
+                return "own";
+            })));
+        }
+        waitForShared(flight, CALLERS - 1);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("shared", result.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, calls.get());
+        assertEquals(1, flight.getCalls());
+
+        // the finished call is forgotten, so the next caller makes a new one
+        assertEquals("next", flight.run(1, () -> "next"));
+        assertEquals(2, flight.getCalls());
+    }
+
+    @Test
+    @DisplayName("Verifying run() stops waiting after the limit and makes its own call")
+    public void runBoundedWait() throws Exception {
+        SingleFlight<Integer, String> flight = new SingleFlight<>(20, TimeUnit.MILLISECONDS);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = startBlockedCall(flight, started, release);
+        await(started);
+        assertEquals("own", flight.run(1, () -> "own"));
+        assertEquals(2, flight.getCalls());
+
+        release.countDown();
+        assertEquals("shared", leader.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Verifying run() passes the failure of a shared call to every waiting caller")
+    public void runSharesFailure() throws Exception {
+        SingleFlight<Integer, String> flight = new SingleFlight<>(10, TimeUnit.SECONDS);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> flight.run(1, () -> {
+            started.countDown();
+            await(release);
+            throw new IllegalArgumentException("boom");
+        }));
+        await(started);
+        Future<String> follower = executor.submit(() -> flight.run(1, () -> "own"));
+        waitForShared(flight, 1);
+        release.countDown();
+
+        for (Future<String> result : Arrays.asList(leader, follower)) {
+            Exception e = assertThrows(Exception.class, () -> result.get(10, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+        assertEquals(1, flight.getCalls());
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.revature.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revature.config.JacksonConfig;
+import com.revature.models.Business;
+import com.revature.models.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SparseFieldsFilterTester {
+
+    ObjectMapper mapper;
+    Business business;
+
+    @BeforeEach
+    public void setup() {
+        JacksonConfig config = new JacksonConfig();
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder().modules(config.sparseFieldsModule());
+        config.sparseFieldsCustomizer().customize(builder);
+        mapper = builder.build();
+
+        User owner = new User();
+        owner.setUserId(3);
+        owner.setUsername("owner");
+        owner.setEmail("owner@email.com");
+        business = new Business();
+        business.setId(1);
+        business.setBusinessName("Bakery");
+        business.setBusinessType("bakery");
+        business.setOwner(owner);
+    }
+
+    private JsonNode write(Object value, String fields) throws Exception {
+        return mapper.readTree(mapper.writer(SparseFieldsFilter.provider(fields)).writeValueAsString(value));
+    }
+
+    private static Set<String> names(JsonNode node) {
+        Set<String> names = new TreeSet<>();
+        for (Iterator<String> it = node.fieldNames(); it.hasNext(); ) {
+            names.add(it.next());
+        }
+        return names;
+    }
+
+    @Test
+    @DisplayName("Verifying every field is written when no fields are requested")
+    public void noFields() throws Exception {
+        JsonNode json = mapper.readTree(mapper.writeValueAsString(business));
+        assertEquals("Bakery", json.get("businessName").asText());
+        assertEquals("owner", json.get("owner").get("username").asText());
+        assertNull(SparseFieldsFilter.provider(" , "));
+    }
+
+    @Test
+    @DisplayName("Verifying only the requested fields are written, nested ones by path")
+    public void requestedFields() throws Exception {
+        JsonNode json = write(business, "id, businessName,owner.username");
+        assertEquals(new TreeSet<>(Arrays.asList("id", "businessName", "owner")), names(json));
+        assertEquals(new TreeSet<>(Arrays.asList("username")), names(json.get("owner")));
+
+        JsonNode wholeOwner = write(business, "owner");
+        assertEquals("owner@email.com", wholeOwner.get("owner").get("email").asText());
+        assertEquals(new TreeSet<>(Arrays.asList("owner")), names(wholeOwner));
+    }
+
+    @Test
+    @DisplayName("Verifying the requested fields apply to every element of a list")
+    public void listElements() throws Exception {
+        List<Business> businesses = Arrays.asList(business, business);
+        for (JsonNode element : write(businesses, "businessType")) {
+            assertEquals(new TreeSet<>(Arrays.asList("businessType")), names(element));
+        }
+    }
+
+}
@@ -0,0 +1,132 @@
+package com.revature.util;
+
+import com.revature.dtos.ReadCacheStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StaleWhileRevalidateCacheTester {
+
+    AtomicLong now;
+    AtomicInteger loads;
+    Queue<Runnable> refreshes;
+    StaleWhileRevalidateCache<Integer, String> cache;
+
+    @BeforeEach
+    public void setup() {
+        now = new AtomicLong();
+        loads = new AtomicInteger();
+        refreshes = new ArrayDeque<>();
+        cache = new StaleWhileRevalidateCache<>("test", 10, 5, 60, TimeUnit.SECONDS, refreshes::add, now::get);
+    }
+
+    private String load() {
+        return "value" + loads.incrementAndGet();
+    }
+
+    private void advanceSeconds(long seconds) {
+        now.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+
+    @Test
+    @DisplayName("Verifying get() serves a stale value and refreshes it once in the background")
+    public void getStale() {
+        assertEquals("value1", cache.get(1, this::load));
+        assertEquals("value1", cache.get(1, this::load));
+
+        advanceSeconds(6);
+        assertEquals("value1", cache.get(1, this::load));
+        assertEquals("value1", cache.get(1, this::load));
+        assertEquals(1, refreshes.size());
+        assertEquals(1, loads.get());
+
+        refreshes.poll().run();
+        assertEquals("value2", cache.get(1, this::load));
+
+        ReadCacheStats stats = cache.getStats();
+        assertEquals(2, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(2, stats.getStaleServes());
+        assertEquals(1, stats.getRefreshes());
+    }
+
+    @Test
+    @DisplayName("Verifying get() keeps the stale value when a refresh fails, until the hard TTL")
+    public void getRefreshFails() {
+        cache.get(1, this::load);
+        advanceSeconds(6);
+
+        cache.get(1, () -> { throw new IllegalStateException("database down"); });
+        refreshes.poll().run();
+        assertEquals("value1", cache.get(1, this::load));
+        assertEquals(1, cache.getStats().getRefreshFailures());
+
+        // past the hard TTL the caller waits for the loader
+        advanceSeconds(60);
+        assertThrows(IllegalStateException.class, () -> cache.get(1, () -> { throw new IllegalStateException(); }));
+        assertEquals("value2", cache.get(1, this::load));
+    }
+
+    @Test
+    @DisplayName("Verifying get() doesn't store a refresh that raced with invalidate()")
+    public void getRefreshRacingInvalidate() {
+        cache.get(1, this::load);
+        advanceSeconds(6);
+        cache.get(1, this::load);
+
+        cache.invalidate(1);
+        refreshes.poll().run();
+        assertEquals("value3", cache.get(1, this::load));
+    }
+
+    @Test
+    @DisplayName("Verifying a refresh is still stored when another key is invalidated meanwhile")
+    public void getRefreshWithOtherInvalidate() {
+        cache.get(1, this::load);
+        advanceSeconds(6);
+        cache.get(1, this::load);
+
+        cache.invalidate(2);
+        refreshes.poll().run();
+        assertEquals("value2", cache.get(1, this::load));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Verifying a refresh that loads nothing counts as failed and lets the next caller refresh again")
+    public void getRefreshLoadsNull() {
+        cache.get(1, this::load);
+        advanceSeconds(6);
+
+        cache.get(1, () -> null);
+        refreshes.poll().run();
+        assertEquals(1, cache.getStats().getRefreshFailures());
+
+        assertEquals("value1", cache.get(1, this::load));
+        assertEquals(1, refreshes.size());
+        refreshes.poll().run();
+        assertEquals("value2", cache.get(1, this::load));
+    }
+
+    @Test
+    @DisplayName("Verifying get() keeps serving stale when the refresh can't be queued")
+    public void getRefreshRejected() {
+        StaleWhileRevalidateCache<Integer, String> full = new StaleWhileRevalidateCache<>("full", 10, 5, 60,
+                TimeUnit.SECONDS, runnable -> { throw new RejectedExecutionException(); }, now::get);
+        full.get(1, this::load);
+        advanceSeconds(6);
+
+        assertEquals("value1", full.get(1, this::load));
+        assertEquals(1, full.getStats().getRefreshFailures());
+    }
+
+}
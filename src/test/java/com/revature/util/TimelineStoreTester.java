@@ -0,0 +1,84 @@
+package com.revature.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimelineStoreTester {
+
+    TimelineStore<Integer, Integer> store;
+
+    @BeforeEach
+    public void setup() {
+        store = new TimelineStore<>(2, 3, Collections.reverseOrder());
+    }
+
+    @Test
+    @DisplayName("Verifying entries appended while a timeline is loading are kept")
+    public void appendWhileLoading() {
+        TimelineStore.Timeline<Integer> timeline = store.getOrCreate(1);
+        assertFalse(timeline.isLoaded());
+
+        assertTrue(store.append(1, 9));
+        assertFalse(store.append(2, 9));
+        timeline.load(Arrays.asList(5, 4), true);
+
+        assertTrue(timeline.isLoaded());
+        assertTrue(timeline.isComplete());
+        assertEquals(Arrays.asList(9, 5, 4), timeline.before(null, 10));
+    }
+
+    @Test
+    @DisplayName("Verifying before() pages by cursor, newest first")
+    public void before() {
+        TimelineStore.Timeline<Integer> timeline = store.getOrCreate(1);
+        timeline.load(Arrays.asList(3, 7, 5), true);
+
+        assertEquals(Arrays.asList(7, 5), timeline.before(null, 2));
+        assertEquals(Collections.singletonList(3), timeline.before(5, 2));
+        assertEquals(Collections.emptyList(), timeline.before(3, 2));
+    }
+
+    @Test
+    @DisplayName("Verifying remove() drops an entry")
+    public void remove() {
+        TimelineStore.Timeline<Integer> timeline = store.getOrCreate(1);
+        timeline.load(Arrays.asList(3, 7, 5), true);
+        timeline.remove(5);
+
+        assertEquals(Arrays.asList(7, 3), timeline.before(null, 10));
+    }
+
+    @Test
+    @DisplayName("Verifying a timeline drops its oldest entries past its capacity and is no longer complete")
+    public void capacity() {
+        TimelineStore.Timeline<Integer> timeline = store.getOrCreate(1);
+        timeline.load(Arrays.asList(1, 2, 3), true);
+        store.append(1, 4);
+
+        assertFalse(timeline.isComplete());
+        assertEquals(Arrays.asList(4, 3, 2), timeline.before(null, 10));
+    }
+
+    @Test
+    @DisplayName("Verifying the least recently used timeline is dropped past the limit, and invalidate() drops one")
+    public void eviction() {
+        TimelineStore.Timeline<Integer> first = store.getOrCreate(1);
+        store.getOrCreate(2);
+        assertSame(first, store.getOrCreate(1));
+        store.getOrCreate(3);
+
+        assertEquals(2, store.size());
+        assertFalse(store.append(2, 1));
+        assertTrue(store.append(1, 1));
+
+        store.invalidate(1);
+        assertNotSame(first, store.getOrCreate(1));
+    }
+
+}
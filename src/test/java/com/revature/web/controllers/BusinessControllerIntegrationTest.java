@@ -1,5 +1,7 @@
 package com.revature.web.controllers;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
@@ -31,6 +33,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
@@ -176,7 +179,7 @@ public class BusinessControllerIntegrationTest {
     @Test
     public void test_getAllBusinesses() throws Exception {
 
-        when(businessRepoMock.findAll()).thenReturn(list);
+        when(businessRepoMock.findBusinessesByIdGreaterThanOrderByIdAsc(eq(0), any(Pageable.class))).thenReturn(list);
 
         this.mockMvc.perform(MockMvcRequestBuilders.get("/businesses"))
                     .andDo(print())
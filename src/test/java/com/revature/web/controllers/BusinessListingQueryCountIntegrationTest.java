@@ -0,0 +1,300 @@
+package com.revature.web.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.persistence.EntityManagerFactory;
+
+import com.revature.models.Business;
+import com.revature.models.Hours;
+import com.revature.models.Post;
+import com.revature.models.Review;
+import com.revature.models.Role;
+import com.revature.models.User;
+import com.revature.repos.BusinessRepository;
+import com.revature.repos.HoursRepository;
+import com.revature.repos.PostRepository;
+import com.revature.repos.ReviewsRepository;
+import com.revature.repos.UserRepository;
+import com.revature.services.PostService;
+
+import com.jayway.jsonpath.JsonPath;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+/**
+ * Runs the Business listing endpoints against the embedded database and checks that the number
+ * of SQL statements stays bounded no matter how many Businesses are listed
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ExtendWith(SpringExtension.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class BusinessListingQueryCountIntegrationTest {
+
+    private static final int BUSINESS_COUNT = 30;
+    private static final String TYPE = "bakery";
+
+    private MockMvc mockMvc;
+    private final WebApplicationContext webContext;
+    private final Statistics statistics;
+
+    @Autowired
+    private UserRepository userRepo;
+    @Autowired
+    private BusinessRepository businessRepo;
+    @Autowired
+    private ReviewsRepository reviewRepo;
+    @Autowired
+    private HoursRepository hoursRepo;
+    @Autowired
+    private PostRepository postRepo;
+    @Autowired
+    private PostService postService;
+
+    User owner, fan;
+
+    @Autowired
+    public BusinessListingQueryCountIntegrationTest(WebApplicationContext webContext, EntityManagerFactory emf) {
+        this.webContext = webContext;
+        this.statistics = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @BeforeAll
+    public void seed() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        owner = user("countOwner", Role.OWNER);
+        fan = user("countFan", Role.USER);
+        List<Business> favorites = new ArrayList<>();
+
+        for (int i = 0; i < BUSINESS_COUNT; i++) {
+            Business business = new Business();
+            business.setOwner(owner);
+            business.setEmail("count" + i + "@business.com");
+            business.setBusinessName("Count " + i);
+            business.setLocation("somewhere");
+            business.setBusinessType(TYPE);
+            business.setLatitude(38.6 + i * 0.001);
+            business.setLongitude(-90.2);
+            business.setActive(true);
+            business.setRegisterDatetime(now);
+            businessRepo.save(business);
+            favorites.add(business);
+
+            Review review = new Review();
+            review.setBusiness(business);
+            review.setUser(i % 2 == 0 ? fan : owner);
+            review.setRating(4.0);
+            review.setReview("good");
+            reviewRepo.save(review);
+
+            Hours hours = new Hours();
+            hours.setBusiness(business);
+            hours.setDay(1);
+            hours.setOpen(Timestamp.valueOf("2020-03-14 08:00:00"));
+            hours.setClosed(Timestamp.valueOf("2020-03-14 21:00:00"));
+            hoursRepo.save(hours);
+
+            Post post = new Post();
+            post.setBusiness(business);
+            post.setPostType("Sale");
+            post.setBody("sale number " + i);
+            post.setCreatedTime(now);
+            postRepo.save(post);
+        }
+
+        fan.setFavorites(favorites);
+        userRepo.save(fan);
+    }
+
+    private User user(String username, Role role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("pass");
+        user.setEmail(username + "@email.com");
+        user.setFirstName("first");
+        user.setLastName("last");
+        user.setRole(role);
+        user.setActive(true);
+        return userRepo.save(user);
+    }
+
+    @BeforeEach
+    public void setup() {
+        this.mockMvc = MockMvcBuilders.webAppContextSetup(webContext).build();
+    }
+
+    /**
+     * Performs the request and returns the number of statements it prepared
+     */
+    private long countStatements(RequestBuilder request, int expectedSize) throws Exception {
+        statistics.clear();
+        mockMvc.perform(request)
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.size()").value(expectedSize));
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void assertBounded(long statements) {
+        // one query for the businesses plus a few batched loads, never one per business
+        assertTrue(statements <= 10, "expected at most 10 statements but saw " + statements);
+    }
+
+    @Test
+    public void test_getAllBusinesses_statementCount() throws Exception {
+        assertBounded(countStatements(MockMvcRequestBuilders.get("/businesses").param("limit", "200"),
+                BUSINESS_COUNT + 1));
+    }
+
+    @Test
+    public void test_getBusinessesByType_statementCount() throws Exception {
+        assertBounded(countStatements(MockMvcRequestBuilders.get("/businesses/type/{type}", TYPE), BUSINESS_COUNT));
+    }
+
+    @Test
+    public void test_getBusinessesNear_statementCount() throws Exception {
+        // the nine geohash cell lookups only read coordinates; the closest Businesses are then
+        // loaded once, with the usual batch loads
+        long statements = countStatements(MockMvcRequestBuilders.get("/businesses/near")
+                .param("lat", "38.6").param("lon", "-90.2").param("radiusMeters", "5000"), BUSINESS_COUNT);
+        assertTrue(statements <= 9 + 10, "expected at most 19 statements but saw " + statements);
+    }
+
+    @Test
+    public void test_getBusinessesByIds_statementCount() throws Exception {
+        StringBuilder ids = new StringBuilder("999999");
+        for (Business business : businessRepo.findBusinessesByBusinessType(TYPE)) {
+            ids.append(',').append(business.getId());
+        }
+
+        statistics.clear();
+        mockMvc.perform(MockMvcRequestBuilders.get("/businesses").param("ids", ids.toString()))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.businesses.size()").value(BUSINESS_COUNT))
+               .andExpect(jsonPath("$.missingIds[0]").value(999999));
+        assertBounded(statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void test_getBusinessesByType_sparseFields() throws Exception {
+        statistics.clear();
+        mockMvc.perform(MockMvcRequestBuilders.get("/businesses/type/{type}", TYPE)
+                                              .param("fields", "id,businessName"))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.size()").value(BUSINESS_COUNT))
+               .andExpect(jsonPath("$[0].businessName").exists())
+               .andExpect(jsonPath("$[0].reviews").doesNotExist())
+               .andExpect(jsonPath("$[0].owner").doesNotExist());
+        // the Reviews, Hours and Posts are never written, so never loaded
+        assertEquals(0, statistics.getCollectionFetchCount());
+    }
+
+    @Test
+    public void test_getFavorites_statementCount() throws Exception {
+        assertBounded(countStatements(MockMvcRequestBuilders.get("/users/favorites/user/{id}", fan.getUserId()),
+                BUSINESS_COUNT));
+    }
+
+    @Test
+    public void test_getFeed_statementCount() throws Exception {
+        String cursor = mockMvc.perform(MockMvcRequestBuilders.get("/users/id/{id}/feed", fan.getUserId())
+                                                              .param("limit", "10"))
+                               .andExpect(status().isOk())
+                               .andExpect(jsonPath("$.size()").value(10))
+                               .andReturn().getResponse().getHeader("X-Next-Cursor");
+
+        // the timeline is loaded, so a page is a single lookup of its Posts
+        statistics.clear();
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/id/{id}/feed", fan.getUserId())
+                                              .param("cursor", cursor).param("limit", "10"))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.size()").value(10));
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        // a new Post is appended to the timeline when it is written
+        Post post = new Post();
+        post.setBusiness(businessRepo.findBusinessesByBusinessType(TYPE).get(0));
+        post.setPostType("Sale");
+        post.setBody("fanned out");
+        post.setCreatedTime(Timestamp.valueOf(LocalDateTime.now()));
+        postService.createPost(post);
+
+        statistics.clear();
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/id/{id}/feed", fan.getUserId()).param("limit", "50"))
+               .andExpect(status().isOk())
+               .andExpect(header().doesNotExist("X-Next-Cursor"))
+               .andExpect(jsonPath("$.size()").value(BUSINESS_COUNT + 1))
+               .andExpect(jsonPath("$[0].body").value("fanned out"));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void test_getBusinessPosts_pages() throws Exception {
+        Business business = businessRepo.findBusinessesByBusinessType(TYPE).get(1);
+        Timestamp shared = Timestamp.valueOf("2021-03-01 09:00:00.123456");
+        for (int i = 0; i < 4; i++) {
+            Post post = new Post();
+            post.setBusiness(business);
+            post.setPostType("Sale");
+            post.setBody("same time " + i);
+            post.setCreatedTime(shared);
+            postRepo.save(post);
+        }
+
+        // the newest Post comes first, then the four sharing a time, walked without repeats
+        Set<Integer> seen = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            statistics.clear();
+            MockHttpServletResponse response = mockMvc.perform(cursor == null
+                    ? MockMvcRequestBuilders.get("/businesses/id/{id}/posts", business.getId()).param("limit", "2")
+                    : MockMvcRequestBuilders.get("/businesses/id/{id}/posts", business.getId())
+                                            .param("limit", "2").param("cursor", cursor))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse();
+            // only the page itself; the Business is not loaded to check that it exists
+            assertEquals(1, statistics.getPrepareStatementCount());
+
+            for (Object id : JsonPath.<List<Object>>read(response.getContentAsString(), "$[*].postId")) {
+                assertTrue(seen.add((Integer) id));
+            }
+            cursor = response.getHeader("X-Next-Cursor");
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(5, seen.size());
+        assertEquals(3, pages);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/businesses/id/{id}/posts", 9999).param("limit", "2"))
+               .andExpect(status().isNotFound());
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.revature.web.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Timestamp;
+
+import com.revature.models.Business;
+import com.revature.models.Hours;
+import com.revature.repos.BusinessRepository;
+import com.revature.services.HoursService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+/**
+ * Checks that the Business read endpoints send ETags derived from the version columns, and
+ * answer 304 until the Business or its collections are written
+ */
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class ConditionalGetIntegrationTest {
+
+    private final WebApplicationContext webContext;
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BusinessRepository businessRepo;
+    @Autowired
+    private HoursService hoursService;
+
+    @Autowired
+    public ConditionalGetIntegrationTest(WebApplicationContext webContext) {
+        this.webContext = webContext;
+    }
+
+    @BeforeEach
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webContext).build();
+    }
+
+    private String eTagOf(String uri) throws Exception {
+        String eTag = mockMvc.perform(MockMvcRequestBuilders.get(uri))
+                             .andExpect(status().isOk())
+                             .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(eTag);
+        // the JSON, Smile and CBOR bodies share the ETag, so it is weak
+        assertTrue(eTag.startsWith("W/"));
+        return eTag;
+    }
+
+    @Test
+    public void test_ifNoneMatch_notModifiedUntilWritten() throws Exception {
+        String eTag = eTagOf("/businesses/id/1/hours");
+        String businessETag = eTagOf("/businesses/id/1");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/businesses/id/1/hours").header("If-None-Match", eTag))
+               .andExpect(status().isNotModified())
+               .andExpect(content().string(""));
+
+        Business business = businessRepo.findById(1).get();
+        Hours hours = new Hours();
+        hours.setBusiness(business);
+        hours.setDay(6);
+        hours.setOpen(Timestamp.valueOf("2020-03-14 10:00:00"));
+        hours.setClosed(Timestamp.valueOf("2020-03-14 14:00:00"));
+        hoursService.createHours(hours);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/businesses/id/1/hours").header("If-None-Match", eTag))
+               .andExpect(status().isOk());
+        assertNotEquals(eTag, eTagOf("/businesses/id/1/hours"));
+        assertNotEquals(businessETag, eTagOf("/businesses/id/1"));
+    }
+
+    @Test
+    public void test_missingBusiness_noETag() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/businesses/id/9999/posts").header("If-None-Match", "*"))
+               .andExpect(status().isNotFound());
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.revature.web.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+/**
+ * Checks that the Business endpoints answer in Smile or CBOR when asked to, and in JSON otherwise
+ */
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class ContentNegotiationIntegrationTest {
+
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+    private static final MediaType CBOR = MediaType.valueOf("application/cbor");
+
+    private final WebApplicationContext webContext;
+    private MockMvc mockMvc;
+
+    @Autowired
+    public ContentNegotiationIntegrationTest(WebApplicationContext webContext) {
+        this.webContext = webContext;
+    }
+
+    @BeforeEach
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webContext).build();
+    }
+
+    private JsonNode get(String uri, MediaType accept, ObjectMapper reader) throws Exception {
+        byte[] body = mockMvc.perform(MockMvcRequestBuilders.get(uri).accept(accept))
+                             .andExpect(status().isOk())
+                             .andExpect(content().contentTypeCompatibleWith(accept))
+                             .andReturn().getResponse().getContentAsByteArray();
+        return reader.readTree(body);
+    }
+
+    @Test
+    public void test_getBusiness_asSmileAndCbor() throws Exception {
+        JsonNode json = get("/businesses/id/1", MediaType.APPLICATION_JSON, new ObjectMapper());
+        JsonNode smile = get("/businesses/id/1", SMILE, new ObjectMapper(new SmileFactory()));
+        JsonNode cbor = get("/businesses/id/1", CBOR, new ObjectMapper(new CBORFactory()));
+
+        assertEquals(json, smile);
+        assertEquals(json, cbor);
+    }
+
+    @Test
+    public void test_sparseFields_applyToSmile() throws Exception {
+        JsonNode smile = get("/businesses/id/1?fields=id", SMILE, new ObjectMapper(new SmileFactory()));
+        assertEquals(1, smile.size());
+        assertEquals(1, smile.get("id").asInt());
+    }
+
+    @Test
+    public void test_anyAccept_defaultsToJson() throws Exception {
+        String type = mockMvc.perform(MockMvcRequestBuilders.get("/businesses/id/1/posts").accept(MediaType.ALL))
+                             .andExpect(status().isOk())
+                             .andReturn().getResponse().getContentType();
+        assertTrue(MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(type)), type);
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.revature.web.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import com.revature.models.Post;
+import com.revature.repos.BusinessRepository;
+import com.revature.services.PostService;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+/**
+ * Checks that a Post written for a followed Business is pushed down an open stream
+ */
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class PostStreamIntegrationTest {
+
+    private final MockMvc mockMvc;
+
+    @Autowired
+    private BusinessRepository businessRepo;
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    public PostStreamIntegrationTest(WebApplicationContext webContext) {
+        this.mockMvc = MockMvcBuilders.webAppContextSetup(webContext).build();
+    }
+
+    @Test
+    public void test_createPost_pushedToFollowers() throws Exception {
+        MvcResult stream = mockMvc.perform(MockMvcRequestBuilders.get("/businesses/posts/stream").param("ids", "1"))
+                                  .andExpect(status().isOk())
+                                  .andExpect(request().asyncStarted())
+                                  .andReturn();
+
+        Post post = new Post();
+        post.setBusiness(businessRepo.findById(1).get());
+        post.setPostType("Sale");
+        post.setBody("pushed post");
+        post.setCreatedTime(Timestamp.valueOf(LocalDateTime.now()));
+        postService.createPost(post);
+
+        MockHttpServletResponse response = stream.getResponse();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!response.getContentAsString().contains("pushed post") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        String body = response.getContentAsString();
+        assertTrue(body.contains("event:created"), body);
+        assertTrue(body.contains("\"body\":\"pushed post\""), body);
+    }
+
+}
@@ -0,0 +1,143 @@
+package com.revature.web.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.jayway.jsonpath.JsonPath;
+import com.revature.models.Post;
+import com.revature.repos.BusinessRepository;
+import com.revature.services.PostService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+/**
+ * Syncs the Posts through GET /posts?since= and checks that a client holding a cursor only
+ * gets the Posts written after it, including one whose write commits after a later stamped one
+ */
+@SpringBootTest(properties = "posts.sync-window-ms=" + PostSyncIntegrationTest.SYNC_WINDOW_MS)
+@ExtendWith(SpringExtension.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class PostSyncIntegrationTest {
+
+    static final long SYNC_WINDOW_MS = 300;
+
+    private final WebApplicationContext webContext;
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BusinessRepository businessRepo;
+    @Autowired
+    private PostService postService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public PostSyncIntegrationTest(WebApplicationContext webContext) {
+        this.webContext = webContext;
+    }
+
+    @BeforeEach
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webContext).build();
+    }
+
+    private Post createPost(String body) {
+        Post post = new Post();
+        post.setBusiness(businessRepo.findById(1).get());
+        post.setPostType("Sale");
+        post.setBody(body);
+        postService.createPost(post);
+        return post;
+    }
+
+    /**
+     * Fetches pages of one Post until an empty one, and returns the cursor to sync from next
+     */
+    private String sync(String since, List<String> bodies) throws Exception {
+        while (true) {
+            MockHttpServletResponse response = mockMvc.perform(since == null
+                    ? MockMvcRequestBuilders.get("/posts").param("limit", "1")
+                    : MockMvcRequestBuilders.get("/posts").param("limit", "1").param("since", since))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse();
+            List<String> page = JsonPath.read(response.getContentAsString(), "$[*].body");
+            if (since != null && page.isEmpty()) return since;
+
+            bodies.addAll(page);
+            since = response.getHeader("X-Next-Cursor");
+        }
+    }
+
+    @Test
+    public void test_getPostsSince_onlyReturnsLaterWrites() throws Exception {
+        Thread.sleep(SYNC_WINDOW_MS + 50);
+        String start = sync(null, new ArrayList<>());
+        createPost("first");
+        Post second = createPost("second");
+        Thread.sleep(SYNC_WINDOW_MS + 50);
+
+        List<String> bodies = new ArrayList<>();
+        String cursor = sync(start, bodies);
+        assertEquals(2, bodies.size());
+        assertEquals("second", bodies.get(1));
+
+        second.setBody("second, edited");
+        postService.editPost(second);
+        createPost("third");
+        Thread.sleep(SYNC_WINDOW_MS + 50);
+
+        bodies.clear();
+        sync(cursor, bodies);
+        assertEquals(2, bodies.size());
+        assertEquals("second, edited", bodies.get(0));
+        assertEquals("third", bodies.get(1));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/posts").param("since", "not a cursor"))
+               .andExpect(status().isBadRequest());
+        mockMvc.perform(MockMvcRequestBuilders.get("/posts").param("limit", "0"))
+               .andExpect(status().isBadRequest());
+        mockMvc.perform(MockMvcRequestBuilders.get("/posts").param("limit", "1"))
+               .andExpect(jsonPath("$.size()").value(1));
+    }
+
+    @Test
+    public void test_getPostsSince_keepsLateCommits() throws Exception {
+        Thread.sleep(SYNC_WINDOW_MS + 50);
+        String cursor = sync(null, new ArrayList<>());
+
+        // "early" is stamped before "late" but only commits after a sync has run past "late"
+        Post late = createPost("late");
+        List<String> bodies = new ArrayList<>();
+        cursor = sync(cursor, bodies);
+        assertTrue(bodies.isEmpty());
+
+        Timestamp stamped = new Timestamp(late.getModifiedTime().getTime() - 100);
+        jdbcTemplate.update("insert into posts (business_id, post_type, body, created_time, modified_time) " +
+                            "values (1, 'Sale', 'early', ?, ?)", stamped, stamped);
+
+        Thread.sleep(SYNC_WINDOW_MS + 50);
+        sync(cursor, bodies);
+        assertEquals(2, bodies.size());
+        assertEquals("early", bodies.get(0));
+        assertEquals("late", bodies.get(1));
+    }
+
+}
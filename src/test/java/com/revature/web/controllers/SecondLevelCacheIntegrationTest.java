@@ -0,0 +1,129 @@
+package com.revature.web.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import javax.persistence.EntityManagerFactory;
+
+import com.revature.models.Business;
+import com.revature.models.Hours;
+import com.revature.models.Role;
+import com.revature.models.User;
+import com.revature.repos.BusinessRepository;
+import com.revature.repos.HoursRepository;
+import com.revature.repos.UserRepository;
+
+import org.hamcrest.Matchers;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+/**
+ * Checks that repeated reads of Businesses, Hours and Users are served by the Hibernate second
+ * level cache instead of the embedded database
+ */
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class SecondLevelCacheIntegrationTest {
+
+    private final WebApplicationContext webContext;
+    private final Statistics statistics;
+
+    @Autowired
+    private UserRepository userRepo;
+    @Autowired
+    private BusinessRepository businessRepo;
+    @Autowired
+    private HoursRepository hoursRepo;
+
+    User owner;
+    Business business;
+
+    @Autowired
+    public SecondLevelCacheIntegrationTest(WebApplicationContext webContext, EntityManagerFactory emf) {
+        this.webContext = webContext;
+        this.statistics = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @BeforeAll
+    public void seed() {
+        owner = new User();
+        owner.setUsername("cacheOwner");
+        owner.setPassword("pass");
+        owner.setEmail("cacheOwner@email.com");
+        owner.setFirstName("first");
+        owner.setLastName("last");
+        owner.setRole(Role.OWNER);
+        owner.setActive(true);
+        userRepo.save(owner);
+
+        business = new Business();
+        business.setOwner(owner);
+        business.setEmail("cache@business.com");
+        business.setBusinessName("Cached");
+        business.setLocation("somewhere");
+        business.setBusinessType("bakery");
+        business.setActive(true);
+        business.setRegisterDatetime(Timestamp.valueOf(LocalDateTime.now()));
+        businessRepo.save(business);
+
+        Hours hours = new Hours();
+        hours.setBusiness(business);
+        hours.setDay(1);
+        hours.setOpen(Timestamp.valueOf("2020-03-14 08:00:00"));
+        hours.setClosed(Timestamp.valueOf("2020-03-14 21:00:00"));
+        hoursRepo.save(hours);
+    }
+
+    @Test
+    public void test_findById_servedFromCache() {
+        businessRepo.findById(business.getId());
+        userRepo.findById(owner.getUserId());
+
+        statistics.clear();
+        assertEquals("Cached", businessRepo.findById(business.getId()).get().getBusinessName());
+        assertEquals("cacheOwner", userRepo.findById(owner.getUserId()).get().getUsername());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() >= 2);
+    }
+
+    @Test
+    public void test_cacheableQuery_servedFromCache() {
+        hoursRepo.findHoursByBusinessId(business.getId());
+
+        statistics.clear();
+        assertEquals(1, hoursRepo.findHoursByBusinessId(business.getId()).size());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    public void test_getCacheStats_listsRegions() throws Exception {
+        hoursRepo.findHoursByBusinessId(business.getId());
+
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webContext).build();
+        mockMvc.perform(MockMvcRequestBuilders.get("/stats/caches"))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$[*].name", Matchers.hasItems("business.byId", "hibernate.business",
+                       "hibernate.hours", "hibernate.users", "hibernate.default-query-results-region")));
+    }
+
+}
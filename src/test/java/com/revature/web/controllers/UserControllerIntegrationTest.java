@@ -1,5 +1,7 @@
 package com.revature.web.controllers;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
@@ -24,6 +26,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
@@ -121,7 +124,7 @@ public class UserControllerIntegrationTest {
     @Test
     public void test_getAllUsers() throws Exception {
 
-        when(userRepoMock.findAll()).thenReturn(list);
+        when(userRepoMock.findUsersByUserIdGreaterThanOrderByUserIdAsc(eq(0), any(Pageable.class))).thenReturn(list);
 
         this.mockMvc.perform(MockMvcRequestBuilders.get("/users"))
                     .andDo(print())
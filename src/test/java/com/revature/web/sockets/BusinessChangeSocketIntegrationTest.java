@@ -0,0 +1,94 @@
+package com.revature.web.sockets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revature.models.Business;
+import com.revature.models.Post;
+import com.revature.repos.BusinessRepository;
+import com.revature.search.BusinessSpatialIndex;
+import com.revature.services.PostService;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+/**
+ * Connects to /ws/businesses, sets a viewport, and checks that a Post written for a Business in
+ * it is pushed down the socket
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ExtendWith(SpringExtension.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class BusinessChangeSocketIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private BusinessRepository businessRepo;
+    @Autowired
+    private BusinessSpatialIndex spatialIndex;
+    @Autowired
+    private PostService postService;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void test_postInViewport_pushed() throws Exception {
+        Business business = businessRepo.findById(1).get();
+        business.setLatitude(38.6);
+        business.setLongitude(-90.2);
+        spatialIndex.put(business);
+
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        WebSocketSession session = new StandardWebSocketClient().doHandshake(new TextWebSocketHandler() {
+            @Override
+            protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+                received.add(message.getPayload());
+            }
+        }, "ws://localhost:" + port + "/ws/businesses").get(5, TimeUnit.SECONDS);
+
+        try {
+            session.sendMessage(new TextMessage("{\"minLat\":38.5,\"minLon\":-90.3,\"maxLat\":38.7,\"maxLon\":-90.1}"));
+            JsonNode ack = mapper.readTree(received.poll(5, TimeUnit.SECONDS));
+            assertEquals("viewport", ack.get("kind").asText());
+            assertEquals(1, ack.get("businesses").asInt());
+
+            Post post = new Post();
+            post.setBusiness(business);
+            post.setPostType("Sale");
+            post.setBody("socket post");
+            post.setCreatedTime(Timestamp.valueOf(LocalDateTime.now()));
+            postService.createPost(post);
+
+            String pushed = received.poll(5, TimeUnit.SECONDS);
+            assertNotNull(pushed);
+            JsonNode change = mapper.readTree(pushed);
+            assertEquals("post", change.get("kind").asText());
+            assertEquals("socket post", change.get("data").get("body").asText());
+
+            session.sendMessage(new TextMessage("not a viewport"));
+            assertEquals("error", mapper.readTree(received.poll(5, TimeUnit.SECONDS)).get("kind").asText());
+        } finally {
+            session.close();
+        }
+    }
+
+}